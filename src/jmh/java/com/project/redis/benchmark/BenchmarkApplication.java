@@ -0,0 +1,87 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.config.RedisConfig;
+import com.project.redis.repository.GameBatchRepository;
+import com.project.redis.repository.MatchBatchRepository;
+import com.project.redis.repository.MatchHistoryRepository;
+import com.project.redis.repository.RatingBatchRepository;
+import com.project.redis.repository.StatsRollupRepository;
+import com.project.redis.repository.UserBatchRepository;
+import com.project.redis.security.JwtService;
+import com.project.redis.service.impl.GameCounterServiceImpl;
+import com.project.redis.service.impl.GameServiceImpl;
+import com.project.redis.service.impl.LeaderBoardServiceImpl;
+import com.project.redis.service.impl.LeaderboardWindowServiceImpl;
+import com.project.redis.service.impl.MatchHistoryServiceImpl;
+import com.project.redis.service.impl.MatchWriteBehindServiceImpl;
+import com.project.redis.service.impl.MatchmakingServiceImpl;
+import com.project.redis.service.impl.PresenceServiceImpl;
+import com.project.redis.service.impl.RankEventServiceImpl;
+import com.project.redis.service.impl.RankPushServiceImpl;
+import com.project.redis.service.impl.RatingServiceImpl;
+import com.project.redis.service.impl.RollingLeaderboardServiceImpl;
+import com.project.redis.service.impl.ShardedLeaderboardServiceImpl;
+import com.project.redis.service.impl.SocialServiceImpl;
+import com.project.redis.service.impl.StatsRollupServiceImpl;
+import com.project.redis.service.impl.UserStatsServiceImpl;
+import com.project.redis.service.impl.UserSummaryServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Benchmark context-i: yalniz olculen service-ler qalxir (auth, mail, controller yoxdur).
+ * Entity ve JPA repository-ler com.project.redis paketinden goturulur.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EnableScheduling
+@AutoConfigurationPackage(basePackages = "com.project.redis")
+@Import({
+        RedisConfig.class,
+        JwtService.class,
+        LeaderBoardServiceImpl.class,
+        LeaderboardWindowServiceImpl.class,
+        RollingLeaderboardServiceImpl.class,
+        ShardedLeaderboardServiceImpl.class,
+        UserSummaryServiceImpl.class,
+        GameServiceImpl.class,
+        GameCounterServiceImpl.class,
+        UserStatsServiceImpl.class,
+        MatchWriteBehindServiceImpl.class,
+        MatchHistoryServiceImpl.class,
+        MatchmakingServiceImpl.class,
+        PresenceServiceImpl.class,
+        RatingServiceImpl.class,
+        RankEventServiceImpl.class,
+        RankPushServiceImpl.class,
+        SocialServiceImpl.class,
+        StatsRollupServiceImpl.class,
+        UserBatchRepository.class,
+        GameBatchRepository.class,
+        MatchHistoryRepository.class
+})
+public class BenchmarkApplication {
+    @Bean
+    public MatchBatchRepository matchBatchRepository(JdbcTemplate jdbcTemplate,
+                                                     @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        return new H2MatchBatchRepository(jdbcTemplate, schema);
+    }
+
+    @Bean
+    public RatingBatchRepository ratingBatchRepository(JdbcTemplate jdbcTemplate,
+                                                       @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        return new H2RatingBatchRepository(jdbcTemplate, schema);
+    }
+
+    @Bean
+    public StatsRollupRepository statsRollupRepository(JdbcTemplate jdbcTemplate,
+                                                       @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        return new H2StatsRollupRepository(jdbcTemplate, schema);
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.model.Game;
+import com.project.redis.model.User;
+import com.project.redis.repository.GameRepository;
+import com.project.redis.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Redis + in-memory H2 (PostgreSQL mode) uzerinde benchmark context-i.
+ * Her trial oz environment-ini qaldirir ve baglayir, ona gore olculer bir-birine tesir etmir.
+ */
+final class BenchmarkEnvironment implements AutoCloseable {
+    static final String JWT_SECRET = "dGhpcy1pcy1hLWJlbmNobWFyay1vbmx5LXNlY3JldC1rZXktZm9yLWhzMjU2LXNpZ25pbmc=";
+
+    private final RedisServer redisServer;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkEnvironment(RedisServer redisServer, ConfigurableApplicationContext context) {
+        this.redisServer = redisServer;
+        this.context = context;
+    }
+
+    /**
+     * extraArgs --key=value formatindadir ve default-lari override edir (mes. --leaderboard.pipelined-submit=false).
+     */
+    static BenchmarkEnvironment start(String... extraArgs) throws IOException {
+        int port = freePort();
+        RedisServer redisServer = new RedisServer(port);
+        redisServer.start();
+        try {
+            String[] defaults = {
+                    "--spring.data.redis.port=" + port,
+                    "--spring.data.redis.timeout=5000",
+                    "--spring.datasource.url=jdbc:h2:mem:bench-" + port + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.default_schema=public",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    // Flyway migration-lari Postgres partition DDL-idir: H2-de matches duz cedvel kimi Hibernate ile qalxir
+                    "--spring.flyway.enabled=false",
+                    "--spring.jpa.properties.hibernate.hbm2ddl.schema_filter_provider=org.hibernate.tool.schema.internal.DefaultSchemaFilterProvider",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.jpa.properties.hibernate.format_sql=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.org.hibernate.SQL=WARN",
+                    "--logging.level.org.hibernate.tool.schema=ERROR",
+                    "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                    "--logging.level.org.springframework.security=WARN",
+                    "--logging.level.org.springframework.web=WARN",
+                    "--jwt.secret=" + JWT_SECRET,
+                    "--spring.mail.username=bench",
+                    "--spring.mail.password=bench",
+                    "--spring.mail.test-connection=false",
+                    "--otp.length=6",
+                    "--otp.expiration=5"
+            };
+            String[] args = Stream.concat(Stream.of(defaults), Stream.of(extraArgs)).toArray(String[]::new);
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(args);
+            return new BenchmarkEnvironment(redisServer, context);
+        } catch (RuntimeException e) {
+            redisServer.stop();
+            throw e;
+        }
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    List<User> seedUsers(int count) {
+        UserRepository userRepository = bean(UserRepository.class);
+        List<User> saved = new ArrayList<>(count);
+        List<User> chunk = new ArrayList<>(1000);
+        for (int i = 0; i < count; i++) {
+            chunk.add(User.builder()
+                    .username("bench_user_" + i)
+                    .email("bench_user_" + i + "@bench.local")
+                    .avatar("https://cdn.bench.local/avatar/" + i + ".png")
+                    .level(1 + i % 50)
+                    .build());
+            if (chunk.size() == 1000 || i == count - 1) {
+                saved.addAll(userRepository.saveAll(chunk));
+                chunk.clear();
+            }
+        }
+        return saved;
+    }
+
+    List<Game> seedGames(int count) {
+        GameRepository gameRepository = bean(GameRepository.class);
+        List<Game> games = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            games.add(Game.builder()
+                    .name("Bench Game " + i)
+                    .category(i % 2 == 0 ? "arcade" : "puzzle")
+                    .build());
+        }
+        return gameRepository.saveAll(games);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (RedisConnection connection = bean(RedisConnectionFactory.class).getConnection()) {
+            connection.serverCommands().flushAll();
+        } finally {
+            context.close();
+            redisServer.stop();
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.dto.request.FinishGameRequest;
+import com.project.redis.dto.response.GameSessionResponse;
+import com.project.redis.enums.MatchResult;
+import com.project.redis.model.Game;
+import com.project.redis.model.User;
+import com.project.redis.service.IGameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * startGame + finishGame tam dovrusu. Bir user-in eyni anda bir aktiv session-u ola bilir,
+ * ona gore iki call bir operation kimi olculur ve user-ler novbe ile secilir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameSessionBenchmark {
+    @Param({"1000"})
+    public int players;
+
+    private BenchmarkEnvironment environment;
+    private IGameService gameService;
+    private long[] userIds;
+    private long[] gameIds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        environment = BenchmarkEnvironment.start();
+        gameService = environment.bean(IGameService.class);
+        List<User> users = environment.seedUsers(players);
+        List<Game> games = environment.seedGames(10);
+        userIds = users.stream().mapToLong(User::getId).toArray();
+        gameIds = games.stream().mapToLong(Game::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public void startAndFinishGame(Blackhole blackhole) throws Throwable {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = userIds[Math.floorMod(cursor.getAndIncrement(), userIds.length)];
+        GameSessionResponse session = gameService.startGame(userId, gameIds[random.nextInt(gameIds.length)]);
+        blackhole.consume(gameService.finishGame(userId, FinishGameRequest.builder()
+                .sessionId(session.getSessionId())
+                .result(random.nextBoolean() ? MatchResult.WIN : MatchResult.LOSS)
+                .score(random.nextInt(1, 100))
+                .duration(random.nextInt(30, 600))
+                .build()));
+    }
+}
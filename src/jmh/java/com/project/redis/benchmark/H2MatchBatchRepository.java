@@ -0,0 +1,55 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.repository.MatchBatchRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * H2 setval ve ON CONFLICT bilmir: sequence bos DB-de hizalamaya ehtiyac duymur,
+ * insert ise MERGE ... KEY(id) ile eyni idempotent davranisi verir.
+ */
+class H2MatchBatchRepository extends MatchBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final String matchesTable;
+    private final String matchesSequence;
+
+    H2MatchBatchRepository(JdbcTemplate jdbcTemplate, String schema) {
+        super(jdbcTemplate, schema);
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.matchesTable = prefix + "matches";
+        this.matchesSequence = prefix + "matches_seq";
+    }
+
+    @Override
+    public void alignSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + matchesSequence + " START WITH 1 INCREMENT BY " + ID_ALLOCATION_SIZE);
+    }
+
+    @Override
+    public int insertAll(List<PendingMatch> matches) {
+        if (matches.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(matchesTable)
+                .append(" (id, user_id, game_id, opponent_id, result, score, duration, created_at) KEY (id) VALUES ");
+        List<Object> args = new ArrayList<>(matches.size() * 8);
+        for (int i = 0; i < matches.size(); i++) {
+            PendingMatch match = matches.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?)");
+            args.add(match.getId());
+            args.add(match.getUserId());
+            args.add(match.getGameId());
+            args.add(match.getOpponentId());
+            args.add(match.getResult().name());
+            args.add(match.getScore());
+            args.add(match.getDuration());
+            args.add(Timestamp.valueOf(match.getCreatedAt()));
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
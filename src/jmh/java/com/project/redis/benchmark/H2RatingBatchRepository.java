@@ -0,0 +1,46 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.model.UserRating;
+import com.project.redis.repository.RatingBatchRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * H2 ON CONFLICT bilmir: upsert MERGE ... KEY(user_id, scope) ile edilir.
+ */
+class H2RatingBatchRepository extends RatingBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final String ratingsTable;
+
+    H2RatingBatchRepository(JdbcTemplate jdbcTemplate, String schema) {
+        super(jdbcTemplate, schema);
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.ratingsTable = prefix + "user_ratings";
+    }
+
+    @Override
+    public int upsertAll(List<UserRating> ratings) {
+        if (ratings.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(ratingsTable)
+                .append(" (user_id, scope, rating, deviation, volatility, matches, updated_at) KEY (user_id, scope) VALUES ");
+        List<Object> args = new ArrayList<>(ratings.size() * 7);
+        for (int i = 0; i < ratings.size(); i++) {
+            UserRating rating = ratings.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?)");
+            args.add(rating.getUserId());
+            args.add(rating.getScope());
+            args.add(rating.getRating());
+            args.add(rating.getDeviation());
+            args.add(rating.getVolatility());
+            args.add(rating.getMatches());
+            args.add(Timestamp.valueOf(rating.getUpdatedAt()));
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.model.GameDailyStats;
+import com.project.redis.model.UserGameStats;
+import com.project.redis.repository.StatsRollupRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * H2 ON CONFLICT bilmir: upsert-ler MERGE ... KEY(...) ile edilir.
+ */
+class H2StatsRollupRepository extends StatsRollupRepository {
+    private static final String COLUMNS = "matches, wins, losses, draws, score_sum, score_min, score_max, duration_sum, histogram, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String userGameTable;
+    private final String gameDailyTable;
+
+    H2StatsRollupRepository(JdbcTemplate jdbcTemplate, String schema) {
+        super(jdbcTemplate, schema);
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.userGameTable = prefix + "user_game_stats";
+        this.gameDailyTable = prefix + "game_daily_stats";
+    }
+
+    @Override
+    public int upsertUserGameStats(List<UserGameStats> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(userGameTable)
+                .append(" (user_id, game_id, ").append(COLUMNS).append(") KEY (user_id, game_id) VALUES ");
+        List<Object> args = new ArrayList<>(rows.size() * 12);
+        for (int i = 0; i < rows.size(); i++) {
+            UserGameStats row = rows.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            args.add(row.getUserId());
+            args.add(row.getGameId());
+            args.add(row.getMatches());
+            args.add(row.getWins());
+            args.add(row.getLosses());
+            args.add(row.getDraws());
+            args.add(row.getScoreSum());
+            args.add(row.getScoreMin());
+            args.add(row.getScoreMax());
+            args.add(row.getDurationSum());
+            args.add(row.getHistogram());
+            args.add(Timestamp.valueOf(row.getUpdatedAt()));
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    @Override
+    public int upsertGameDailyStats(List<GameDailyStats> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(gameDailyTable)
+                .append(" (game_id, stat_day, ").append(COLUMNS).append(") KEY (game_id, stat_day) VALUES ");
+        List<Object> args = new ArrayList<>(rows.size() * 12);
+        for (int i = 0; i < rows.size(); i++) {
+            GameDailyStats row = rows.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            args.add(row.getGameId());
+            args.add(Date.valueOf(row.getDay()));
+            args.add(row.getMatches());
+            args.add(row.getWins());
+            args.add(row.getLosses());
+            args.add(row.getDraws());
+            args.add(row.getScoreSum());
+            args.add(row.getScoreMin());
+            args.add(row.getScoreMax());
+            args.add(row.getDurationSum());
+            args.add(row.getHistogram());
+            args.add(Timestamp.valueOf(row.getUpdatedAt()));
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
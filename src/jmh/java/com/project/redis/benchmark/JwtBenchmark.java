@@ -0,0 +1,53 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.model.User;
+import com.project.redis.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService sign ve parse. Spring context lazim deyil.
+ * claimsCacheSize=0 her parse-da tam HMAC yoxlamasini, 10000 ise cache hit yolunu olcur.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+    @Param({"0", "10000"})
+    public long claimsCacheSize;
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(BenchmarkEnvironment.JWT_SECRET, claimsCacheSize, 300);
+        user = User.builder()
+                .id(42L)
+                .username("bench_user")
+                .email("bench_user@bench.local")
+                .build();
+        token = jwtService.generateToken(Map.of("userId", user.getId()), user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(Map.of("userId", user.getId()), user);
+    }
+
+    @Benchmark
+    public String parse() {
+        return jwtService.extractUsername(token);
+    }
+}
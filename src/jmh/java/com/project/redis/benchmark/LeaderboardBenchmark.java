@@ -0,0 +1,78 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.dto.response.LeaderboardEntry;
+import com.project.redis.dto.response.LeaderboardUpdateResult;
+import com.project.redis.dto.response.UserRankInfo;
+import com.project.redis.model.Game;
+import com.project.redis.model.User;
+import com.project.redis.service.impl.LeaderBoardServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * addScore (pipelined ve ardicil), getUserRank ve top-100 hydration (buildLeaderboardEntries).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeaderboardBenchmark {
+    @Param({"true", "false"})
+    public boolean pipelinedSubmit;
+
+    @Param({"10000"})
+    public int players;
+
+    private BenchmarkEnvironment environment;
+    private LeaderBoardServiceImpl leaderBoardService;
+    private long[] userIds;
+    private long[] gameIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        environment = BenchmarkEnvironment.start("--leaderboard.pipelined-submit=" + pipelinedSubmit);
+        leaderBoardService = environment.bean(LeaderBoardServiceImpl.class);
+        List<User> users = environment.seedUsers(players);
+        List<Game> games = environment.seedGames(10);
+        userIds = users.stream().mapToLong(User::getId).toArray();
+        gameIds = games.stream().mapToLong(Game::getId).toArray();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long userId : userIds) {
+            leaderBoardService.addScore(userId, random.nextInt(1, 5000), gameIds[random.nextInt(gameIds.length)]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public LeaderboardUpdateResult addScore() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return leaderBoardService.addScore(userIds[random.nextInt(userIds.length)], random.nextInt(1, 100),
+                gameIds[random.nextInt(gameIds.length)]);
+    }
+
+    @Benchmark
+    public UserRankInfo getUserRank() {
+        return leaderBoardService.getUserRank(userIds[ThreadLocalRandom.current().nextInt(userIds.length)]);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> buildTop100Entries() {
+        return leaderBoardService.getTop100();
+    }
+}
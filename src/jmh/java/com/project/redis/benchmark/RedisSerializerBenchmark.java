@@ -0,0 +1,76 @@
+package com.project.redis.benchmark;
+
+import com.project.redis.config.RedisConfig;
+import com.project.redis.dto.response.UserSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compact codec ve JDK serializer: serialize/deserialize vaxti ve deyer olcusu (bayt, setup-da cap olunur).
+ * Yalniz Serializable deyerler secilib ki, iki codec eyni giris uzerinde muqayise olunsun.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RedisSerializerBenchmark {
+    @Param({"compact", "jdk"})
+    public String codec;
+
+    @Param({"member", "score", "summary", "summaryList"})
+    public String value;
+
+    private RedisSerializer<Object> serializer;
+    private Object input;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = new RedisConfig().redisValueSerializer(codec);
+        input = switch (value) {
+            case "member" -> "user:123456";
+            case "score" -> 48_213L;
+            case "summary" -> summary(123456);
+            case "summaryList" -> {
+                List<UserSummary> summaries = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    summaries.add(summary(i));
+                }
+                yield summaries;
+            }
+            default -> throw new IllegalArgumentException("Unknown value: " + value);
+        };
+        encoded = serializer.serialize(input);
+        System.out.printf("%n[%s/%s] encoded size: %d bytes%n", codec, value, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(input);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static UserSummary summary(long id) {
+        return UserSummary.builder()
+                .id(id)
+                .username("bench_user_" + id)
+                .avatar("https://cdn.bench.local/avatar/" + id + ".png")
+                .level(17)
+                .build();
+    }
+}
@@ -7,12 +7,14 @@ import org.springframework.boot.persistence.autoconfigure.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories
 @EntityScan("com.project")
 @ComponentScan("com.project")
 @EnableAsync
+@EnableScheduling
 public class GamingAreanApplication {
 
     public static void main(String[] args) {
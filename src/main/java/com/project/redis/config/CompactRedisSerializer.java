@@ -0,0 +1,234 @@
+package com.project.redis.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JdkSerializationRedisSerializer evezine kompakt codec.
+ * <ul>
+ *     <li>String: duz UTF-8 (ilk bayt tag ve ya JDK magic ile qarisa bilerse TAG_STRING prefiksi ile)</li>
+ *     <li>Long/Integer: tag + zigzag varint, Double: tag + 8 bayt, Boolean: tag + 1 bayt</li>
+ *     <li>Qeydiyyatdan kecmis DTO-lar: tag + 1 baytliq tip id + JSON (sinif adi yazilmir)</li>
+ *     <li>Qeydiyyatli DTO siyahilari: tag + element tip id + JSON array</li>
+ * </ul>
+ * Qeydiyyatda olmayan tipler JDK formatinda yazilir ve JDK formatli (0xACED) deyerler hemise oxunur,
+ * ona gore kohne formatda yazilmis key-ler kecid dovrunde de isleyir.
+ * Tip id-leri Redis-de saxlanilir, movcud id-ni deyismek olmaz, yalniz yenisini elave etmek olar.
+ * compactWrites false olanda hec ne kompakt yazilmir (JDK formati), yalniz oxuma iki formati da bilir:
+ * ZSET/SET member-leri ve hash field-leri kocurulene qeder yazilar kohne formatda qalmalidir (CodecMigrationServiceImpl).
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+    private static final byte TAG_STRING = 0x01;
+    private static final byte TAG_LONG = 0x02;
+    private static final byte TAG_INT = 0x03;
+    private static final byte TAG_DOUBLE = 0x04;
+    private static final byte TAG_BOOLEAN = 0x05;
+    private static final byte TAG_OBJECT = 0x10;
+    private static final byte TAG_LIST = 0x11;
+    private static final byte MAX_TAG = 0x1F;
+    private static final byte JDK_MAGIC_0 = (byte) 0xAC;
+    private static final byte JDK_MAGIC_1 = (byte) 0xED;
+
+    private final Map<Class<?>, Byte> typeIds = new HashMap<>();
+    private final Map<Byte, Class<?>> typesById = new HashMap<>();
+    // null field-ler yazilmir, oxuyanda default deyer qalir
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+            .build();
+    private final JdkSerializationRedisSerializer legacy = new JdkSerializationRedisSerializer();
+    private final Set<Class<?>> warnedTypes = ConcurrentHashMap.newKeySet();
+    private volatile boolean compactWrites = true;
+
+    public CompactRedisSerializer register(int id, Class<?> type) {
+        if (id <= 0 || id > 127) {
+            throw new IllegalArgumentException("Type id must be between 1 and 127: " + id);
+        }
+        if (typesById.containsKey((byte) id)) {
+            throw new IllegalArgumentException("Type id already registered: " + id + " -> " + typesById.get((byte) id));
+        }
+        typeIds.put(type, (byte) id);
+        typesById.put((byte) id, type);
+        return this;
+    }
+
+    public CompactRedisSerializer compactWrites(boolean enabled) {
+        this.compactWrites = enabled;
+        return this;
+    }
+
+    public boolean isCompactWrites() {
+        return compactWrites;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        return compactWrites ? serializeCompact(value) : legacy.serialize(value);
+    }
+
+    /**
+     * compactWrites-dan asili olmayaraq kompakt format (kocurme yeni member-i bununla qurur).
+     */
+    public byte[] serializeCompact(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof String string) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0 && isReservedFirstByte(bytes[0])) {
+                return prefixed(TAG_STRING, bytes);
+            }
+            return bytes;
+        }
+        if (value instanceof Long number) {
+            return varint(TAG_LONG, number);
+        }
+        if (value instanceof Integer number) {
+            return varint(TAG_INT, number);
+        }
+        if (value instanceof Double number) {
+            return ByteBuffer.allocate(9).put(TAG_DOUBLE).putDouble(number).array();
+        }
+        if (value instanceof Boolean flag) {
+            return new byte[]{TAG_BOOLEAN, (byte) (flag ? 1 : 0)};
+        }
+        Byte typeId = typeIds.get(value.getClass());
+        if (typeId != null) {
+            return withHeader(TAG_OBJECT, typeId, writeJson(value));
+        }
+        if (value instanceof List<?> list) {
+            Byte elementId = list.isEmpty() ? Byte.valueOf((byte) 0) : typeIds.get(list.get(0).getClass());
+            if (elementId != null && sameType(list)) {
+                return withHeader(TAG_LIST, elementId, writeJson(list));
+            }
+        }
+        if (warnedTypes.add(value.getClass())) {
+            log.warn("No compact codec registered for {}, falling back to JDK serialization", value.getClass().getName());
+        }
+        return legacy.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        byte tag = bytes[0];
+        if (tag == JDK_MAGIC_0 && bytes.length > 1 && bytes[1] == JDK_MAGIC_1) {
+            return legacy.deserialize(bytes);
+        }
+        if (tag < 0 || tag > MAX_TAG) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return switch (tag) {
+            case TAG_STRING -> new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            case TAG_LONG -> readVarint(bytes);
+            case TAG_INT -> (int) readVarint(bytes);
+            case TAG_DOUBLE -> ByteBuffer.wrap(bytes, 1, 8).getDouble();
+            case TAG_BOOLEAN -> bytes[1] != 0;
+            case TAG_OBJECT -> readJson(bytes, mapper.constructType(typeFor(bytes[1])));
+            case TAG_LIST -> bytes[1] == 0
+                    ? new ArrayList<>()
+                    : readJson(bytes, mapper.getTypeFactory().constructCollectionType(ArrayList.class, typeFor(bytes[1])));
+            default -> new String(bytes, StandardCharsets.UTF_8);
+        };
+    }
+
+    private boolean isReservedFirstByte(byte first) {
+        return (first >= 0 && first <= MAX_TAG) || first == JDK_MAGIC_0;
+    }
+
+    private boolean sameType(List<?> list) {
+        Class<?> type = list.isEmpty() ? null : list.get(0).getClass();
+        for (Object element : list) {
+            if (element == null || element.getClass() != type) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Class<?> typeFor(byte id) {
+        Class<?> type = typesById.get(id);
+        if (type == null) {
+            throw new SerializationException("Unknown compact codec type id: " + id);
+        }
+        return type;
+    }
+
+    private byte[] writeJson(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JacksonException e) {
+            throw new SerializationException("Could not write " + value.getClass().getName(), e);
+        }
+    }
+
+    private Object readJson(byte[] bytes, JavaType type) {
+        try {
+            return mapper.readValue(bytes, 2, bytes.length - 2, type);
+        } catch (JacksonException e) {
+            throw new SerializationException("Could not read " + type, e);
+        }
+    }
+
+    private byte[] prefixed(byte tag, byte[] body) {
+        byte[] result = new byte[body.length + 1];
+        result[0] = tag;
+        System.arraycopy(body, 0, result, 1, body.length);
+        return result;
+    }
+
+    private byte[] withHeader(byte tag, byte typeId, byte[] body) {
+        byte[] result = new byte[body.length + 2];
+        result[0] = tag;
+        result[1] = typeId;
+        System.arraycopy(body, 0, result, 2, body.length);
+        return result;
+    }
+
+    private byte[] varint(byte tag, long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(11);
+        out.write(tag);
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+        return out.toByteArray();
+    }
+
+    private long readVarint(byte[] bytes) {
+        long zigzag = 0;
+        int shift = 0;
+        for (int i = 1; i < bytes.length; i++) {
+            zigzag |= (long) (bytes[i] & 0x7F) << shift;
+            if ((bytes[i] & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.redis.config;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+
+import java.util.Set;
+
+/**
+ * Flyway migration-lari ile idare olunan cedveller ddl-auto-dan cixarilir.
+ * matches partition-li cedveldir: JDBC metadata onu "PARTITIONED TABLE" kimi qaytarir ve Hibernate onu yeniden yaratmaga calisardi.
+ */
+public class MigrationSchemaFilterProvider implements SchemaFilterProvider {
+    private static final Set<String> MIGRATION_MANAGED_TABLES = Set.of("matches");
+
+    private static final SchemaFilter FILTER = new SchemaFilter() {
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table table) {
+            return !MIGRATION_MANAGED_TABLES.contains(table.getName());
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return true;
+        }
+    };
+
+    @Override
+    public SchemaFilter getCreateFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getDropFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getTruncatorFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getMigrateFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getValidateFilter() {
+        return FILTER;
+    }
+}
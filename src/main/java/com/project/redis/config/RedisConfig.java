@@ -1,22 +1,61 @@
 package com.project.redis.config;
 
+import com.project.redis.dto.request.GameSession;
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.dto.response.LeaderboardEntry;
+import com.project.redis.dto.response.MatchLobby;
+import com.project.redis.dto.response.UserProfileResponse;
+import com.project.redis.dto.response.UserSummary;
+import com.project.redis.model.Game;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
+    /**
+     * redis.codec=jdk (default) kohne format. redis.codec=compact kompakt codec-dir, iki formati da oxuyur,
+     * amma member/field kocurmesi baslayana qeder (redis:codec marker-i) JDK formatinda yazir:
+     * evvel butun node-lar compact ile deploy olunur, sonra kocurme isledilir (CodecMigrationServiceImpl).
+     */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisSerializer<Object> redisValueSerializer(@Value("${redis.codec:jdk}") String codec) {
+        if ("jdk".equalsIgnoreCase(codec)) {
+            return new JdkSerializationRedisSerializer();
+        }
+        // tip id-leri Redis-de saxlanilir: movcud id-leri deyismeyin, yenilerini sona elave edin
+        return new CompactRedisSerializer()
+                .compactWrites(false)
+                .register(1, GameSession.class)
+                .register(2, Game.class)
+                .register(3, LeaderboardEntry.class)
+                .register(4, UserSummary.class)
+                .register(5, UserProfileResponse.class)
+                .register(6, PendingMatch.class)
+                .register(7, MatchLobby.class);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, RedisSerializer<Object> redisValueSerializer) {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(connectionFactory);
         redisTemplate.setKeySerializer(new StringRedisSerializer());
-        redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
-        redisTemplate.setHashValueSerializer(new JdkSerializationRedisSerializer());
-        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(redisValueSerializer);
+        redisTemplate.setHashKeySerializer(redisValueSerializer);
+        redisTemplate.setHashValueSerializer(redisValueSerializer);
         return redisTemplate;
     }
 }
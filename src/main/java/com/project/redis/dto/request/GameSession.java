@@ -16,4 +16,6 @@ public class GameSession {
     private Long userId;
     private Long gameId;
     private LocalDateTime startedAt;
+    // matchmaking lobby-sinden gelen raqib (tek oyunculu session-da null)
+    private Long opponentId;
 }
@@ -0,0 +1,24 @@
+package com.project.redis.dto.request;
+
+import com.project.redis.enums.MatchResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingMatch {
+    private Long id;
+    private Long userId;
+    private Long gameId;
+    private Long opponentId;
+    private MatchResult result;
+    private Integer score;
+    private Integer duration;
+    private LocalDateTime createdAt;
+}
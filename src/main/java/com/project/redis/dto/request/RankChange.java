@@ -0,0 +1,22 @@
+package com.project.redis.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * addScore-un bir board-da yaratdigi deyisiklik. Rank-lar 1-den baslayir, oldRank null = user board-da yox idi.
+ * key null = sharded global board (kohne rank shard sayimlarindan hesablanir).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankChange {
+    private String board;
+    private String key;
+    private Integer oldRank;
+    private Integer newRank;
+    private Long score;
+}
@@ -0,0 +1,30 @@
+package com.project.redis.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Backfill sorgusunun bir setri: (user + oyun) ve ya (oyun + gun) ve score bucket uzre qruplanmis aqreqat.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsBucketRow {
+    private Long userId;
+    private Long gameId;
+    private LocalDate day;
+    private int bucket;
+    private long matches;
+    private long wins;
+    private long losses;
+    private long draws;
+    private long scoreSum;
+    private long scoreMin;
+    private long scoreMax;
+    private long durationSum;
+}
@@ -0,0 +1,18 @@
+package com.project.redis.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsDelta {
+    private Long userId;
+    private Long totalMatches;
+    private Long wins;
+    private Long losses;
+    private Long totalScore;
+}
@@ -0,0 +1,18 @@
+package com.project.redis.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheStatsResponse {
+    private String name;
+    private Long size;
+    private Long hitCount;
+    private Long missCount;
+    private Double hitRate;
+    private Long loadCount;
+    private Long refreshCount;
+    private Long changeRefreshCount;
+    private Long evictionCount;
+}
@@ -0,0 +1,24 @@
+package com.project.redis.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.project.redis.enums.LeaderboardType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LeaderboardPage {
+    private LeaderboardType type;
+    private Long gameId;
+    private String windowId; // DAILY/WEEKLY/MONTHLY/SEASON ucun pencere (2026-W42 ve s.)
+    private Integer offset;
+    private Integer limit;
+    private Long totalPlayers;
+    private Integer nextCursor; // novbeti sehifenin offset-i, son sehifede null
+    private Integer userRank; // yalniz around-me sorgusunda
+    private Boolean fromSnapshot; // pencere Redis-den expire olub, netice leaderboard_snapshots-dandir
+    private List<LeaderboardEntry> entries;
+}
@@ -12,4 +12,12 @@ public class LeaderboardUpdateResult {
     private Integer globalRank;
     private Long newDailyScore;
     private Integer dailyRank;
+    private Long newWeeklyScore;
+    private Integer weeklyRank;
+    private Long newMonthlyScore;
+    private Integer monthlyRank;
+    private Long newSeasonScore;
+    private Integer seasonRank;
+    private Long newGameScore;
+    private Integer gameRank;
 }
@@ -0,0 +1,23 @@
+package com.project.redis.dto.response;
+
+import com.project.redis.enums.LeaderboardType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * Zamanla mehdud leaderboard penceresi (gun, ISO hefte, ay, sezon). id key-in ve snapshot-un bir hissesidir:
+ * 2026-10-18, 2026-W42, 2026-10, S4. ROLLING ucun id "24h", "7d" ve ya saatliq bucket-dir.
+ */
+@Data
+@Builder
+public class LeaderboardWindow {
+    private LeaderboardType type;
+    private String id;
+    private String key;
+    private ZonedDateTime start;
+    private ZonedDateTime end;
+    private Instant expireAt; // end + grace, bu ana qeder ZSET Redis-de qalir; null = expire olmur
+}
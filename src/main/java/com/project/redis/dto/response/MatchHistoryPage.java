@@ -0,0 +1,23 @@
+package com.project.redis.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset sehife: novbeti sehife ucun nextBeforeCreatedAt/nextBeforeId gonderilir, son sehifede ikisi de null olur.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchHistoryPage {
+    private List<MatchHistoryEntry> entries;
+    private LocalDateTime nextBeforeCreatedAt;
+    private Long nextBeforeId;
+    private boolean fromCache;
+}
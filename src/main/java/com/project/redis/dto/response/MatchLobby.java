@@ -0,0 +1,22 @@
+package com.project.redis.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchLobby {
+    private String lobbyId;
+    private Long gameId;
+    private List<Long> playerIds;
+    private Double averageRating;
+    private Double ratingSpread;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.project.redis.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class MatchmakingStatsResponse {
+    private Long queuedPlayers;
+    private Long lobbiesFormed;
+    private Long playersMatched;
+    private Long claimConflicts;
+    private Long expiredPlayers;
+    private Long matcherRuns;
+    private Double lobbiesPerSecond;
+    private Double averageTimeToMatchMs;
+    private Long maxTimeToMatchMs;
+}
@@ -0,0 +1,17 @@
+package com.project.redis.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerRating {
+    private Double rating;
+    private Double deviation;
+    private Double volatility;
+    private Integer matches;
+}
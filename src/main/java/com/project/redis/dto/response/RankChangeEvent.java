@@ -0,0 +1,21 @@
+package com.project.redis.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.project.redis.enums.RankEventType;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RankChangeEvent {
+    private String id; // stream entry id
+    private RankEventType type;
+    private String board; // global, daily, weekly, monthly, season, game:{id}
+    private Long userId;
+    private Integer oldRank;
+    private Integer newRank;
+    private Long score;
+    private boolean top; // deyisiklik top-N-e toxunur, board abunecilerine de gedir
+    private Long timestamp;
+}
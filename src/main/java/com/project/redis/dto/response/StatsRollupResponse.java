@@ -0,0 +1,30 @@
+package com.project.redis.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsRollupResponse {
+    private Long userId;
+    private Long gameId;
+    private LocalDate day;
+    private long matches;
+    private long wins;
+    private long losses;
+    private long draws;
+    private double winRate;
+    private double averageScore;
+    private Long scoreMin;
+    private Long scoreMax;
+    private double averageDuration;
+    private int histogramBucketWidth;
+    private List<Long> scoreHistogram;
+}
@@ -0,0 +1,19 @@
+package com.project.redis.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary implements Serializable {
+    private Long id;
+    private String username;
+    private String avatar;
+    private Integer level;
+}
@@ -0,0 +1,5 @@
+package com.project.redis.enums;
+
+public enum LeaderboardType {
+    GLOBAL, DAILY, WEEKLY, MONTHLY, SEASON, ROLLING, GAME
+}
@@ -0,0 +1,5 @@
+package com.project.redis.enums;
+
+public enum RankEventType {
+    RANK_CHANGED, TOP_ENTERED, TOP_LEFT
+}
@@ -0,0 +1,43 @@
+package com.project.redis.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Klan uzvluyu. Canli kopya Redis-de social:clan:{clanId}:members set-indedir.
+ */
+@Entity
+@Table(name = "clan_members", indexes = {
+        @Index(name = "idx_clan_members_user", columnList = "user_id")
+})
+@IdClass(ClanMember.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClanMember {
+    @Id
+    @Column(name = "clan_id")
+    private Long clanId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long clanId;
+        private Long userId;
+    }
+}
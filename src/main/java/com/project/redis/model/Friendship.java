@@ -0,0 +1,42 @@
+package com.project.redis.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Dostluq iki istiqametde iki setir kimi saxlanir: user-in dostlari PK prefiksi (user_id) ile oxunur.
+ * Canli kopya Redis-de social:friends:{userId} set-indedir.
+ */
+@Entity
+@Table(name = "friendships")
+@IdClass(Friendship.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Friendship {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "friend_id")
+    private Long friendId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long friendId;
+    }
+}
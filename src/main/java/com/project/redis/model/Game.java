@@ -1,5 +1,6 @@
 package com.project.redis.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.project.redis.enums.GameDifficulty;
 import com.project.redis.enums.GameStatus;
 import jakarta.persistence.*;
@@ -76,6 +77,7 @@ public class Game {
     private LocalDateTime updatedAt;
 
     // Relationships
+    @JsonIgnore
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL)
     @Builder.Default
     private List<Match> matches = new ArrayList<>();
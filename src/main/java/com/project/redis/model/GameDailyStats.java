@@ -0,0 +1,69 @@
+package com.project.redis.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Oyun + gun uzre match aqreqatlari. Son gunler Redis-dedir (stats:game-day:{gameId}:{day}), kohne gunler bu cedvelden oxunur.
+ */
+@Entity
+@Table(name = "game_daily_stats")
+@IdClass(GameDailyStats.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameDailyStats {
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Id
+    @Column(name = "stat_day")
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private Long matches;
+
+    @Column(nullable = false)
+    private Long wins;
+
+    @Column(nullable = false)
+    private Long losses;
+
+    @Column(nullable = false)
+    private Long draws;
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum;
+
+    @Column(name = "score_min")
+    private Long scoreMin;
+
+    @Column(name = "score_max")
+    private Long scoreMax;
+
+    @Column(name = "duration_sum", nullable = false)
+    private Long durationSum;
+
+    @Column(nullable = false, length = 1000)
+    private String histogram;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long gameId;
+        private LocalDate day;
+    }
+}
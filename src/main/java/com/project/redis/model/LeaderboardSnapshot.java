@@ -0,0 +1,55 @@
+package com.project.redis.model;
+
+import com.project.redis.enums.LeaderboardType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Bitmis pencerenin final top-N-i. Redis-deki ZSET expire olandan sonra kohne pencere bu cedvelden oxunur,
+ * PK (type, window_id, rank) sehifeni birbasa index araligi ile verir.
+ */
+@Entity
+@Table(name = "leaderboard_snapshots")
+@IdClass(LeaderboardSnapshot.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardSnapshot {
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private LeaderboardType type;
+
+    @Id
+    @Column(name = "window_id", length = 20)
+    private String windowId;
+
+    @Id
+    @Column(name = "rank")
+    private Integer rank;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long score;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LeaderboardType type;
+        private String windowId;
+        private Integer rank;
+    }
+}
@@ -9,19 +9,20 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * matches cedveli Flyway ile idare olunur (db/migration): created_at uzre aylik partition-lar, PK (id, created_at).
+ * ddl-auto bu cedvele toxunmur (MigrationSchemaFilterProvider).
+ */
 @Entity
-@Table(name = "matches", indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_game_id", columnList = "game_id"),
-        @Index(name = "idx_created_at", columnList = "createdAt")
-})
+@Table(name = "matches")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Match {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matches_seq")
+    @SequenceGenerator(name = "matches_seq", sequenceName = "matches_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,9 +46,6 @@ public class Match {
     @Column(nullable = false)
     private Integer duration;
 
-    @Column(columnDefinition = "TEXT")
-    private String replay;
-
     @Column(nullable = false, updatable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -0,0 +1,43 @@
+package com.project.redis.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Replay metadata-si. Replay-in ozu matches setrinde deyil, content-addressed fayl store-da gzip ile saxlanir
+ * ({replay.store-dir}/{hash[0..2]}/{hash}.gz), eyni replay bir defe yazilir.
+ */
+@Entity
+@Table(name = "match_replays", indexes = {
+        @Index(name = "idx_match_replays_hash", columnList = "content_hash")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchReplay {
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "raw_size", nullable = false)
+    private Long rawSize;
+
+    @Column(name = "stored_size", nullable = false)
+    private Long storedSize;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -142,6 +142,16 @@ public class User implements UserDetails {
         this.emailVerifiedAt = LocalDateTime.now();
     }
 
+    /**
+     * winRate wins/totalMatches-dan hesablanir, sutundaki deyer yalniz sorgular ucundur.
+     */
+    public Double getWinRate() {
+        if (totalMatches == null || totalMatches == 0) {
+            return 0.0;
+        }
+        return (wins * 100.0) / totalMatches;
+    }
+
     public void updateWinRate() {
         if (totalMatches > 0) {
             this.winRate = (wins * 100.0) / totalMatches;
@@ -0,0 +1,72 @@
+package com.project.redis.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * User + oyun uzre match aqreqatlari. Canli deyer Redis-dedir (stats:user-game:{userId}:{gameId}),
+ * bu cedvel periodik flush ile absolyut deyerlerle yenilenir.
+ * histogram: score bucket sayilari vergulle ("3,10,4,...").
+ */
+@Entity
+@Table(name = "user_game_stats", indexes = {
+        @Index(name = "idx_user_game_stats_game", columnList = "game_id")
+})
+@IdClass(UserGameStats.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserGameStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Column(nullable = false)
+    private Long matches;
+
+    @Column(nullable = false)
+    private Long wins;
+
+    @Column(nullable = false)
+    private Long losses;
+
+    @Column(nullable = false)
+    private Long draws;
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum;
+
+    @Column(name = "score_min")
+    private Long scoreMin;
+
+    @Column(name = "score_max")
+    private Long scoreMax;
+
+    @Column(name = "duration_sum", nullable = false)
+    private Long durationSum;
+
+    @Column(nullable = false, length = 1000)
+    private String histogram;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long gameId;
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.redis.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Glicko-2 reytinqinin DB kopyasi. Canli deyer Redis-dedir (rating:user:{id}), bu cedvel periodik flush ile yenilenir.
+ * scope: "global" ve ya "game:{gameId}".
+ */
+@Entity
+@Table(name = "user_ratings", indexes = {
+        @Index(name = "idx_user_ratings_scope_rating", columnList = "scope, rating")
+})
+@IdClass(UserRating.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRating {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(length = 40)
+    private String scope;
+
+    @Column(nullable = false)
+    private Double rating;
+
+    @Column(nullable = false)
+    private Double deviation;
+
+    @Column(nullable = false)
+    private Double volatility;
+
+    @Column(nullable = false)
+    private Integer matches;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String scope;
+    }
+}
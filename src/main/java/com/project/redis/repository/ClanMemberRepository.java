@@ -0,0 +1,14 @@
+package com.project.redis.repository;
+
+import com.project.redis.model.ClanMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ClanMemberRepository extends JpaRepository<ClanMember, ClanMember.Key> {
+    List<ClanMember> findByClanId(Long clanId);
+
+    long countByClanId(Long clanId);
+}
@@ -0,0 +1,10 @@
+package com.project.redis.repository;
+
+import com.project.redis.model.Clan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClanRepository extends JpaRepository<Clan, Long> {
+    boolean existsByName(String name);
+}
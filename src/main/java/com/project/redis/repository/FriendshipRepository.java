@@ -0,0 +1,14 @@
+package com.project.redis.repository;
+
+import com.project.redis.model.Friendship;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FriendshipRepository extends JpaRepository<Friendship, Friendship.Key> {
+    List<Friendship> findByUserId(Long userId);
+
+    long countByUserId(Long userId);
+}
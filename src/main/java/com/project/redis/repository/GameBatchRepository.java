@@ -0,0 +1,52 @@
+package com.project.redis.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * games cedveline set-based counter yazmalari.
+ */
+@Repository
+public class GameBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final String gamesTable;
+
+    public GameBatchRepository(JdbcTemplate jdbcTemplate,
+                               @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.gamesTable = prefix + "games";
+    }
+
+    /**
+     * play_count ve like_count delta-larini bir UPDATE ... FROM (VALUES ...) ile elave edir.
+     */
+    public int applyCounterDeltas(Map<Long, Long> playDeltas, Map<Long, Long> likeDeltas) {
+        Set<Long> gameIds = new HashSet<>(playDeltas.keySet());
+        gameIds.addAll(likeDeltas.keySet());
+        if (gameIds.isEmpty()) {
+            return 0;
+        }
+        StringBuilder values = new StringBuilder();
+        List<Object> args = new ArrayList<>(gameIds.size() * 3);
+        for (Long gameId : gameIds) {
+            values.append(values.isEmpty() ? "" : ", ").append("(?::bigint, ?::bigint, ?::bigint)");
+            args.add(gameId);
+            args.add(playDeltas.getOrDefault(gameId, 0L));
+            args.add(likeDeltas.getOrDefault(gameId, 0L));
+        }
+        String sql = "UPDATE " + gamesTable + " g SET "
+                + "play_count = g.play_count + v.plays, "
+                + "like_count = g.like_count + v.likes "
+                + "FROM (VALUES " + values + ") AS v(id, plays, likes) "
+                + "WHERE g.id = v.id";
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+}
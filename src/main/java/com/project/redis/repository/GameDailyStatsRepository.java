@@ -0,0 +1,15 @@
+package com.project.redis.repository;
+
+import com.project.redis.model.GameDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface GameDailyStatsRepository extends JpaRepository<GameDailyStats, GameDailyStats.Key> {
+    List<GameDailyStats> findByGameIdAndDayBetween(Long gameId, LocalDate from, LocalDate to);
+
+    List<GameDailyStats> findByGameId(Long gameId);
+}
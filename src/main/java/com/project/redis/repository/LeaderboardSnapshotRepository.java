@@ -0,0 +1,17 @@
+package com.project.redis.repository;
+
+import com.project.redis.enums.LeaderboardType;
+import com.project.redis.model.LeaderboardSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaderboardSnapshotRepository extends JpaRepository<LeaderboardSnapshot, LeaderboardSnapshot.Key> {
+    List<LeaderboardSnapshot> findByTypeAndWindowIdAndRankBetweenOrderByRankAsc(LeaderboardType type, String windowId, Integer from, Integer to);
+
+    long countByTypeAndWindowId(LeaderboardType type, String windowId);
+
+    boolean existsByTypeAndWindowId(LeaderboardType type, String windowId);
+}
@@ -0,0 +1,76 @@
+package com.project.redis.repository;
+
+import com.project.redis.dto.request.PendingMatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * matches cedveline JPA-siz toplu yazma. Id-ler matches_seq-den pooled-lo bloklari ile gelir,
+ * ona gore insert-ler bir multi-row INSERT ile gedir ve IDENTITY batching problemi olmur.
+ */
+@Repository
+public class MatchBatchRepository {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String matchesTable;
+    private final String matchesSequence;
+
+    public MatchBatchRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.matchesTable = prefix + "matches";
+        this.matchesSequence = prefix + "matches_seq";
+    }
+
+    /**
+     * Sequence-i movcud max(id)-den yuxari qoyur (kohne IDENTITY id-leri ile toqqusma olmasin).
+     */
+    public void alignSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + matchesSequence + " START WITH 1 INCREMENT BY " + ID_ALLOCATION_SIZE);
+        jdbcTemplate.queryForObject("SELECT setval('" + matchesSequence + "', GREATEST("
+                + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + matchesTable + "), "
+                + "(SELECT last_value FROM " + matchesSequence + ")))", Long.class);
+    }
+
+    /**
+     * Yeni id blokunun ilk deyeri, blok [start, start + ID_ALLOCATION_SIZE) araligidir.
+     */
+    public long allocateIdBlock() {
+        Long start = jdbcTemplate.queryForObject("SELECT nextval('" + matchesSequence + "')", Long.class);
+        return start != null ? start : 0L;
+    }
+
+    /**
+     * Butun batch-i bir multi-row INSERT ile yazir. Replay zamani tekrar gelen id-ler ON CONFLICT ile atlanir
+     * (partition-li cedvelde unikal acar (id, created_at)-dir, tekrar gelen match eyni created_at dasiyir).
+     */
+    public int insertAll(List<PendingMatch> matches) {
+        if (matches.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(matchesTable)
+                .append(" (id, user_id, game_id, opponent_id, result, score, duration, created_at) VALUES ");
+        List<Object> args = new ArrayList<>(matches.size() * 8);
+        for (int i = 0; i < matches.size(); i++) {
+            PendingMatch match = matches.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?)");
+            args.add(match.getId());
+            args.add(match.getUserId());
+            args.add(match.getGameId());
+            args.add(match.getOpponentId());
+            args.add(match.getResult().name());
+            args.add(match.getScore());
+            args.add(match.getDuration());
+            args.add(Timestamp.valueOf(match.getCreatedAt()));
+        }
+        sql.append(" ON CONFLICT (id, created_at) DO NOTHING");
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.redis.repository;
+
+import com.project.redis.dto.response.MatchHistoryEntry;
+import com.project.redis.enums.MatchResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * User match tarixcesi: matches(user_id, created_at, id) indeksi uzerinde keyset sorgulari ve cursor ile export.
+ */
+@Repository
+public class MatchHistoryRepository {
+    private static final String COLUMNS = "id, game_id, opponent_id, result, score, duration, created_at";
+    private static final RowMapper<MatchHistoryEntry> ROW_MAPPER = (rs, rowNum) -> toEntry(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String matchesTable;
+
+    public MatchHistoryRepository(JdbcTemplate jdbcTemplate,
+                                  @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.matchesTable = prefix + "matches";
+    }
+
+    /**
+     * (created_at, id) &lt; (beforeCreatedAt, beforeId) olan en yeni limit match. OFFSET yoxdur, derin sehife de indeksden oxunur.
+     * Row comparison partition pruning vermir, ona gore created_at &lt;= ayrica sert kimi de gedir.
+     */
+    public List<MatchHistoryEntry> findPage(Long userId, LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        if (beforeCreatedAt == null || beforeId == null) {
+            return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + matchesTable
+                    + " WHERE user_id = ? ORDER BY created_at DESC, id DESC LIMIT ?", ROW_MAPPER, userId, limit);
+        }
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + matchesTable
+                        + " WHERE user_id = ? AND created_at <= ? AND (created_at, id) < (?, ?)"
+                        + " ORDER BY created_at DESC, id DESC LIMIT ?",
+                ROW_MAPPER, userId, Timestamp.valueOf(beforeCreatedAt), Timestamp.valueOf(beforeCreatedAt), beforeId, limit);
+    }
+
+    /**
+     * [from, to) araligindaki match-lar. created_at sabit parametr ile muqayise olunur, planner yalniz
+     * araliga dusen aylik partition-lari oxuyur.
+     */
+    public List<MatchHistoryEntry> findRange(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + matchesTable
+                        + " WHERE user_id = ? AND created_at >= ? AND created_at < ? ORDER BY created_at DESC, id DESC LIMIT ?",
+                ROW_MAPPER, userId, Timestamp.valueOf(from), Timestamp.valueOf(to), limit);
+    }
+
+    public boolean existsForUser(Long userId, Long matchId) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + matchesTable + " WHERE id = ? AND user_id = ?",
+                Long.class, matchId, userId);
+        return !ids.isEmpty();
+    }
+
+    /**
+     * Butun tarixce server-side cursor ile fetchSize-lik hisselerle oxunur, setirler yaddasda yigilmir.
+     * Postgres cursor-u yalniz transaction daxilinde (autocommit off) isleyir.
+     */
+    public void streamAll(Long userId, int fetchSize, Consumer<MatchHistoryEntry> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT " + COLUMNS + " FROM " + matchesTable
+                            + " WHERE user_id = ? ORDER BY created_at DESC, id DESC",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, userId);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(toEntry(rs)));
+    }
+
+    private static MatchHistoryEntry toEntry(ResultSet rs) throws SQLException {
+        long opponentId = rs.getLong("opponent_id");
+        boolean noOpponent = rs.wasNull();
+        return MatchHistoryEntry.builder()
+                .matchId(rs.getLong("id"))
+                .gameId(rs.getLong("game_id"))
+                .opponentId(noOpponent ? null : opponentId)
+                .result(MatchResult.valueOf(rs.getString("result")))
+                .score(rs.getInt("score"))
+                .duration(rs.getInt("duration"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+}
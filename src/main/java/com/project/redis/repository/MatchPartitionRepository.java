@@ -0,0 +1,79 @@
+package com.project.redis.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * matches cedvelinin aylik partition-lari (matches_pYYYYMM) ve arxiv xulaseleri (match_monthly_summaries).
+ */
+@Repository
+public class MatchPartitionRepository {
+    private static final String PARTITION_PREFIX = "matches_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schema;
+    private final String prefix;
+
+    public MatchPartitionRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema == null || schema.isBlank() ? "public" : schema;
+        this.prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+    }
+
+    public List<YearMonth> findMonthlyPartitions() {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                + "JOIN pg_class p ON p.oid = i.inhparent "
+                + "JOIN pg_namespace n ON n.oid = p.relnamespace "
+                + "WHERE p.relname = 'matches' AND n.nspname = ? ORDER BY c.relname", String.class, schema);
+        List<YearMonth> months = new ArrayList<>(names.size());
+        for (String name : names) {
+            if (name.startsWith(PARTITION_PREFIX)) {
+                months.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+            }
+        }
+        return months;
+    }
+
+    public void createMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionTable(month) + " PARTITION OF " + prefix + "matches"
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    /**
+     * Partition-u user + oyun uzre match_monthly_summaries-e yigir, sonra DETACH + DROP edir. Hamisi bir transaction-dadir.
+     * Basqa node eyni ayi arxivleyirse advisory lock alinmir ve -1 qaytarilir.
+     */
+    @Transactional
+    public int archiveMonthlyPartition(YearMonth month) {
+        String table = partitionTable(month);
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(hashtext(?))", Boolean.class, table);
+        if (!Boolean.TRUE.equals(locked) || !findMonthlyPartitions().contains(month)) {
+            return -1;
+        }
+        int summaries = jdbcTemplate.update("INSERT INTO " + prefix + "match_monthly_summaries "
+                + "(month, user_id, game_id, matches, wins, losses, draws, total_score, max_score, total_duration) "
+                + "SELECT ?, user_id, game_id, COUNT(*), "
+                + "COUNT(*) FILTER (WHERE result = 'WIN'), COUNT(*) FILTER (WHERE result = 'LOSS'), "
+                + "COUNT(*) FILTER (WHERE result = 'DRAW'), SUM(score), MAX(score), SUM(duration) "
+                + "FROM " + table + " GROUP BY user_id, game_id "
+                + "ON CONFLICT (month, user_id, game_id) DO NOTHING", Date.valueOf(month.atDay(1)));
+        jdbcTemplate.execute("ALTER TABLE " + prefix + "matches DETACH PARTITION " + table);
+        jdbcTemplate.execute("DROP TABLE " + table);
+        return summaries;
+    }
+
+    private String partitionTable(YearMonth month) {
+        return prefix + PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
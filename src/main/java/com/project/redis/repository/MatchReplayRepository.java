@@ -0,0 +1,9 @@
+package com.project.redis.repository;
+
+import com.project.redis.model.MatchReplay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchReplayRepository extends JpaRepository<MatchReplay, Long> {
+}
@@ -0,0 +1,81 @@
+package com.project.redis.repository;
+
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.enums.MatchResult;
+import com.project.redis.model.UserRating;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * user_ratings upsert-leri ve reytinq recompute ucun matches cedvelinin keyset sehifelenmis oxunmasi.
+ */
+@Repository
+public class RatingBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final String ratingsTable;
+    private final String matchesTable;
+
+    public RatingBatchRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.ratingsTable = prefix + "user_ratings";
+        this.matchesTable = prefix + "matches";
+    }
+
+    /**
+     * Butun batch bir multi-row INSERT ... ON CONFLICT DO UPDATE ile yazilir.
+     */
+    public int upsertAll(List<UserRating> ratings) {
+        if (ratings.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(ratingsTable)
+                .append(" (user_id, scope, rating, deviation, volatility, matches, updated_at) VALUES ");
+        List<Object> args = new ArrayList<>(ratings.size() * 7);
+        for (int i = 0; i < ratings.size(); i++) {
+            UserRating rating = ratings.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?)");
+            args.add(rating.getUserId());
+            args.add(rating.getScope());
+            args.add(rating.getRating());
+            args.add(rating.getDeviation());
+            args.add(rating.getVolatility());
+            args.add(rating.getMatches());
+            args.add(Timestamp.valueOf(rating.getUpdatedAt()));
+        }
+        sql.append(" ON CONFLICT (user_id, scope) DO UPDATE SET ")
+                .append("rating = EXCLUDED.rating, deviation = EXCLUDED.deviation, volatility = EXCLUDED.volatility, ")
+                .append("matches = EXCLUDED.matches, updated_at = EXCLUDED.updated_at");
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Raqibli match-i olan oyunlar (per-game recompute partition-lari).
+     */
+    public List<Long> findRatedGameIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT game_id FROM " + matchesTable + " WHERE opponent_id IS NOT NULL", Long.class);
+    }
+
+    /**
+     * id > afterId olan raqibli match-lar id sirasi ile. gameId null olarsa butun oyunlar.
+     */
+    public List<PendingMatch> findRatedMatchesAfter(Long gameId, long afterId, int limit) {
+        String sql = "SELECT id, user_id, game_id, opponent_id, result FROM " + matchesTable
+                + " WHERE opponent_id IS NOT NULL AND id > ?" + (gameId != null ? " AND game_id = ?" : "")
+                + " ORDER BY id LIMIT ?";
+        Object[] args = gameId != null ? new Object[]{afterId, gameId, limit} : new Object[]{afterId, limit};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> PendingMatch.builder()
+                .id(rs.getLong("id"))
+                .userId(rs.getLong("user_id"))
+                .gameId(rs.getLong("game_id"))
+                .opponentId(rs.getLong("opponent_id"))
+                .result(MatchResult.valueOf(rs.getString("result")))
+                .build(), args);
+    }
+}
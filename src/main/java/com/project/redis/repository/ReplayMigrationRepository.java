@@ -0,0 +1,63 @@
+package com.project.redis.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Kohne inline replay-leri fayl store-a kocurmek ucun. matches partition-lara bolunende (V1 migration)
+ * replay TEXT deyerleri match_inline_replays cedveline ayrilir, cedvel yalniz kocurme bitenden sonra silinir.
+ */
+@Repository
+public class ReplayMigrationRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final String schema;
+    private final String inlineReplaysTable;
+
+    public ReplayMigrationRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema == null || schema.isBlank() ? "public" : schema;
+        this.inlineReplaysTable = schema == null || schema.isBlank() ? "match_inline_replays" : schema + ".match_inline_replays";
+    }
+
+    public boolean hasInlineReplays() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                + "WHERE table_schema = ? AND table_name = 'match_inline_replays'", Integer.class, schema);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Setirler cursor ile oxunur, TEXT deyeri Reader kimi verilir (String-e yigilmir).
+     */
+    public void streamInlineReplays(int fetchSize, InlineReplayConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT match_id, user_id, replay FROM " + inlineReplaysTable
+                    + " ORDER BY match_id", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try (Reader replay = rs.getCharacterStream("replay")) {
+                consumer.accept(rs.getLong("match_id"), rs.getLong("user_id"), replay);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public void dropInlineReplays() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + inlineReplaysTable);
+    }
+
+    @FunctionalInterface
+    public interface InlineReplayConsumer {
+        void accept(long matchId, long userId, Reader replay) throws IOException;
+    }
+}
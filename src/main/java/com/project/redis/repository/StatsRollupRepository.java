@@ -0,0 +1,180 @@
+package com.project.redis.repository;
+
+import com.project.redis.dto.request.StatsBucketRow;
+import com.project.redis.model.GameDailyStats;
+import com.project.redis.model.UserGameStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * user_game_stats / game_daily_stats upsert-leri ve backfill ucun matches uzerinde aralig aqreqasiyasi
+ * (arxivlenmis aylar match_monthly_summaries-den).
+ */
+@Repository
+public class StatsRollupRepository {
+    private static final String AGGREGATES = "COUNT(*) AS matches, "
+            + "SUM(CASE WHEN result = 'WIN' THEN 1 ELSE 0 END) AS wins, "
+            + "SUM(CASE WHEN result = 'LOSS' THEN 1 ELSE 0 END) AS losses, "
+            + "SUM(CASE WHEN result = 'DRAW' THEN 1 ELSE 0 END) AS draws, "
+            + "SUM(score) AS score_sum, MIN(score) AS score_min, MAX(score) AS score_max, SUM(duration) AS duration_sum";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String userGameTable;
+    private final String gameDailyTable;
+    private final String matchesTable;
+    private final String summariesTable;
+
+    public StatsRollupRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.userGameTable = prefix + "user_game_stats";
+        this.gameDailyTable = prefix + "game_daily_stats";
+        this.matchesTable = prefix + "matches";
+        this.summariesTable = prefix + "match_monthly_summaries";
+    }
+
+    public int upsertUserGameStats(List<UserGameStats> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(userGameTable)
+                .append(" (user_id, game_id, matches, wins, losses, draws, score_sum, score_min, score_max, duration_sum, histogram, updated_at) VALUES ");
+        List<Object> args = new ArrayList<>(rows.size() * 12);
+        for (int i = 0; i < rows.size(); i++) {
+            UserGameStats row = rows.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            args.add(row.getUserId());
+            args.add(row.getGameId());
+            addCounters(args, row.getMatches(), row.getWins(), row.getLosses(), row.getDraws(), row.getScoreSum(),
+                    row.getScoreMin(), row.getScoreMax(), row.getDurationSum(), row.getHistogram(), row.getUpdatedAt());
+        }
+        sql.append(" ON CONFLICT (user_id, game_id) DO UPDATE SET ").append(updateColumns());
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    public int upsertGameDailyStats(List<GameDailyStats> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(gameDailyTable)
+                .append(" (game_id, stat_day, matches, wins, losses, draws, score_sum, score_min, score_max, duration_sum, histogram, updated_at) VALUES ");
+        List<Object> args = new ArrayList<>(rows.size() * 12);
+        for (int i = 0; i < rows.size(); i++) {
+            GameDailyStats row = rows.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            args.add(row.getGameId());
+            args.add(Date.valueOf(row.getDay()));
+            addCounters(args, row.getMatches(), row.getWins(), row.getLosses(), row.getDraws(), row.getScoreSum(),
+                    row.getScoreMin(), row.getScoreMax(), row.getDurationSum(), row.getHistogram(), row.getUpdatedAt());
+        }
+        sql.append(" ON CONFLICT (game_id, stat_day) DO UPDATE SET ").append(updateColumns());
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * matches-in en kohne ve en yeni created_at-i, cedvel bosdursa null.
+     */
+    public LocalDateTime[] findMatchTimeRange() {
+        return jdbcTemplate.query("SELECT MIN(created_at) AS first_at, MAX(created_at) AS last_at FROM " + matchesTable, rs -> {
+            if (!rs.next() || rs.getTimestamp("first_at") == null) {
+                return null;
+            }
+            return new LocalDateTime[]{rs.getTimestamp("first_at").toLocalDateTime(), rs.getTimestamp("last_at").toLocalDateTime()};
+        });
+    }
+
+    /**
+     * [from, to) araliginda user + oyun + score bucket uzre aqreqat. Aralik bir aydirsa Postgres yalniz o partition-u oxuyur.
+     */
+    public List<StatsBucketRow> aggregateByUserGame(LocalDateTime from, LocalDateTime to, int bucketWidth, int buckets) {
+        String bucket = bucketExpression(bucketWidth, buckets);
+        return jdbcTemplate.query("SELECT user_id, game_id, " + bucket + " AS bucket, " + AGGREGATES
+                        + " FROM " + matchesTable + " WHERE created_at >= ? AND created_at < ?"
+                        + " GROUP BY user_id, game_id, " + bucket,
+                (rs, rowNum) -> toRow(rs).userId(rs.getLong("user_id")).build(),
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * [from, to) araliginda oyun + gun + score bucket uzre aqreqat.
+     */
+    public List<StatsBucketRow> aggregateByGameDay(LocalDateTime from, LocalDateTime to, int bucketWidth, int buckets) {
+        String bucket = bucketExpression(bucketWidth, buckets);
+        return jdbcTemplate.query("SELECT game_id, CAST(created_at AS DATE) AS stat_day, " + bucket + " AS bucket, " + AGGREGATES
+                        + " FROM " + matchesTable + " WHERE created_at >= ? AND created_at < ?"
+                        + " GROUP BY game_id, CAST(created_at AS DATE), " + bucket,
+                (rs, rowNum) -> toRow(rs).day(rs.getDate("stat_day").toLocalDate()).build(),
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Arxivlenmis aylarin (match_monthly_summaries) user + oyun uzre cemi. Xulasede min score ve histogram yoxdur,
+     * setirde scoreMin ve bucket bos qalir.
+     */
+    public List<StatsBucketRow> aggregateArchivedByUserGame() {
+        return jdbcTemplate.query("SELECT user_id, game_id, SUM(matches) AS matches, SUM(wins) AS wins, SUM(losses) AS losses, "
+                        + "SUM(draws) AS draws, SUM(total_score) AS score_sum, MAX(max_score) AS score_max, "
+                        + "SUM(total_duration) AS duration_sum FROM " + summariesTable + " GROUP BY user_id, game_id",
+                (rs, rowNum) -> StatsBucketRow.builder()
+                        .userId(rs.getLong("user_id"))
+                        .gameId(rs.getLong("game_id"))
+                        .matches(rs.getLong("matches"))
+                        .wins(rs.getLong("wins"))
+                        .losses(rs.getLong("losses"))
+                        .draws(rs.getLong("draws"))
+                        .scoreSum(rs.getLong("score_sum"))
+                        .scoreMax(rs.getLong("score_max"))
+                        .durationSum(rs.getLong("duration_sum"))
+                        .build());
+    }
+
+    // SELECT ve GROUP BY eyni ifadeni gormelidir, ona gore config-den gelen int-ler literal kimi yazilir
+    private String bucketExpression(int bucketWidth, int buckets) {
+        return "(CASE WHEN score < 0 THEN 0 WHEN score / " + bucketWidth + " >= " + buckets + " THEN " + (buckets - 1)
+                + " ELSE score / " + bucketWidth + " END)";
+    }
+
+    private StatsBucketRow.StatsBucketRowBuilder toRow(ResultSet rs) throws SQLException {
+        return StatsBucketRow.builder()
+                .gameId(rs.getLong("game_id"))
+                .bucket(rs.getInt("bucket"))
+                .matches(rs.getLong("matches"))
+                .wins(rs.getLong("wins"))
+                .losses(rs.getLong("losses"))
+                .draws(rs.getLong("draws"))
+                .scoreSum(rs.getLong("score_sum"))
+                .scoreMin(rs.getLong("score_min"))
+                .scoreMax(rs.getLong("score_max"))
+                .durationSum(rs.getLong("duration_sum"));
+    }
+
+    private void addCounters(List<Object> args, Long matches, Long wins, Long losses, Long draws, Long scoreSum,
+                             Long scoreMin, Long scoreMax, Long durationSum, String histogram, LocalDateTime updatedAt) {
+        args.add(matches);
+        args.add(wins);
+        args.add(losses);
+        args.add(draws);
+        args.add(scoreSum);
+        args.add(scoreMin);
+        args.add(scoreMax);
+        args.add(durationSum);
+        args.add(histogram);
+        args.add(Timestamp.valueOf(updatedAt));
+    }
+
+    private String updateColumns() {
+        return "matches = EXCLUDED.matches, wins = EXCLUDED.wins, losses = EXCLUDED.losses, draws = EXCLUDED.draws, "
+                + "score_sum = EXCLUDED.score_sum, score_min = EXCLUDED.score_min, score_max = EXCLUDED.score_max, "
+                + "duration_sum = EXCLUDED.duration_sum, histogram = EXCLUDED.histogram, updated_at = EXCLUDED.updated_at";
+    }
+}
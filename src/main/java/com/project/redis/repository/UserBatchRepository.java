@@ -0,0 +1,55 @@
+package com.project.redis.repository;
+
+import com.project.redis.dto.request.UserStatsDelta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * user cedveline set-based yazmalar. Bir statement butun batch-i yenileyir, entity yuklenmir.
+ */
+@Repository
+public class UserBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final String userTable;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate,
+                               @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.userTable = prefix + "\"user\"";
+    }
+
+    /**
+     * Counter delta-larini UPDATE ... FROM (VALUES ...) ile tetbiq edir, win_rate yeni deyerlerden hesablanir.
+     */
+    public int applyStatDeltas(List<UserStatsDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        StringBuilder values = new StringBuilder();
+        List<Object> args = new ArrayList<>(deltas.size() * 5);
+        for (int i = 0; i < deltas.size(); i++) {
+            UserStatsDelta delta = deltas.get(i);
+            values.append(i == 0 ? "" : ", ").append("(?::bigint, ?::int, ?::int, ?::int, ?::bigint)");
+            args.add(delta.getUserId());
+            args.add(delta.getTotalMatches());
+            args.add(delta.getWins());
+            args.add(delta.getLosses());
+            args.add(delta.getTotalScore());
+        }
+        String sql = "UPDATE " + userTable + " u SET "
+                + "total_matches = u.total_matches + v.total_matches, "
+                + "wins = u.wins + v.wins, "
+                + "losses = u.losses + v.losses, "
+                + "total_score = u.total_score + v.total_score, "
+                + "win_rate = CASE WHEN u.total_matches + v.total_matches > 0 "
+                + "THEN (u.wins + v.wins) * 100.0 / (u.total_matches + v.total_matches) ELSE 0 END "
+                + "FROM (VALUES " + values + ") AS v(id, total_matches, wins, losses, total_score) "
+                + "WHERE u.id = v.id";
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.redis.repository;
+
+import com.project.redis.model.UserRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserRatingRepository extends JpaRepository<UserRating, UserRating.Key> {
+    List<UserRating> findByUserId(Long userId);
+}
@@ -1,10 +1,17 @@
 package com.project.redis.repository;
 
+import com.project.redis.dto.response.UserSummary;
+import com.project.redis.enums.UserStatus;
 import com.project.redis.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,5 +23,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
   Optional<User> findUserByEmail(String email);
 
+    @Query("select new com.project.redis.dto.response.UserSummary(u.id, u.username, u.avatar, u.level) from User u where u.id in :ids")
+    List<UserSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("select u.status from User u where u.id = :id")
+    Optional<UserStatus> findStatusById(Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.status = :status where u.id = :id")
+    int updateStatus(Long id, UserStatus status);
+
 
 }
@@ -0,0 +1,42 @@
+package com.project.redis.security;
+
+import com.project.redis.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JWT claims-dan qurulan yungul principal. Request yolunda User entity yuklenmir,
+ * status yoxlamasi IUserStatusService ile gedir.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements UserDetails {
+    private final Long id;
+    private final String email;
+    private final String displayName;
+    private final UserRole role;
+    // revocation ucun: tv claim-i (user token versiyasi) ve sid claim-i (cihaz session-u)
+    private final long tokenVersion;
+    private final String sessionId;
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -4,6 +4,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.project.redis.service.IPresenceService;
+import com.project.redis.service.ITokenRevocationService;
+import com.project.redis.service.IUserStatusService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,6 +24,9 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final IUserStatusService userStatusService;
+    private final ITokenRevocationService tokenRevocationService;
+    private final IPresenceService presenceService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -35,7 +41,26 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         token = authHeader.substring(7);
         email = jwtService.extractUsername(token);
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            // principal token-den qurulur, DB-ye getmir; revocation ve ban/suspend local cache ile yoxlanir
+            AuthenticatedUser principal = jwtService.extractPrincipal(token);
+            UserDetails userDetails;
+            if (principal != null) {
+                if (tokenRevocationService.isRevoked(principal.getId(), principal.getTokenVersion(), principal.getSessionId())
+                        || !userStatusService.isActive(principal.getId())) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                userDetails = principal;
+                // her request presence heartbeat-idir (node-da user basina touch-interval-da bir Redis yazmasi)
+                presenceService.touch(principal.getId());
+            } else {
+                // userId/role claim-i olmayan kohne token-ler
+                userDetails = userDetailsService.loadUserByUsername(email);
+                if (!userDetails.isAccountNonLocked()) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+            }
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
                     null,
                     userDetails.getAuthorities());
@@ -1,8 +1,14 @@
 package com.project.redis.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.redis.dto.response.CacheStatsResponse;
+import com.project.redis.enums.UserRole;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,19 +16,57 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Key ve parser bir defe qurulur. Yoxlanmis claims token-in SHA-256 digest-i ile cache-lenir,
+ * eyni bearer ile gelen request-ler HMAC yoxlamasini ve JSON parse-i tekrarlamir.
+ * Cache entry token-in exp vaxtindan (ve max-ttl-den) cox yasamir.
+ */
 @Service
 public class JwtService {
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Cache<String, Claims> claimsCache;
 
-    private SecretKey getKey() {
-        byte[] keys = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keys);
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.claims-cache.max-size:10000}") long maxSize,
+                      @Value("${jwt.claims-cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        long maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return maxTtlNanos;
+                        }
+                        long untilExpiry = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0L, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -31,7 +75,7 @@ public class JwtService {
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + 2 * 1000 * 1000))
                 .claims(extraClaims)
-                .signWith(getKey())//burada evvelki kimi signature alqoritm lazim deyil artiq deprecate olub 0.11+ ona gore sade getKey() yeterlidir avtamatik teyin edir.
+                .signWith(key)//burada evvelki kimi signature alqoritm lazim deyil artiq deprecate olub 0.11+ ona gore sade key yeterlidir avtamatik teyin edir.
                 .compact();
     }
 
@@ -45,6 +89,22 @@ public class JwtService {
 
     }
 
+    /**
+     * Principal birbasa claims-dan qurulur. userId/role claim-i olmayan kohne token-ler ucun null qaytarir.
+     */
+    public AuthenticatedUser extractPrincipal(String token) {
+        return extractClaims(token, claims -> {
+            String role = claims.get("role", String.class);
+            if (!(claims.get("userId") instanceof Number userId) || role == null) {
+                return null;
+            }
+            long tokenVersion = claims.get("tv") instanceof Number version ? version.longValue() : 0L;
+            return new AuthenticatedUser(userId.longValue(), claims.getSubject(),
+                    claims.get("username", String.class), UserRole.valueOf(role),
+                    tokenVersion, claims.get("sid", String.class));
+        });
+    }
+
     public Date extractExpirationDate(String token) {
         return extractClaims(token, Claims::getExpiration);
     }
@@ -54,13 +114,40 @@ public class JwtService {
                 ;
     }
 
+    public CacheStatsResponse getClaimsCacheStats() {
+        CacheStats stats = claimsCache.stats();
+        return CacheStatsResponse.builder()
+                .name("jwt-claims-cache")
+                .size(claimsCache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .loadCount(stats.loadCount())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    /**
+     * Yoxlanmis claims. Cache-de yoxdursa imza ve exp parser ile yoxlanir, ugurlu netice cache-e dusur.
+     */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        String digest = digest(token);
+        Claims cached = claimsCache.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        claimsCache.put(digest, claims);
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
 }
@@ -0,0 +1,7 @@
+package com.project.redis.service;
+
+public interface ICodecMigrationService {
+    public long migrate();
+
+    public long migrateMembers(String keyPattern);
+}
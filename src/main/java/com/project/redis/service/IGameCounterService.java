@@ -0,0 +1,19 @@
+package com.project.redis.service;
+
+import com.project.redis.model.Game;
+
+import java.util.List;
+
+public interface IGameCounterService {
+    public void recordPlay(Long gameId, Long userId);
+
+    public boolean like(Long gameId, Long userId);
+
+    public boolean unlike(Long gameId, Long userId);
+
+    public Long getUniquePlayers(Long gameId);
+
+    public List<Game> applyCounters(List<Game> games);
+
+    public int flush();
+}
@@ -1,7 +1,36 @@
 package com.project.redis.service;
 
+import com.project.redis.dto.response.CacheStatsResponse;
+import com.project.redis.dto.response.LeaderboardEntry;
+import com.project.redis.dto.response.LeaderboardPage;
 import com.project.redis.dto.response.LeaderboardUpdateResult;
+import com.project.redis.dto.response.UserRankInfo;
+import com.project.redis.enums.LeaderboardType;
+
+import java.util.List;
 
 public interface ILeaderBoardService {
     public LeaderboardUpdateResult addScore(Long userId, Integer points, Long gameId);
+
+    public List<LeaderboardEntry> getTop10();
+
+    public List<LeaderboardEntry> getDailyTop10();
+
+    public List<LeaderboardEntry> getWeeklyTop10();
+
+    public List<LeaderboardEntry> getGameTop10(Long gameId);
+
+    public LeaderboardPage getLeaderboardPage(LeaderboardType type, Long gameId, int offset, int limit);
+
+    public LeaderboardPage getWindowPage(LeaderboardType type, String windowId, int offset, int limit);
+
+    public LeaderboardPage getFriendsLeaderboard(Long userId, LeaderboardType type, Long gameId);
+
+    public LeaderboardPage getClanLeaderboard(Long clanId, LeaderboardType type, Long gameId);
+
+    public LeaderboardPage getAroundUser(LeaderboardType type, Long gameId, Long userId, int radius);
+
+    public UserRankInfo getUserRank(Long userId);
+
+    public CacheStatsResponse getNearCacheStats();
 }
@@ -0,0 +1,16 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.response.LeaderboardWindow;
+import com.project.redis.enums.LeaderboardType;
+
+import java.util.List;
+
+public interface ILeaderboardWindowService {
+    public LeaderboardWindow current(LeaderboardType type);
+
+    public LeaderboardWindow window(LeaderboardType type, String windowId);
+
+    public List<LeaderboardWindow> currentWindows();
+
+    public int rollover();
+}
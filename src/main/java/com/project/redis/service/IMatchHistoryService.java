@@ -0,0 +1,22 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.dto.response.MatchHistoryEntry;
+import com.project.redis.dto.response.MatchHistoryPage;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IMatchHistoryService {
+    public void record(PendingMatch match);
+
+    public MatchHistoryPage getHistory(Long userId, LocalDateTime beforeCreatedAt, Long beforeId, int limit);
+
+    public List<MatchHistoryEntry> getHistoryInRange(Long userId, LocalDateTime from, LocalDateTime to, int limit);
+
+    public int exportHistory(Long userId, Writer writer) throws IOException;
+
+    public boolean ownsMatch(Long userId, Long matchId);
+}
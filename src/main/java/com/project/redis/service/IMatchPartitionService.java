@@ -0,0 +1,12 @@
+package com.project.redis.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface IMatchPartitionService {
+    public int ensurePartitions();
+
+    public int archiveExpiredPartitions();
+
+    public List<YearMonth> getPartitions();
+}
@@ -0,0 +1,11 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.request.PendingMatch;
+
+public interface IMatchWriteBehindService {
+    public long nextMatchId();
+
+    public void enqueue(PendingMatch match);
+
+    public int drain();
+}
@@ -0,0 +1,17 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.response.MatchLobby;
+import com.project.redis.dto.response.MatchmakingStatsResponse;
+import com.project.redis.exception.GameNotFoundException;
+
+public interface IMatchmakingService {
+    public void enqueue(Long userId, Long gameId) throws GameNotFoundException;
+
+    public boolean dequeue(Long userId, Long gameId);
+
+    public MatchLobby getAssignment(Long userId);
+
+    public int runMatcher();
+
+    public MatchmakingStatsResponse getStats();
+}
@@ -0,0 +1,27 @@
+package com.project.redis.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface IPresenceService {
+    public void heartbeat(Long userId, Long gameId);
+
+    public void touch(Long userId);
+
+    public void goOffline(Long userId);
+
+    public boolean isOnline(Long userId);
+
+    public Set<Long> filterOnline(Collection<Long> userIds);
+
+    public long getOnlineCount();
+
+    public long getApproximateOnlineCount(int minutes);
+
+    public long getLobbyCount(Long gameId);
+
+    public Map<Long, Long> getLobbyCounts(Collection<Long> gameIds);
+
+    public int sweep();
+}
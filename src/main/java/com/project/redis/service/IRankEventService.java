@@ -0,0 +1,13 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.request.RankChange;
+
+import java.util.List;
+
+public interface IRankEventService {
+    public void publish(Long userId, Integer points, List<RankChange> changes);
+
+    public long getPublishedCount();
+
+    public long getDroppedCount();
+}
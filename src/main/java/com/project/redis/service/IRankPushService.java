@@ -0,0 +1,13 @@
+package com.project.redis.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+public interface IRankPushService {
+    public SseEmitter subscribe(Long userId, List<String> boards);
+
+    public int flush();
+
+    public int getConnectionCount();
+}
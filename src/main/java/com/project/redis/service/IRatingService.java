@@ -0,0 +1,19 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.response.LeaderboardEntry;
+import com.project.redis.dto.response.PlayerRating;
+import com.project.redis.enums.MatchResult;
+
+import java.util.List;
+
+public interface IRatingService {
+    public PlayerRating getRating(Long userId, Long gameId);
+
+    public void recordResult(Long userId, Long opponentId, Long gameId, MatchResult result);
+
+    public List<LeaderboardEntry> getRatingLeaderboard(Long gameId, int offset, int limit);
+
+    public int flush();
+
+    public int recompute(int parallelism, Double tau);
+}
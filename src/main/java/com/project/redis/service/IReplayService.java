@@ -0,0 +1,16 @@
+package com.project.redis.service;
+
+import com.project.redis.exception.UnauthorizedException;
+import com.project.redis.model.MatchReplay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface IReplayService {
+    public MatchReplay storeReplay(Long userId, Long matchId, InputStream data) throws IOException, UnauthorizedException;
+
+    public boolean streamReplay(Long matchId, OutputStream out, boolean compressed) throws IOException;
+
+    public int migrateInlineReplays() throws IOException;
+}
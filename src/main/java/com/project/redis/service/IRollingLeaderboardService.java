@@ -0,0 +1,15 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.response.LeaderboardWindow;
+
+import java.util.List;
+
+public interface IRollingLeaderboardService {
+    public List<LeaderboardWindow> writeTargets();
+
+    public LeaderboardWindow board(String windowId);
+
+    public int advance();
+
+    public void rebuild(String windowId);
+}
@@ -0,0 +1,25 @@
+package com.project.redis.service;
+
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.List;
+
+public interface IShardedLeaderboardService {
+    public boolean isEnabled();
+
+    public String getShardKey(Long userId);
+
+    public List<String> getShardKeys();
+
+    public Long getGlobalRank(double score);
+
+    public Long getTotalPlayers();
+
+    public Double getScore(Long userId);
+
+    public List<ZSetOperations.TypedTuple<Object>> getRange(long start, long count);
+
+    public List<ZSetOperations.TypedTuple<Object>> getWindowAround(Long userId, double score, int radius);
+
+    public long migrateFromSingleKey(String sourceKey);
+}
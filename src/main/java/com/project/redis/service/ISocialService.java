@@ -0,0 +1,29 @@
+package com.project.redis.service;
+
+import com.project.redis.model.Clan;
+
+import java.util.List;
+
+public interface ISocialService {
+    public void addFriend(Long userId, Long friendId);
+
+    public void removeFriend(Long userId, Long friendId);
+
+    public List<Long> getFriendIds(Long userId);
+
+    public Clan createClan(Long ownerId, String name);
+
+    public void joinClan(Long userId, Long clanId);
+
+    public void leaveClan(Long userId, Long clanId);
+
+    public List<Long> getClanMemberIds(Long clanId);
+
+    public String friendsKey(Long userId);
+
+    public String clanMembersKey(Long clanId);
+
+    public boolean hydrateFriends(Long userId);
+
+    public boolean hydrateClanMembers(Long clanId);
+}
@@ -0,0 +1,21 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.dto.response.StatsRollupResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IStatsRollupService {
+    public void recordMatch(PendingMatch match);
+
+    public StatsRollupResponse getUserGameStats(Long userId, Long gameId);
+
+    public StatsRollupResponse getGameStats(Long gameId);
+
+    public List<StatsRollupResponse> getGameDailyStats(Long gameId, LocalDate from, LocalDate to);
+
+    public int flush();
+
+    public int backfill(int parallelism);
+}
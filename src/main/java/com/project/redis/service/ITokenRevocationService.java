@@ -0,0 +1,18 @@
+package com.project.redis.service;
+
+import java.util.Date;
+import java.util.Map;
+
+public interface ITokenRevocationService {
+    public long currentVersion(Long userId);
+
+    public void registerSession(Long userId, String sessionId, Date expiresAt);
+
+    public boolean isRevoked(Long userId, long tokenVersion, String sessionId);
+
+    public void revokeSession(Long userId, String sessionId);
+
+    public void revokeAll(Long userId);
+
+    public Map<String, Long> getActiveSessions(Long userId);
+}
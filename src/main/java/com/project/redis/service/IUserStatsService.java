@@ -0,0 +1,9 @@
+package com.project.redis.service;
+
+import com.project.redis.enums.MatchResult;
+
+public interface IUserStatsService {
+    public void recordMatch(Long userId, MatchResult result, Integer score);
+
+    public int flush();
+}
@@ -0,0 +1,13 @@
+package com.project.redis.service;
+
+import com.project.redis.enums.UserStatus;
+
+public interface IUserStatusService {
+    public UserStatus getStatus(Long userId);
+
+    public boolean isActive(Long userId);
+
+    public boolean updateStatus(Long userId, UserStatus status);
+
+    public void evict(Long userId);
+}
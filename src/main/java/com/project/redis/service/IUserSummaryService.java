@@ -0,0 +1,14 @@
+package com.project.redis.service;
+
+import com.project.redis.dto.response.UserSummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface IUserSummaryService {
+    public UserSummary getSummary(Long userId);
+
+    public Map<Long, UserSummary> getSummaries(Collection<Long> userIds);
+
+    public void evict(Long userId);
+}
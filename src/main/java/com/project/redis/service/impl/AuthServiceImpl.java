@@ -13,9 +13,12 @@ import com.project.redis.exception.OtpExpiredException;
 import com.project.redis.exception.UserAlreadyExistsException;
 import com.project.redis.model.User;
 import com.project.redis.repository.UserRepository;
+import com.project.redis.security.AuthenticatedUser;
 import com.project.redis.security.JwtService;
 import com.project.redis.service.IEmailService;
 import com.project.redis.service.IOtpService;
+import com.project.redis.service.IPresenceService;
+import com.project.redis.service.ITokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -25,7 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.UUID;
 
 @Service
 @Slf4j
@@ -37,6 +40,8 @@ public class AuthServiceImpl {
     private final RedisTemplate<String, Object> redisTemplate;
     private final IEmailService emailService;
     private final JwtService jwtService;
+    private final ITokenRevocationService tokenRevocationService;
+    private final IPresenceService presenceService;
 
 
 
@@ -121,18 +126,16 @@ public class AuthServiceImpl {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getId());
         claims.put("username", user.getUsername());
+        claims.put("role", user.getRole().name());
+        // her login ayri cihaz session-udur: sid tek cihazi, tv ise butun cihazlari revoke etmek ucundur
+        String sessionId = UUID.randomUUID().toString();
+        claims.put("sid", sessionId);
+        claims.put("tv", tokenRevocationService.currentVersion(user.getId()));
         String token = jwtService.generateToken(claims, user);
+        tokenRevocationService.registerSession(user.getId(), sessionId, jwtService.extractExpirationDate(token));
 
-        String tokenKey = "token:user:" + user.getId();
-        redisTemplate.opsForValue().set(
-                tokenKey,
-                token,
-                86400000,
-                TimeUnit.MILLISECONDS
-        );
-
-        // 7. Online users-ə əlavə et
-        redisTemplate.opsForSet().add("online:users", "user:" + user.getId());
+        // 7. Online presence (ilk heartbeat)
+        presenceService.heartbeat(user.getId(), null);
 
         log.info("✅ Login uğurlu: {} (ID: {})", user.getUsername(), user.getId());
 
@@ -151,13 +154,18 @@ public class AuthServiceImpl {
 
     }
 
-    public ApiResponse<String> logout(Long id) {
-        String key = "token:user:" + id;
-        redisTemplate.delete(key);
-        redisTemplate.opsForSet().remove("online:users:", "user:" + id);
+    public ApiResponse<String> logout(Long id, String sessionId) {
+        tokenRevocationService.revokeSession(id, sessionId);
+        presenceService.goOffline(id);
         return ApiResponse.success("Successful Logout");
     }
 
+    public ApiResponse<String> logoutAllDevices(Long id) {
+        tokenRevocationService.revokeAll(id);
+        presenceService.goOffline(id);
+        return ApiResponse.success("Logged out from all devices");
+    }
+
 
     private UserResponse mapToUserResponse(User user) {
         return UserResponse.builder()
@@ -180,8 +188,8 @@ public class AuthServiceImpl {
     }
 
     public boolean isTokenActive(Long userId, String token) {
-        String tokenKey = "token:user:" + userId;
-        String storedToken = (String) redisTemplate.opsForValue().get(tokenKey);
-        return token.equals(storedToken);
+        AuthenticatedUser principal = jwtService.extractPrincipal(token);
+        return principal != null && principal.getId().equals(userId)
+                && !tokenRevocationService.isRevoked(userId, principal.getTokenVersion(), principal.getSessionId());
     }
 }
@@ -0,0 +1,222 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.config.CompactRedisSerializer;
+import com.project.redis.service.ICodecMigrationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec kecidi: ZSET/SET uzvleri ve hash field-leri deyer kimi deyil, bayt kimi muqayise olunur, ona gore JDK formatli
+ * "user:1" ile kompakt "user:1" ayri uzvlerdir. Ardicilliq:
+ * <ol>
+ *     <li>butun node-lar redis.codec=compact ile deploy olunur, redis:codec marker-i olmadigi ucun hele JDK yazirlar</li>
+ *     <li>migrate marker-i yazir, node-lar poll-interval icinde kompakt yazmaga kecir, iki interval gozlenilir</li>
+ *     <li>kohne formatli uzvler Lua ile kocurulur: kohne deyer oxunur ve yeni uzve bir addimda yazilir,
+ *     kecid zamani kohne uzve gelen ZINCRBY itmir</li>
+ * </ol>
+ * TTL-li value key-ler (session, cache) kocurulmur, onlar iki formati da oxuyan codec ile vaxtinda silinir.
+ */
+@Service
+@Slf4j
+public class CodecMigrationServiceImpl implements ICodecMigrationService {
+    private static final String MARKER_KEY = "redis:codec";
+    private static final String MARKER_COMPACT = "compact";
+    private static final int BATCH_SIZE = 500;
+
+    // ARGV: kohne, yeni, kohne, yeni, ... Kohne member hele varsa xali yeni member-e elave olunur, kohnesi silinir
+    private static final DefaultRedisScript<Long> ZSET_SCRIPT = new DefaultRedisScript<>("""
+            local moved = 0
+            for i = 1, #ARGV, 2 do
+                local score = redis.call('ZSCORE', KEYS[1], ARGV[i])
+                if score then
+                    redis.call('ZREM', KEYS[1], ARGV[i])
+                    redis.call('ZINCRBY', KEYS[1], score, ARGV[i + 1])
+                    moved = moved + 1
+                end
+            end
+            return moved
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> SET_SCRIPT = new DefaultRedisScript<>("""
+            local moved = 0
+            for i = 1, #ARGV, 2 do
+                if redis.call('SREM', KEYS[1], ARGV[i]) == 1 then
+                    redis.call('SADD', KEYS[1], ARGV[i + 1])
+                    moved = moved + 1
+                end
+            end
+            return moved
+            """, Long.class);
+
+    // yeni field artiq varsa o daha tezedir, kohne deyer yalniz silinir
+    private static final DefaultRedisScript<Long> HASH_SCRIPT = new DefaultRedisScript<>("""
+            local moved = 0
+            for i = 1, #ARGV, 2 do
+                local value = redis.call('HGET', KEYS[1], ARGV[i])
+                if value then
+                    redis.call('HDEL', KEYS[1], ARGV[i])
+                    redis.call('HSETNX', KEYS[1], ARGV[i + 1], value)
+                    moved = moved + 1
+                end
+            end
+            return moved
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    // redis.codec=jdk olanda null
+    private final CompactRedisSerializer compact;
+    private final JdkSerializationRedisSerializer legacy = new JdkSerializationRedisSerializer();
+    private final boolean migrateOnStartup;
+    private final String startupPatterns;
+    private final long pollIntervalMs;
+
+    public CodecMigrationServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisSerializer<Object> redisValueSerializer,
+                                     @Value("${redis.codec.migrate-on-startup:false}") boolean migrateOnStartup,
+                                     @Value("${redis.codec.migrate-patterns:leaderboard:*,social:*}") String startupPatterns,
+                                     @Value("${redis.codec.poll-interval-ms:10000}") long pollIntervalMs) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.compact = redisValueSerializer instanceof CompactRedisSerializer serializer ? serializer : null;
+        this.migrateOnStartup = migrateOnStartup;
+        this.startupPatterns = startupPatterns;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (compact == null) {
+            return;
+        }
+        if (markerPresent()) {
+            compact.compactWrites(true);
+        } else if (migrateOnStartup) {
+            migrate();
+        } else {
+            log.warn("redis.codec=compact but member migration has not run, writing JDK format until it does");
+        }
+    }
+
+    /**
+     * Basqa node kocurmeni baslatibsa bu node da kompakt yazmaga kecir.
+     */
+    @Scheduled(fixedDelayString = "${redis.codec.poll-interval-ms:10000}")
+    public void pollMarker() {
+        if (compact != null && !compact.isCompactWrites() && markerPresent()) {
+            compact.compactWrites(true);
+            log.info("Codec migration started elsewhere, switched to compact writes");
+        }
+    }
+
+    @Override
+    public long migrate() {
+        if (compact == null) {
+            throw new IllegalStateException("Codec migration requires redis.codec=compact");
+        }
+        stringRedisTemplate.opsForValue().set(MARKER_KEY, MARKER_COMPACT);
+        compact.compactWrites(true);
+        // diger node-lar marker-i gorub kompakt yazmaga kecsin, sonra kohne formatli yazi qalmir
+        try {
+            Thread.sleep(pollIntervalMs * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Codec migration interrupted", e);
+        }
+        long migrated = 0;
+        for (String pattern : startupPatterns.split(",")) {
+            migrated += migrateMembers(pattern.trim());
+        }
+        return migrated;
+    }
+
+    @Override
+    public long migrateMembers(String keyPattern) {
+        if (compact == null || !compact.isCompactWrites()) {
+            throw new IllegalStateException("Compact writes are not enabled yet, run migrate() first");
+        }
+        List<String> keys = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(keyPattern).count(BATCH_SIZE).build())) {
+            cursor.forEachRemaining(keys::add);
+        }
+        long migrated = 0;
+        for (String key : keys) {
+            migrated += redisTemplate.execute((RedisCallback<Long>) connection -> migrateKey(connection, key));
+        }
+        log.info("Codec migration: pattern={}, keys={}, members={}", keyPattern, keys.size(), migrated);
+        return migrated;
+    }
+
+    private long migrateKey(RedisConnection connection, String key) {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        DataType type = connection.keyCommands().type(rawKey);
+        List<byte[]> legacyMembers = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().count(BATCH_SIZE).build();
+        DefaultRedisScript<Long> script;
+        if (type == DataType.ZSET) {
+            script = ZSET_SCRIPT;
+            try (Cursor<Tuple> cursor = connection.zSetCommands().zScan(rawKey, options)) {
+                cursor.forEachRemaining(tuple -> addIfLegacy(legacyMembers, tuple.getValue()));
+            }
+        } else if (type == DataType.SET) {
+            script = SET_SCRIPT;
+            try (Cursor<byte[]> cursor = connection.setCommands().sScan(rawKey, options)) {
+                cursor.forEachRemaining(member -> addIfLegacy(legacyMembers, member));
+            }
+        } else if (type == DataType.HASH) {
+            script = HASH_SCRIPT;
+            try (Cursor<Map.Entry<byte[], byte[]>> cursor = connection.hashCommands().hScan(rawKey, options)) {
+                cursor.forEachRemaining(entry -> addIfLegacy(legacyMembers, entry.getKey()));
+            }
+        } else {
+            return 0;
+        }
+
+        byte[] body = script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        long migrated = 0;
+        for (int from = 0; from < legacyMembers.size(); from += BATCH_SIZE) {
+            List<byte[]> batch = legacyMembers.subList(from, Math.min(from + BATCH_SIZE, legacyMembers.size()));
+            byte[][] keysAndArgs = new byte[batch.size() * 2 + 1][];
+            keysAndArgs[0] = rawKey;
+            for (int i = 0; i < batch.size(); i++) {
+                keysAndArgs[1 + i * 2] = batch.get(i);
+                keysAndArgs[2 + i * 2] = compact.serializeCompact(legacy.deserialize(batch.get(i)));
+            }
+            Long moved = connection.scriptingCommands().eval(body, ReturnType.INTEGER, 1, keysAndArgs);
+            migrated += moved != null ? moved : 0L;
+        }
+        return migrated;
+    }
+
+    private void addIfLegacy(List<byte[]> members, byte[] value) {
+        if (value != null && value.length > 1 && value[0] == (byte) 0xAC && value[1] == (byte) 0xED) {
+            members.add(value);
+        }
+    }
+
+    private boolean markerPresent() {
+        return MARKER_COMPACT.equals(stringRedisTemplate.opsForValue().get(MARKER_KEY));
+    }
+}
@@ -0,0 +1,215 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.model.Game;
+import com.project.redis.repository.GameBatchRepository;
+import com.project.redis.repository.GameRepository;
+import com.project.redis.service.IGameCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Game play/like sayilari Redis-de toplanir: game:counters:plays / game:counters:likes hash-leri cari deyeri,
+ * *:delta hash-leri ise DB-ye hele yazilmamis hisseni saxlayir. Flush job delta-lari bir UPDATE ile yazir.
+ * Unikal oyuncu sayi HyperLogLog-dadir (game:players:hll:{id}).
+ */
+@Service
+@Slf4j
+public class GameCounterServiceImpl implements IGameCounterService {
+    private static final String PLAYS_KEY = "game:counters:plays";
+    private static final String LIKES_KEY = "game:counters:likes";
+    private static final String PLAYS_DELTA_KEY = "game:counters:plays:delta";
+    private static final String LIKES_DELTA_KEY = "game:counters:likes:delta";
+    private static final String LIKES_SET_PREFIX = "game:likes:";
+    private static final String PLAYERS_HLL_PREFIX = "game:players:hll:";
+
+    private static final DefaultRedisScript<List> GET_AND_DELETE_SCRIPT = new DefaultRedisScript<>("""
+            local values = redis.call('HGETALL', KEYS[1])
+            redis.call('DEL', KEYS[1])
+            return values
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final GameRepository gameRepository;
+    private final GameBatchRepository gameBatchRepository;
+
+    public GameCounterServiceImpl(StringRedisTemplate stringRedisTemplate, GameRepository gameRepository, GameBatchRepository gameBatchRepository) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.gameRepository = gameRepository;
+        this.gameBatchRepository = gameBatchRepository;
+    }
+
+    /**
+     * Cari counter hash-lerini DB deyerleri ile doldurur. HSETNX oldugu ucun Redis-de olan (daha teze) deyerlere toxunmur.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedCounters() {
+        List<Game> games = gameRepository.findAll();
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (Game game : games) {
+                    String field = String.valueOf(game.getId());
+                    operations.opsForHash().putIfAbsent(PLAYS_KEY, field, String.valueOf(game.getPlayCount()));
+                    operations.opsForHash().putIfAbsent(LIKES_KEY, field, String.valueOf(game.getLikeCount()));
+                }
+                return null;
+            }
+        });
+        log.info("Game counters seeded: {} game", games.size());
+    }
+
+    @Override
+    public void recordPlay(Long gameId, Long userId) {
+        String field = String.valueOf(gameId);
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForHash().increment(PLAYS_KEY, field, 1);
+                operations.opsForHash().increment(PLAYS_DELTA_KEY, field, 1);
+                operations.opsForHyperLogLog().add(PLAYERS_HLL_PREFIX + gameId, String.valueOf(userId));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public boolean like(Long gameId, Long userId) {
+        Long added = stringRedisTemplate.opsForSet().add(LIKES_SET_PREFIX + gameId, String.valueOf(userId));
+        if (added == null || added == 0) {
+            return false;
+        }
+        changeLikes(gameId, 1);
+        return true;
+    }
+
+    @Override
+    public boolean unlike(Long gameId, Long userId) {
+        Long removed = stringRedisTemplate.opsForSet().remove(LIKES_SET_PREFIX + gameId, String.valueOf(userId));
+        if (removed == null || removed == 0) {
+            return false;
+        }
+        changeLikes(gameId, -1);
+        return true;
+    }
+
+    @Override
+    public Long getUniquePlayers(Long gameId) {
+        return stringRedisTemplate.opsForHyperLogLog().size(PLAYERS_HLL_PREFIX + gameId);
+    }
+
+    /**
+     * Cache-den gelen Game-lere Redis-deki cari play/like sayilarini yazir.
+     */
+    @Override
+    public List<Game> applyCounters(List<Game> games) {
+        if (games.isEmpty()) {
+            return games;
+        }
+        List<Object> fields = new ArrayList<>(games.size());
+        for (Game game : games) {
+            fields.add(String.valueOf(game.getId()));
+        }
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForHash().multiGet(PLAYS_KEY, fields);
+                operations.opsForHash().multiGet(LIKES_KEY, fields);
+                return null;
+            }
+        });
+        List<?> plays = (List<?>) results.get(0);
+        List<?> likes = (List<?>) results.get(1);
+
+        List<Game> updated = new ArrayList<>(games);
+        for (int i = 0; i < updated.size(); i++) {
+            Game game = updated.get(i);
+            if (plays.get(i) != null) {
+                game.setPlayCount(Long.parseLong(plays.get(i).toString()));
+            }
+            if (likes.get(i) != null) {
+                game.setLikeCount(Long.parseLong(likes.get(i).toString()));
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${game.counters.flush-interval-ms:10000}")
+    public int flush() {
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.execute(GET_AND_DELETE_SCRIPT, List.of(PLAYS_DELTA_KEY));
+                operations.execute(GET_AND_DELETE_SCRIPT, List.of(LIKES_DELTA_KEY));
+                return null;
+            }
+        });
+        Map<Long, Long> playDeltas = toDeltas((List<?>) results.get(0));
+        Map<Long, Long> likeDeltas = toDeltas((List<?>) results.get(1));
+        if (playDeltas.isEmpty() && likeDeltas.isEmpty()) {
+            return 0;
+        }
+        try {
+            return gameBatchRepository.applyCounterDeltas(playDeltas, likeDeltas);
+        } catch (RuntimeException e) {
+            log.error("Game counter flush failed, restoring deltas to Redis", e);
+            restore(playDeltas, likeDeltas);
+            throw e;
+        }
+    }
+
+    private void changeLikes(Long gameId, long delta) {
+        String field = String.valueOf(gameId);
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForHash().increment(LIKES_KEY, field, delta);
+                operations.opsForHash().increment(LIKES_DELTA_KEY, field, delta);
+                return null;
+            }
+        });
+    }
+
+    private void restore(Map<Long, Long> playDeltas, Map<Long, Long> likeDeltas) {
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                playDeltas.forEach((gameId, delta) -> operations.opsForHash().increment(PLAYS_DELTA_KEY, String.valueOf(gameId), delta));
+                likeDeltas.forEach((gameId, delta) -> operations.opsForHash().increment(LIKES_DELTA_KEY, String.valueOf(gameId), delta));
+                return null;
+            }
+        });
+    }
+
+    private Map<Long, Long> toDeltas(List<?> flat) {
+        Map<Long, Long> deltas = new HashMap<>();
+        if (flat == null) {
+            return deltas;
+        }
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            long delta = Long.parseLong(String.valueOf(flat.get(i + 1)));
+            if (delta != 0) {
+                deltas.put(Long.parseLong(String.valueOf(flat.get(i))), delta);
+            }
+        }
+        return deltas;
+    }
+}
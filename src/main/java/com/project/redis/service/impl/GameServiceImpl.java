@@ -2,26 +2,37 @@ package com.project.redis.service.impl;
 
 import com.project.redis.dto.request.FinishGameRequest;
 import com.project.redis.dto.request.GameSession;
+import com.project.redis.dto.request.PendingMatch;
 import com.project.redis.dto.response.GameSessionResponse;
+import com.project.redis.dto.response.LeaderboardUpdateResult;
+import com.project.redis.dto.response.MatchLobby;
 import com.project.redis.dto.response.MatchResult;
 import com.project.redis.enums.GameStatus;
 import com.project.redis.exception.GameNotFoundException;
 import com.project.redis.exception.UnauthorizedException;
 import com.project.redis.exception.UserNotFoundException;
 import com.project.redis.model.Game;
-import com.project.redis.model.Match;
 import com.project.redis.model.User;
 import com.project.redis.repository.GameRepository;
-import com.project.redis.repository.MatchRepository;
 import com.project.redis.repository.UserRepository;
+import com.project.redis.service.IGameCounterService;
 import com.project.redis.service.IGameService;
+import com.project.redis.service.ILeaderBoardService;
+import com.project.redis.service.IMatchHistoryService;
+import com.project.redis.service.IMatchWriteBehindService;
+import com.project.redis.service.IMatchmakingService;
+import com.project.redis.service.IPresenceService;
+import com.project.redis.service.IRatingService;
+import com.project.redis.service.IStatsRollupService;
+import com.project.redis.service.IUserStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -32,7 +43,15 @@ public class GameServiceImpl implements IGameService {
     private final RedisTemplate<String, Object> redisTemplate;
     private final GameRepository gameRepository;
     private final UserRepository userRepository;
-    private final MatchRepository matchRepository;
+    private final IMatchWriteBehindService matchWriteBehindService;
+    private final IUserStatsService userStatsService;
+    private final ILeaderBoardService leaderBoardService;
+    private final IGameCounterService gameCounterService;
+    private final IPresenceService presenceService;
+    private final IMatchmakingService matchmakingService;
+    private final IRatingService ratingService;
+    private final IMatchHistoryService matchHistoryService;
+    private final IStatsRollupService statsRollupService;
 
     @Override
     public List<Game> getAllGames() {
@@ -40,12 +59,12 @@ public class GameServiceImpl implements IGameService {
         List<Game> cached = (List<Game>) redisTemplate.opsForValue().get(cacheKey);
         if (cached != null) {
             log.debug("Cache HIT: {}", cacheKey);
-            return cached;
+            return sortByPlayCount(gameCounterService.applyCounters(cached));
         }
         List<Game> games = gameRepository.findByStatusOrderByPlayCountDesc(GameStatus.ACTIVE);
         redisTemplate.opsForValue().set(cacheKey, games, 5, TimeUnit.MINUTES);
 
-        return games;
+        return sortByPlayCount(gameCounterService.applyCounters(games));
     }
 
     @Override
@@ -54,13 +73,13 @@ public class GameServiceImpl implements IGameService {
         List<Game> cached = (List<Game>) redisTemplate.opsForValue().get(cacheKey);
         if (cached != null) {
             log.debug("Cache HIT: {}", cacheKey);
-            return cached;
+            return gameCounterService.applyCounters(cached);
 
         }
         List<Game> games = gameRepository.findByCategoryAndStatus(category, GameStatus.ACTIVE);
         redisTemplate.opsForValue().set(cacheKey, games, 5, TimeUnit.MINUTES);
 
-        return games;
+        return gameCounterService.applyCounters(games);
     }
 
     @Override
@@ -92,13 +111,15 @@ public class GameServiceImpl implements IGameService {
                 .sessionId(sessionId)
                 .startedAt(LocalDateTime.now())
                 .userId(userId)
+                .opponentId(findLobbyOpponent(userId, gameId))
                 .build();
         String sessionKey = "game-session:" + sessionId;
         redisTemplate.opsForValue().set(sessionKey, gameSession, 30, TimeUnit.MINUTES);
         redisTemplate.opsForValue().set(activeSessionKey, sessionId, 30, TimeUnit.MINUTES);
 
-        game.incrementPlayCount();
-        gameRepository.save(game);
+        // play count Redis counter-inde artir, games setri periodik flush ile yenilenir
+        gameCounterService.recordPlay(gameId, userId);
+        presenceService.heartbeat(userId, gameId);
 
         return GameSessionResponse.builder()
                 .gameId(gameId)
@@ -109,7 +130,6 @@ public class GameServiceImpl implements IGameService {
     }
 
     @Override
-    @Transactional
     public MatchResult finishGame(Long userId, FinishGameRequest request) throws UnauthorizedException, UserNotFoundException {
         String sessionKey = "game-session:" + request.getSessionId();
         GameSession session = (GameSession) redisTemplate.opsForValue().get(sessionKey);
@@ -119,39 +139,59 @@ public class GameServiceImpl implements IGameService {
         if (!session.getUserId().equals(userId)) {
             throw new UnauthorizedException("This session does not belong to this user. userId:" + userId + ", session:" + session);
         }
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found!"));
-        Game game = gameRepository.findById(session.getGameId()).orElseThrow(() -> new RuntimeException("This game not found!"));
-        Match match = Match.builder()
-                .game(game)
-                .createdAt(LocalDateTime.now())
+        // match DB-ye write-behind ile gedir: id indi ayrilir, yazma stream-den batch ile olur
+        PendingMatch match = PendingMatch.builder()
+                .id(matchWriteBehindService.nextMatchId())
+                .userId(userId)
+                .gameId(session.getGameId())
+                // DB mikrosaniye saxlayir: Redis ve DB-den gelen keyset cursor-lari eyni deyeri gorsun
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .score(request.getScore())
                 .duration(request.getDuration())
                 .result(request.getResult())
-                .opponentId(request.getOpponentId())
-                .user(user)
+                .opponentId(request.getOpponentId() != null ? request.getOpponentId() : session.getOpponentId())
                 .build();
-        match = matchRepository.save(match);
-        updateUserStats(user, request.getResult(), request.getScore());
-        addToMatchHistory(userId, match.getId());
+        matchWriteBehindService.enqueue(match);
+        // statistika Redis counter-lerinde toplanir ve periodik flush olunur, user entity yuklenmir
+        userStatsService.recordMatch(userId, request.getResult(), request.getScore());
+        statsRollupService.recordMatch(match);
+        LeaderboardUpdateResult leaderboard = leaderBoardService.addScore(userId, request.getScore(), session.getGameId());
+        matchHistoryService.record(match);
+        // yalniz bu oyuncunun reytinqi deyisir, raqib oz neticesini bitirende yenilenir
+        if (match.getOpponentId() != null) {
+            ratingService.recordResult(userId, match.getOpponentId(), session.getGameId(), request.getResult());
+        }
 
         redisTemplate.delete(sessionKey);
         redisTemplate.delete("active-session:user:" + userId);
+        // oyun bitdi: user online qalir, lobby-den cixir
+        presenceService.heartbeat(userId, null);
 
-        log.info(" Match created: ID={}", match.getId());
+        log.info(" Match queued: ID={}", match.getId());
 
         return MatchResult.builder()
                 .matchId(match.getId())
                 .result(request.getResult())
                 .score(request.getScore())
                 .earnedScore(request.getScore())
-                .newTotalScore(user.getTotalScore())
+                .newTotalScore(leaderboard.getNewGlobalScore())
                 .build();
     }
 
-    private void addToMatchHistory(Long userId, Long matchId) {
-        String key = "matches:user:" + userId;
-        redisTemplate.opsForList().leftPush(key, "match:" + matchId);
-        redisTemplate.opsForList().trim(key, 0, 49);//son50
+    private List<Game> sortByPlayCount(List<Game> games) {
+        games.sort(Comparator.comparing(Game::getPlayCount).reversed());
+        return games;
+    }
+
+    /**
+     * User matchmaking ile bu oyun ucun lobby-ye dusubse lobby-deki ilk diger oyuncu raqib olur.
+     */
+    private Long findLobbyOpponent(Long userId, Long gameId) {
+        MatchLobby lobby = matchmakingService.getAssignment(userId);
+        if (lobby == null || !gameId.equals(lobby.getGameId())) {
+            return null;
+        }
+        return lobby.getPlayerIds().stream().filter(playerId -> !playerId.equals(userId)).findFirst().orElse(null);
     }
 
     private String generateSessionId() {
@@ -159,13 +199,4 @@ public class GameServiceImpl implements IGameService {
 
     }
 
-    private void updateUserStats(User user, com.project.redis.enums.MatchResult result, Integer score) {
-        switch (result) {
-            case WIN -> user.incrementWins();
-            case LOSS -> user.incrementLosses();
-            case DRAW -> user.setTotalMatches(user.getTotalMatches() + 1);
-        }
-    }
-
-
 }
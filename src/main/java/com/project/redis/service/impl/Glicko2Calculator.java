@@ -0,0 +1,109 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.response.PlayerRating;
+
+import java.util.List;
+
+/**
+ * Glicko-2 (Glickman, 2012). Her match ayrica bir rating period kimi hesablanir, ona gore reytinq match bitende
+ * incremental yenilenir. Yalniz oyuncunun oz reytinqi deyisir, raqibin reytinqi onun oz match neticesi ile yenilenir.
+ */
+final class Glicko2Calculator {
+    private static final double SCALE = 173.7178;
+    private static final double BASE_RATING = 1500.0;
+    private static final double CONVERGENCE = 0.000001;
+
+    private final double tau;
+    private final double maxDeviation;
+    private final double minDeviation;
+
+    Glicko2Calculator(double tau, double maxDeviation, double minDeviation) {
+        this.tau = tau;
+        this.maxDeviation = maxDeviation;
+        this.minDeviation = minDeviation;
+    }
+
+    /**
+     * @param score 1.0 qelebe, 0.5 hec-hece, 0.0 meglubiyyet
+     */
+    PlayerRating update(PlayerRating player, PlayerRating opponent, double score) {
+        return update(player, List.of(opponent), new double[]{score});
+    }
+
+    /**
+     * Bir rating period-da bir nece raqib (Glicko-2 step 3-8), scores[i] opponents.get(i)-ye qarsi neticedir.
+     */
+    PlayerRating update(PlayerRating player, List<PlayerRating> opponents, double[] scores) {
+        if (opponents.size() != scores.length) {
+            throw new IllegalArgumentException("Each opponent needs exactly one score");
+        }
+        double mu = (player.getRating() - BASE_RATING) / SCALE;
+        double phi = player.getDeviation() / SCALE;
+        double sigma = player.getVolatility();
+
+        double vInverse = 0.0;
+        double improvement = 0.0;
+        for (int i = 0; i < scores.length; i++) {
+            double muOpponent = (opponents.get(i).getRating() - BASE_RATING) / SCALE;
+            double phiOpponent = opponents.get(i).getDeviation() / SCALE;
+            double g = 1.0 / Math.sqrt(1.0 + 3.0 * phiOpponent * phiOpponent / (Math.PI * Math.PI));
+            double expected = 1.0 / (1.0 + Math.exp(-g * (mu - muOpponent)));
+            vInverse += g * g * expected * (1.0 - expected);
+            improvement += g * (scores[i] - expected);
+        }
+        double v = 1.0 / vInverse;
+        double delta = v * improvement;
+
+        double newSigma = newVolatility(phi, sigma, v, delta);
+        double phiStar = Math.sqrt(phi * phi + newSigma * newSigma);
+        double newPhi = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + 1.0 / v);
+        double newMu = mu + newPhi * newPhi * improvement;
+
+        return PlayerRating.builder()
+                .rating(SCALE * newMu + BASE_RATING)
+                .deviation(Math.max(minDeviation, Math.min(maxDeviation, SCALE * newPhi)))
+                .volatility(newSigma)
+                .matches(player.getMatches() + scores.length)
+                .build();
+    }
+
+    /**
+     * Volatility-nin yeni deyeri (Illinois algoritmi, Glicko-2 step 5).
+     */
+    private double newVolatility(double phi, double sigma, double v, double delta) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi;
+        double A = a;
+        double B;
+        if (delta * delta > phi2 + v) {
+            B = Math.log(delta * delta - phi2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phi2, v, delta) < 0) {
+                k++;
+            }
+            B = a - k * tau;
+        }
+        double fA = f(A, a, phi2, v, delta);
+        double fB = f(B, a, phi2, v, delta);
+        while (Math.abs(B - A) > CONVERGENCE) {
+            double C = A + (A - B) * fA / (fB - fA);
+            double fC = f(C, a, phi2, v, delta);
+            if (fC * fB <= 0) {
+                A = B;
+                fA = fB;
+            } else {
+                fA = fA / 2.0;
+            }
+            B = C;
+            fB = fC;
+        }
+        return Math.exp(A / 2.0);
+    }
+
+    private double f(double x, double a, double phi2, double v, double delta) {
+        double ex = Math.exp(x);
+        double denominator = phi2 + v + ex;
+        return ex * (delta * delta - phi2 - v - ex) / (2.0 * denominator * denominator) - (x - a) / (tau * tau);
+    }
+}
@@ -1,78 +1,444 @@
 package com.project.redis.service.impl;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.redis.dto.request.RankChange;
+import com.project.redis.dto.response.CacheStatsResponse;
 import com.project.redis.dto.response.LeaderboardEntry;
+import com.project.redis.dto.response.LeaderboardPage;
 import com.project.redis.dto.response.LeaderboardUpdateResult;
+import com.project.redis.dto.response.LeaderboardWindow;
 import com.project.redis.dto.response.UserRankInfo;
-import com.project.redis.model.User;
-import com.project.redis.repository.UserRepository;
+import com.project.redis.dto.response.UserSummary;
+import com.project.redis.enums.LeaderboardType;
+import com.project.redis.model.LeaderboardSnapshot;
+import com.project.redis.repository.LeaderboardSnapshotRepository;
 import com.project.redis.service.ILeaderBoardService;
+import com.project.redis.service.ILeaderboardWindowService;
+import com.project.redis.service.IRankEventService;
+import com.project.redis.service.IRollingLeaderboardService;
+import com.project.redis.service.IShardedLeaderboardService;
+import com.project.redis.service.ISocialService;
+import com.project.redis.service.IUserSummaryService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Slf4j
 
 public class LeaderBoardServiceImpl implements ILeaderBoardService {
     private final RedisTemplate<String, Object> redisTemplate;
-    private final UserRepository userRepository;
     private final ZSetOperations<String, Object> zSetOperations;
-
-    public LeaderBoardServiceImpl(RedisTemplate<String, Object> redisTemplate, UserRepository userRepository, ZSetOperations<String, Object> zSetOperations) {
+    private final IUserSummaryService userSummaryService;
+    private final IShardedLeaderboardService shardedLeaderboard;
+    private final ILeaderboardWindowService windowService;
+    private final IRollingLeaderboardService rollingLeaderboard;
+    private final LeaderboardSnapshotRepository snapshotRepository;
+    private final ISocialService socialService;
+    private final IRankEventService rankEventService;
+    private final LoadingCache<String, List<LeaderboardEntry>> nearCache;
+    private final AtomicLong nearCacheRefreshes = new AtomicLong();
+    private final AtomicLong nearCacheChangeRefreshes = new AtomicLong();
+    private final Cache<String, LeaderboardPage> groupCache;
+    private final LoadingCache<String, Long> totalPlayersCache;
+
+    public LeaderBoardServiceImpl(RedisTemplate<String, Object> redisTemplate, IUserSummaryService userSummaryService,
+                                  IShardedLeaderboardService shardedLeaderboard,
+                                  ILeaderboardWindowService windowService,
+                                  IRollingLeaderboardService rollingLeaderboard,
+                                  LeaderboardSnapshotRepository snapshotRepository,
+                                  ISocialService socialService,
+                                  IRankEventService rankEventService,
+                                  @Value("${leaderboard.near-cache.staleness-ms:1000}") long stalenessMs,
+                                  @Value("${leaderboard.near-cache.max-size:1000}") long maxSize,
+                                  @Value("${leaderboard.group.cache-ttl-ms:5000}") long groupCacheTtlMs,
+                                  @Value("${leaderboard.group.cache-max-size:10000}") long groupCacheMaxSize,
+                                  @Value("${leaderboard.total-players.cache-ms:5000}") long totalPlayersCacheMs) {
         this.redisTemplate = redisTemplate;
-        this.userRepository = userRepository;
-        this.zSetOperations = zSetOperations;
+        this.zSetOperations = redisTemplate.opsForZSet();
+        this.userSummaryService = userSummaryService;
+        this.shardedLeaderboard = shardedLeaderboard;
+        this.windowService = windowService;
+        this.rollingLeaderboard = rollingLeaderboard;
+        this.snapshotRepository = snapshotRepository;
+        this.socialService = socialService;
+        this.rankEventService = rankEventService;
+        // qrup board-u user-e ozeldir ve tez kohnelir: qisa omurlu lokal cache tekrar acilislari udur
+        this.groupCache = Caffeine.newBuilder()
+                .maximumSize(groupCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(groupCacheTtlMs))
+                .build();
+        // ZCARD (sharded-da her shard-in ZCARD cemi) her profil acilisinda lazim deyil, arxa planda yenilenir
+        this.totalPlayersCache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .refreshAfterWrite(Duration.ofMillis(totalPlayersCacheMs))
+                .build(board -> loadTotalPlayers());
+        // refreshAfterWrite kohne siyahini qaytarir ve arxa planda yenileyir, oxuma network gozlemir
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofMillis(stalenessMs))
+                .expireAfterWrite(Duration.ofMillis(stalenessMs * 10))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public List<LeaderboardEntry> load(String board) {
+                        return loadTop(board);
+                    }
+
+                    @Override
+                    public List<LeaderboardEntry> reload(String board, List<LeaderboardEntry> oldValue) {
+                        nearCacheRefreshes.incrementAndGet();
+                        return loadTop(board);
+                    }
+                });
     }
 
     private static final String GLOBAL_LEADERBOARD = "leaderboard:global";
-    private static final String DAILY_LEADERBOARD_PREFIX = "leaderboard:daily:";
-    private static final String WEEKLY_LEADERBOARD_PREFIX = "leaderboard:weekly:";
     private static final String GAME_LEADERBOARD_PREFIX = "leaderboard:game:";
 
+    private static final int NEAR_CACHE_TOP_N = 10;
+    private static final String BOARD_GLOBAL = "global";
+    private static final String BOARD_DAILY = "daily";
+    private static final String BOARD_WEEKLY = "weekly";
+    private static final String BOARD_MONTHLY = "monthly";
+    private static final String BOARD_SEASON = "season";
+    private static final String BOARD_GAME_PREFIX = "game:";
+
+    private static final int[] TIER_MAX_RANKS = {1, 3, 10, 50, 100, 500};
+    private static final String[] TIER_NAMES = {
+            "🥇 Champion", "🥈 Master", "🥉 Diamond", "⭐ Platinum", "💎 Gold", "🎖️ Silver", "🏅 Bronze"};
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_AROUND_RADIUS = 50;
+
+    /**
+     * ZREVRANK ve ZREVRANGE bir round trip-de: userin rankini tapir ve etrafindaki pencereni qaytarir.
+     * Cavab: {rank, start, {member, score, ...}}, user yoxdursa {-1, 0, {}}
+     */
+    private static final DefaultRedisScript<List> AROUND_USER_SCRIPT = new DefaultRedisScript<>("""
+            local rank = redis.call('ZREVRANK', KEYS[1], ARGV[1])
+            if not rank then
+                return {-1, 0, {}}
+            end
+            local radius = tonumber(ARGV[2])
+            local start = rank - radius
+            if start < 0 then
+                start = 0
+            end
+            return {rank, start, redis.call('ZREVRANGE', KEYS[1], start, rank + radius, 'WITHSCORES')}
+            """, List.class);
+
+    /**
+     * Pencere board-i (gun, hefte, ay, sezon, rolling bucket ve board-lar) ucun: kohne ZREVRANK, ZINCRBY, key TTL-siz ise (ilk yazma) EXPIREAT ve yeni ZREVRANK.
+     * Her pencere ayri EVAL-dir (bir key, Redis Cluster-de CROSSSLOT olmur), hamisi eyni pipeline-da gedir.
+     * KEYS[1]: pencere key-i, ARGV[1]: member, ARGV[2]: xal, ARGV[3]: expire ani (epoch saniye, 0 = expire olmur).
+     * Cavab: {score, rank, oldRank}, oldRank -1 = member board-da yox idi
+     */
+    private static final DefaultRedisScript<List> WINDOW_SCORE_SCRIPT = new DefaultRedisScript<>("""
+            local old = redis.call('ZREVRANK', KEYS[1], ARGV[1])
+            local score = redis.call('ZINCRBY', KEYS[1], ARGV[2], ARGV[1])
+            if ARGV[3] ~= '0' and redis.call('TTL', KEYS[1]) == -1 then
+                redis.call('EXPIREAT', KEYS[1], ARGV[3])
+            end
+            return {tonumber(score), redis.call('ZREVRANK', KEYS[1], ARGV[1]), old or -1}
+            """, List.class);
+
+    @Value("${leaderboard.pipelined-submit:true}")
+    private boolean pipelinedSubmit;
+
 
     @Override
     public LeaderboardUpdateResult addScore(Long userId, Integer points, Long gameId) {
+        LeaderboardUpdateResult result = pipelinedSubmit
+                ? addScorePipelined(userId, points, gameId)
+                : addScoreSequential(userId, points, gameId);
+        refreshChangedBoards(result, gameId);
+        return result;
+    }
 
+    private LeaderboardUpdateResult addScorePipelined(Long userId, Integer points, Long gameId) {
         String member = getMember(userId);
-        Double newGlobalScore = zSetOperations.incrementScore(GLOBAL_LEADERBOARD, member, points);
+        String globalKey = getGlobalWriteKey(userId);
+        String gameKey = gameId != null ? getGameLeaderboardKey(gameId) : null;
+        List<LeaderboardWindow> windows = scoredWindows();
+        List<byte[][]> windowKeysAndArgs = windowScriptKeysAndArgs(windows, member, points);
+        byte[] windowScript = WINDOW_SCORE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+
+        // butun ZINCRBY ve ZREVRANK emrleri bir round trip-de gedir, neticeler emr sirasi ile qayidir.
+        // ilk ZREVRANK-lar kohne rank-dir (rank hadiseleri ucun)
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                ZSetOperations<String, Object> ops = operations.opsForZSet();
+                ops.reverseRank(globalKey, member);
+                if (gameKey != null) {
+                    ops.reverseRank(gameKey, member);
+                }
+                ops.incrementScore(globalKey, member, points);
+                if (gameKey != null) {
+                    ops.incrementScore(gameKey, member, points);
+                }
+                // pipeline-da NOSCRIPT tutula bilmir, ona gore EVALSHA yox EVAL
+                for (byte[][] keysAndArgs : windowKeysAndArgs) {
+                    operations.execute((RedisCallback<Object>) connection -> connection.scriptingCommands()
+                            .eval(windowScript, ReturnType.MULTI, 1, keysAndArgs));
+                }
+                ops.reverseRank(globalKey, member);
+                if (gameKey != null) {
+                    ops.reverseRank(gameKey, member);
+                }
+                return null;
+            }
+        });
+
+        List<Object> results = collapseWindowReplies(replies, gameKey != null ? 2 : 1, windows.size());
+        LeaderboardUpdateResult result = toUpdateResult(userId, points, gameKey, windows, results);
+        publishRankChanges(userId, points, gameId, globalKey, gameKey, windows, result, results);
+        return result;
+    }
 
-        String dailyKey = getDailyLeaderBoardKey();
-        Double newDailyScore = zSetOperations.incrementScore(dailyKey, member, points);
+    /**
+     * Pencere EVAL-larinin cavablarini ({score, rank, oldRank} ucluleri) bir siyahiya yigir, results sequential yoldaki sekle dusur.
+     */
+    private List<Object> collapseWindowReplies(List<Object> replies, int boards, int windowCount) {
+        List<Object> results = new ArrayList<>(replies.subList(0, 2 * boards));
+        List<Object> windowReply = new ArrayList<>(windowCount * 3);
+        for (Object reply : replies.subList(2 * boards, 2 * boards + windowCount)) {
+            if (reply instanceof List<?> triple) {
+                windowReply.addAll(triple);
+            } else {
+                windowReply.addAll(Arrays.asList(null, null, null));
+            }
+        }
+        results.add(windowReply);
+        results.addAll(replies.subList(2 * boards + windowCount, replies.size()));
+        return results;
+    }
 
-        String weeklyKey = getWeeklyLeaderboardKey();
-        Double newWeeklyScore = zSetOperations.incrementScore(weeklyKey, member, points);
-        if (gameId != null) {
-            String gameKey = getGameLeaderboardKey(gameId);
-            zSetOperations.incrementScore(gameKey, member, points);
+    /**
+     * results pipelined yoldaki emr sirasi ile: kohne rank-lar (global, game), ZINCRBY-lar (global, game),
+     * pencere cavabi ({score, rank, oldRank} ucluleri), yeni rank-lar (global, game). game emrleri yalniz gameId varsa.
+     */
+    private LeaderboardUpdateResult toUpdateResult(Long userId, Integer points, String gameKey,
+                                                   List<LeaderboardWindow> windows, List<Object> results) {
+        int boards = gameKey != null ? 2 : 1;
+        Long newGlobalScore = toScore(results.get(boards));
+        Long newGameScore = gameKey != null ? toScore(results.get(boards + 1)) : null;
+        List<?> windowReply = (List<?>) results.get(2 * boards);
+        // sharded rejimde ZREVRANK yalniz oz shard-indaki yeri verir, global rank shard sayimlarindan gelir
+        Integer globalRank = shardedLeaderboard.isEnabled()
+                ? shardedLeaderboard.getGlobalRank(newGlobalScore).intValue()
+                : toRank(results.get(2 * boards + 1));
+        Integer gameRank = gameKey != null ? toRank(results.get(2 * boards + 2)) : null;
+        LeaderboardUpdateResult.LeaderboardUpdateResultBuilder result = LeaderboardUpdateResult.builder()
+                .userId(userId)
+                .pointsAdded(points)
+                .newGlobalScore(newGlobalScore)
+                .newGameScore(newGameScore)
+                .globalRank(globalRank)
+                .gameRank(gameRank);
+        applyWindowResults(result, windows, windowReply);
+        return result.build();
+    }
+
+    private void publishRankChanges(Long userId, Integer points, Long gameId, String globalKey, String gameKey,
+                                    List<LeaderboardWindow> windows, LeaderboardUpdateResult result, List<Object> results) {
+        int boards = gameKey != null ? 2 : 1;
+        Long newGlobalScore = result.getNewGlobalScore();
+        Integer globalRank = result.getGlobalRank();
+        List<RankChange> changes = new ArrayList<>(windows.size() + 2);
+        // sharded global-da key null: kohne rank-i publisher shard sayimlarindan ozu hesablayir
+        changes.add(shardedLeaderboard.isEnabled()
+                ? new RankChange(BOARD_GLOBAL, null, null, globalRank, newGlobalScore)
+                : new RankChange(BOARD_GLOBAL, globalKey, toOldRank(results.get(0)), globalRank, newGlobalScore));
+        if (gameKey != null) {
+            changes.add(new RankChange(BOARD_GAME_PREFIX + gameId, gameKey, toOldRank(results.get(1)),
+                    result.getGameRank(), result.getNewGameScore()));
         }
-        Long globalRank = zSetOperations.reverseRank(GLOBAL_LEADERBOARD, member);
-        Long dailyRank = zSetOperations.reverseRank(dailyKey, member);
+        collectWindowChanges(changes, windows, (List<?>) results.get(2 * boards));
+        rankEventService.publish(userId, points, changes);
+    }
 
+    /**
+     * Takvim pencereleri + cari saatin rolling bucket-i ve rolling board-lar.
+     */
+    private List<LeaderboardWindow> scoredWindows() {
+        List<LeaderboardWindow> windows = new ArrayList<>(windowService.currentWindows());
+        windows.addAll(rollingLeaderboard.writeTargets());
+        return windows;
+    }
 
-        return LeaderboardUpdateResult.builder()
-                .pointsAdded(points)
-                .newGlobalScore(newGlobalScore != null ? newGlobalScore.longValue() : 0L)
-                .globalRank(globalRank != null ? globalRank.intValue() + 1 : 0)
-                .newDailyScore(newDailyScore != null ? newDailyScore.longValue() : 0L)
-                .dailyRank(dailyRank != null ? dailyRank.intValue() + 1 : 0)
-                .build();
+    private List<byte[][]> windowScriptKeysAndArgs(List<LeaderboardWindow> windows, String member, Integer points) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        // member ZSET-de value serializer ile saxlanir, xal ve vaxt duz reqem kimi
+        byte[] rawMember = valueSerializer.serialize(member);
+        byte[] rawPoints = String.valueOf(points).getBytes(StandardCharsets.UTF_8);
+        List<byte[][]> keysAndArgs = new ArrayList<>(windows.size());
+        for (LeaderboardWindow window : windows) {
+            Instant expireAt = window.getExpireAt();
+            keysAndArgs.add(new byte[][]{
+                    window.getKey().getBytes(StandardCharsets.UTF_8),
+                    rawMember,
+                    rawPoints,
+                    String.valueOf(expireAt != null ? expireAt.getEpochSecond() : 0).getBytes(StandardCharsets.UTF_8)});
+        }
+        return keysAndArgs;
+    }
+
+    private void applyWindowResults(LeaderboardUpdateResult.LeaderboardUpdateResultBuilder result,
+                                    List<LeaderboardWindow> windows, List<?> reply) {
+        if (reply == null) {
+            return;
+        }
+        for (int i = 0; i < windows.size(); i++) {
+            Long score = toScore(reply.get(i * 3));
+            Integer rank = toRank(reply.get(i * 3 + 1));
+            switch (windows.get(i).getType()) {
+                case DAILY -> result.newDailyScore(score).dailyRank(rank);
+                case WEEKLY -> result.newWeeklyScore(score).weeklyRank(rank);
+                case MONTHLY -> result.newMonthlyScore(score).monthlyRank(rank);
+                case SEASON -> result.newSeasonScore(score).seasonRank(rank);
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Takvim pencereleri ucun rank deyisiklikleri. Rolling board-lar ve bucket-lar hadise yaratmir.
+     */
+    private void collectWindowChanges(List<RankChange> changes, List<LeaderboardWindow> windows, List<?> reply) {
+        if (reply == null) {
+            return;
+        }
+        for (int i = 0; i < windows.size(); i++) {
+            LeaderboardWindow window = windows.get(i);
+            String board = switch (window.getType()) {
+                case DAILY -> BOARD_DAILY;
+                case WEEKLY -> BOARD_WEEKLY;
+                case MONTHLY -> BOARD_MONTHLY;
+                case SEASON -> BOARD_SEASON;
+                default -> null;
+            };
+            if (board != null) {
+                changes.add(new RankChange(board, window.getKey(), toOldRank(reply.get(i * 3 + 2)),
+                        toRank(reply.get(i * 3 + 1)), toScore(reply.get(i * 3))));
+            }
+        }
     }
 
+    /**
+     * Ardicil yol: pipelined yolun eyni emrlerini (pencere script-i de daxil) her biri ayri round trip ile gonderir.
+     * leaderboard.pipelined-submit=false ile aktiv olur, iki yolun ferqi yalniz round trip sayidir, ona gore latency muqayisesi
+     * ucun saxlanilib. Cavablar pipeline ile eyni sirada yigilir ve eyni sekilde emal olunur, rank hadiseleri de yazilir.
+     */
+    LeaderboardUpdateResult addScoreSequential(Long userId, Integer points, Long gameId) {
+        String member = getMember(userId);
+        String globalKey = getGlobalWriteKey(userId);
+        String gameKey = gameId != null ? getGameLeaderboardKey(gameId) : null;
+        List<LeaderboardWindow> windows = scoredWindows();
+
+        List<Object> results = new ArrayList<>();
+        results.add(zSetOperations.reverseRank(globalKey, member));
+        if (gameKey != null) {
+            results.add(zSetOperations.reverseRank(gameKey, member));
+        }
+        results.add(zSetOperations.incrementScore(globalKey, member, points));
+        if (gameKey != null) {
+            results.add(zSetOperations.incrementScore(gameKey, member, points));
+        }
+        List<Object> windowReply = new ArrayList<>(windows.size() * 3);
+        for (LeaderboardWindow window : windows) {
+            Long oldRank = zSetOperations.reverseRank(window.getKey(), member);
+            windowReply.add(zSetOperations.incrementScore(window.getKey(), member, points));
+            if (window.getExpireAt() != null && Long.valueOf(-1).equals(redisTemplate.getExpire(window.getKey()))) {
+                redisTemplate.expireAt(window.getKey(), window.getExpireAt());
+            }
+            windowReply.add(zSetOperations.reverseRank(window.getKey(), member));
+            windowReply.add(oldRank);
+        }
+        results.add(windowReply);
+        results.add(zSetOperations.reverseRank(globalKey, member));
+        if (gameKey != null) {
+            results.add(zSetOperations.reverseRank(gameKey, member));
+        }
+        LeaderboardUpdateResult result = toUpdateResult(userId, points, gameKey, windows, results);
+        publishRankChanges(userId, points, gameId, globalKey, gameKey, windows, result, results);
+        return result;
+    }
+
+    private Long toScore(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private Integer toRank(Object value) {
+        return value instanceof Number number ? number.intValue() + 1 : 0;
+    }
+
+    private Integer toOldRank(Object value) {
+        return value instanceof Number number && number.longValue() >= 0 ? number.intValue() + 1 : null;
+    }
+
+    /**
+     * addScore-dan sonra user top-N-dedirse hemin board near cache-de yenilenir.
+     * Rank bilinmirse (ardicil yol weekly/game rank qaytarmir) ehtiyat ucun yenilenir.
+     */
+    private void refreshChangedBoards(LeaderboardUpdateResult result, Long gameId) {
+        refreshIfInTop(BOARD_GLOBAL, result.getGlobalRank());
+        refreshIfInTop(BOARD_DAILY, result.getDailyRank());
+        refreshIfInTop(BOARD_WEEKLY, result.getWeeklyRank());
+        if (gameId != null) {
+            refreshIfInTop(BOARD_GAME_PREFIX + gameId, result.getGameRank());
+        }
+    }
+
+    private void refreshIfInTop(String board, Integer rank) {
+        if (rank != null && rank > NEAR_CACHE_TOP_N) {
+            return;
+        }
+        if (nearCache.getIfPresent(board) != null) {
+            nearCacheChangeRefreshes.incrementAndGet();
+            nearCache.refresh(board);
+        }
+    }
+
+    @Override
     public List<LeaderboardEntry> getTop10() {
-        return getTopPlayer(10);
+        return nearCache.get(BOARD_GLOBAL);
     }
 
     public List<LeaderboardEntry> getTopPlayer(int count) {
-        Set<ZSetOperations.TypedTuple<Object>> results = zSetOperations.reverseRangeWithScores(GLOBAL_LEADERBOARD, 0, count - 1);
+        Collection<ZSetOperations.TypedTuple<Object>> results = shardedLeaderboard.isEnabled()
+                ? shardedLeaderboard.getRange(0, count)
+                : zSetOperations.reverseRangeWithScores(GLOBAL_LEADERBOARD, 0, count - 1);
         if (results == null || results.isEmpty()) {
             return List.of();
         }
@@ -85,124 +451,454 @@ public class LeaderBoardServiceImpl implements ILeaderBoardService {
         return getTopPlayer(100);
     }
 
+    @Override
     public List<LeaderboardEntry> getDailyTop10() {
-        String key = getDailyLeaderboardKey(LocalDate.now());
-        Set<ZSetOperations.TypedTuple<Object>> results = zSetOperations.reverseRangeWithScores(key, 0, 9);
-        if (results == null) {
-            return List.of();
-        }
-        return buildLeaderboardEntries(results, 1);
+        return nearCache.get(BOARD_DAILY);
     }
 
+    @Override
     public List<LeaderboardEntry> getWeeklyTop10() {
-        String key = getWeeklyLeaderboardKey();
-        Set<ZSetOperations.TypedTuple<Object>> results = zSetOperations.reverseRangeWithScores(key, 0, 9);
+        return nearCache.get(BOARD_WEEKLY);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGameTop10(Long gameId) {
+        return nearCache.get(BOARD_GAME_PREFIX + gameId);
+    }
+
+    @Override
+    public CacheStatsResponse getNearCacheStats() {
+        CacheStats stats = nearCache.stats();
+        return CacheStatsResponse.builder()
+                .name("leaderboard-near-cache")
+                .size(nearCache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .loadCount(stats.loadCount())
+                .refreshCount(nearCacheRefreshes.get())
+                .changeRefreshCount(nearCacheChangeRefreshes.get())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private List<LeaderboardEntry> loadTop(String board) {
+        if (BOARD_GLOBAL.equals(board)) {
+            return List.copyOf(getTopPlayer(NEAR_CACHE_TOP_N));
+        }
+        String key = resolveBoardKey(board);
+        Set<ZSetOperations.TypedTuple<Object>> results = zSetOperations.reverseRangeWithScores(key, 0, NEAR_CACHE_TOP_N - 1);
         if (results == null) {
             return List.of();
         }
-        return buildLeaderboardEntries(results, 1);
+        return List.copyOf(buildLeaderboardEntries(results, 1));
     }
 
-    public List<LeaderboardEntry> getGameTop10(Long gameId) {
-        String key = getGameLeaderboardKey(gameId);
+    private String resolveBoardKey(String board) {
+        return switch (board) {
+            case BOARD_GLOBAL -> getLeaderboardKey(LeaderboardType.GLOBAL, null);
+            case BOARD_DAILY -> getLeaderboardKey(LeaderboardType.DAILY, null);
+            case BOARD_WEEKLY -> getLeaderboardKey(LeaderboardType.WEEKLY, null);
+            default -> getLeaderboardKey(LeaderboardType.GAME, Long.parseLong(board.substring(BOARD_GAME_PREFIX.length())));
+        };
+    }
 
-        Set<ZSetOperations.TypedTuple<Object>> results =
-                zSetOperations.reverseRangeWithScores(key, 0, 9);
+    @Override
+    public LeaderboardPage getLeaderboardPage(LeaderboardType type, Long gameId, int offset, int limit) {
+        int start = Math.max(offset, 0);
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        if (type == LeaderboardType.GLOBAL && shardedLeaderboard.isEnabled()) {
+            return buildPage(type, null, start, size, shardedLeaderboard.getTotalPlayers(),
+                    shardedLeaderboard.getRange(start, size));
+        }
+        return readPage(type, gameId, getLeaderboardKey(type, gameId), start, size);
+    }
 
-        if (results == null) {
+    private LeaderboardPage readPage(LeaderboardType type, Long gameId, String key, int start, int size) {
+        // sehife ve ZCARD bir round trip-de
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                ZSetOperations<String, Object> ops = operations.opsForZSet();
+                ops.reverseRangeWithScores(key, start, start + size - 1);
+                ops.size(key);
+                return null;
+            }
+        });
+
+        @SuppressWarnings("unchecked")
+        Set<ZSetOperations.TypedTuple<Object>> tuples = (Set<ZSetOperations.TypedTuple<Object>>) results.get(0);
+        long total = results.get(1) instanceof Number number ? number.longValue() : 0L;
+        return buildPage(type, gameId, start, size, total, tuples);
+    }
+
+    private LeaderboardPage buildPage(LeaderboardType type, Long gameId, int start, int size, long total,
+                                      Collection<ZSetOperations.TypedTuple<Object>> tuples) {
+        List<LeaderboardEntry> entries = tuples == null || tuples.isEmpty()
+                ? List.of()
+                : buildLeaderboardEntries(tuples, start + 1);
+
+        return LeaderboardPage.builder()
+                .type(type)
+                .gameId(gameId)
+                .offset(start)
+                .limit(size)
+                .totalPlayers(total)
+                .nextCursor(start + size < total ? start + size : null)
+                .entries(entries)
+                .build();
+    }
+
+    /**
+     * Istenilen pencerenin sehifesi (windowId null ise cari pencere). ZSET Redis-de varsa (pencere + grace) ordan,
+     * expire olubsa rollover-in yazdigi final top-N snapshot-dan PK araligi ile oxunur.
+     * ROLLING ucun windowId "24h", "7d" kimi pencere adidir, snapshot yoxdur.
+     */
+    @Override
+    public LeaderboardPage getWindowPage(LeaderboardType type, String windowId, int offset, int limit) {
+        LeaderboardWindow window = type == LeaderboardType.ROLLING
+                ? rollingLeaderboard.board(windowId)
+                : windowId != null ? windowService.window(type, windowId) : windowService.current(type);
+        int start = Math.max(offset, 0);
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        LeaderboardPage page = readPage(type, null, window.getKey(), start, size);
+        if (page.getTotalPlayers() == 0 && type != LeaderboardType.ROLLING) {
+            List<LeaderboardSnapshot> rows = snapshotRepository.findByTypeAndWindowIdAndRankBetweenOrderByRankAsc(
+                    type, window.getId(), start + 1, start + size);
+            if (!rows.isEmpty() || start > 0) {
+                Set<ZSetOperations.TypedTuple<Object>> tuples = new LinkedHashSet<>();
+                for (LeaderboardSnapshot row : rows) {
+                    tuples.add(new DefaultTypedTuple<>(getMember(row.getUserId()), row.getScore().doubleValue()));
+                }
+                page = buildPage(type, null, start, size, snapshotRepository.countByTypeAndWindowId(type, window.getId()), tuples);
+                page.setFromSnapshot(true);
+            }
+        }
+        page.setWindowId(window.getId());
+        return page;
+    }
+
+    /**
+     * User + dostlarinin board-u. Dost set-i Redis-de yoxdursa DB-den doldurulur ve bir defe tekrarlanir.
+     */
+    @Override
+    public LeaderboardPage getFriendsLeaderboard(Long userId, LeaderboardType type, Long gameId) {
+        String cacheKey = "friends:" + userId + ":" + type + ":" + gameId;
+        return groupCache.get(cacheKey, key -> {
+            String setKey = socialService.friendsKey(userId);
+            List<ZSetOperations.TypedTuple<Object>> reply = readGroupScores(setKey, type, gameId, false, userId);
+            if (reply == null) {
+                boolean hydrated = socialService.hydrateFriends(userId);
+                reply = readGroupScores(setKey, type, gameId, !hydrated, userId);
+            }
+            LeaderboardPage page = buildGroupPage(type, gameId, reply);
+            page.setUserRank(findRank(page.getEntries(), userId));
+            return page;
+        });
+    }
+
+    @Override
+    public LeaderboardPage getClanLeaderboard(Long clanId, LeaderboardType type, Long gameId) {
+        String cacheKey = "clan:" + clanId + ":" + type + ":" + gameId;
+        return groupCache.get(cacheKey, key -> {
+            String setKey = socialService.clanMembersKey(clanId);
+            List<ZSetOperations.TypedTuple<Object>> reply = readGroupScores(setKey, type, gameId, false, null);
+            if (reply == null) {
+                boolean hydrated = socialService.hydrateClanMembers(clanId);
+                reply = readGroupScores(setKey, type, gameId, !hydrated, null);
+            }
+            return buildGroupPage(type, gameId, reply);
+        });
+    }
+
+    /**
+     * Qrup uzvleri SMEMBERS ile bir defe oxunur, sonra her board ucun ZMSCORE (sharded global-da her shard) bir pipeline-da.
+     * Her emr tek key-e toxunur, Redis Cluster-de CROSSSLOT olmur. selfId (dostlar board-unda user ozu) qrupa elave olunur.
+     * Set yoxdursa null qaytarir (missingIsEmpty olanda bos qrup), xali olmayan member-ler dusur.
+     */
+    private List<ZSetOperations.TypedTuple<Object>> readGroupScores(String setKey, LeaderboardType type, Long gameId,
+                                                                   boolean missingIsEmpty, Long selfId) {
+        Set<Object> stored = redisTemplate.opsForSet().members(setKey);
+        if ((stored == null || stored.isEmpty()) && !missingIsEmpty) {
+            return null;
+        }
+        List<Object> members = new ArrayList<>(stored != null ? stored : Set.of());
+        if (selfId != null) {
+            members.add(getMember(selfId));
+        }
+        if (members.isEmpty()) {
             return List.of();
         }
+        List<String> boards = type == LeaderboardType.GLOBAL && shardedLeaderboard.isEnabled()
+                ? shardedLeaderboard.getShardKeys()
+                : List.of(getLeaderboardKey(type, gameId));
+        Object[] memberArray = members.toArray();
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                ZSetOperations<String, Object> ops = operations.opsForZSet();
+                for (String board : boards) {
+                    ops.score(board, memberArray);
+                }
+                return null;
+            }
+        });
+
+        Double[] scores = new Double[memberArray.length];
+        for (Object result : results) {
+            if (!(result instanceof List<?> found)) {
+                continue;
+            }
+            for (int i = 0; i < scores.length && i < found.size(); i++) {
+                if (scores[i] == null && found.get(i) instanceof Number score) {
+                    scores[i] = score.doubleValue();
+                }
+            }
+        }
+        List<ZSetOperations.TypedTuple<Object>> tuples = new ArrayList<>(scores.length);
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] != null) {
+                tuples.add(new DefaultTypedTuple<>(memberArray[i], scores[i]));
+            }
+        }
+        return tuples;
+    }
 
-        return buildLeaderboardEntries(results, 1);
+    private LeaderboardPage buildGroupPage(LeaderboardType type, Long gameId, List<ZSetOperations.TypedTuple<Object>> tuples) {
+        // ZSET sirasi ile eyni: xal azalan, beraberlikde member leksikoqrafik azalan (ZREVRANGE kimi)
+        List<ZSetOperations.TypedTuple<Object>> sorted = tuples != null ? new ArrayList<>(tuples) : new ArrayList<>();
+        sorted.sort((a, b) -> {
+            int byScore = Double.compare(b.getScore(), a.getScore());
+            return byScore != 0 ? byScore : b.getValue().toString().compareTo(a.getValue().toString());
+        });
+        return LeaderboardPage.builder()
+                .type(type)
+                .gameId(gameId)
+                .offset(0)
+                .limit(sorted.size())
+                .totalPlayers((long) sorted.size())
+                .entries(sorted.isEmpty() ? List.of() : buildLeaderboardEntries(sorted, 1))
+                .build();
     }
 
-    public UserRankInfo getUserRank(Long userId) {
-        log.info("📊 User reytinqi: user:{}", userId);
+    private Integer findRank(List<LeaderboardEntry> entries, Long userId) {
+        for (LeaderboardEntry entry : entries) {
+            if (entry.getUserId().equals(userId)) {
+                return entry.getRank();
+            }
+        }
+        return null;
+    }
 
-        String member = getUserMember(userId);
+    @Override
+    public LeaderboardPage getAroundUser(LeaderboardType type, Long gameId, Long userId, int radius) {
+        int window = Math.min(Math.max(radius, 0), MAX_AROUND_RADIUS);
+        if (type == LeaderboardType.GLOBAL && shardedLeaderboard.isEnabled()) {
+            return getShardedAroundUser(userId, window);
+        }
+        String key = getLeaderboardKey(type, gameId);
+        RedisSerializer<String> keySerializer = redisTemplate.getStringSerializer();
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+
+        // member value serializer ile, radius ise duz reqem kimi gonderilmelidir, ona gore raw connection
+        List<Object> reply = evalMulti(AROUND_USER_SCRIPT, 1,
+                keySerializer.serialize(key),
+                valueSerializer.serialize(getMember(userId)),
+                String.valueOf(window).getBytes(StandardCharsets.UTF_8));
+
+        long rank = reply != null ? ((Number) reply.get(0)).longValue() : -1;
+        if (rank < 0) {
+            return LeaderboardPage.builder()
+                    .type(type)
+                    .gameId(gameId)
+                    .limit(window * 2 + 1)
+                    .entries(List.of())
+                    .build();
+        }
+        int start = ((Number) reply.get(1)).intValue();
+        @SuppressWarnings("unchecked")
+        List<byte[]> flat = (List<byte[]>) reply.get(2);
+        Set<ZSetOperations.TypedTuple<Object>> tuples = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            Object member = valueSerializer.deserialize(flat.get(i));
+            Double score = Double.valueOf(new String(flat.get(i + 1), StandardCharsets.UTF_8));
+            tuples.add(new DefaultTypedTuple<>(member, score));
+        }
+
+        return LeaderboardPage.builder()
+                .type(type)
+                .gameId(gameId)
+                .offset(start)
+                .limit(window * 2 + 1)
+                .userRank((int) rank + 1)
+                .entries(buildLeaderboardEntries(tuples, start + 1))
+                .build();
+    }
 
-        // Global
-        Long globalRank = zSetOperations.reverseRank(GLOBAL_LEADERBOARD, member);
-        Double globalScore = zSetOperations.score(GLOBAL_LEADERBOARD, member);
+    private LeaderboardPage getShardedAroundUser(Long userId, int window) {
+        Double score = shardedLeaderboard.getScore(userId);
+        if (score == null) {
+            return LeaderboardPage.builder()
+                    .type(LeaderboardType.GLOBAL)
+                    .limit(window * 2 + 1)
+                    .entries(List.of())
+                    .build();
+        }
+        int rank = shardedLeaderboard.getGlobalRank(score).intValue();
+        List<ZSetOperations.TypedTuple<Object>> tuples = shardedLeaderboard.getWindowAround(userId, score, window);
+        int above = 0;
+        while (above < tuples.size() && !getMember(userId).equals(tuples.get(above).getValue())) {
+            above++;
+        }
+        int start = Math.max(rank - 1 - above, 0);
+
+        return LeaderboardPage.builder()
+                .type(LeaderboardType.GLOBAL)
+                .offset(start)
+                .limit(window * 2 + 1)
+                .userRank(rank)
+                .entries(buildLeaderboardEntries(tuples, start + 1))
+                .build();
+    }
 
-        // Daily
-        String dailyKey = getDailyLeaderboardKey(LocalDate.now());
-        Long dailyRank = zSetOperations.reverseRank(dailyKey, member);
-        Double dailyScore = zSetOperations.score(dailyKey, member);
+    /**
+     * Script-i EVALSHA ile isledir, Redis-de hele yoxdursa (NOSCRIPT) EVAL ile yukleyir.
+     */
+    private List<Object> evalMulti(DefaultRedisScript<?> script, int numKeys, byte[]... keysAndArgs) {
+        return redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            try {
+                return connection.scriptingCommands().evalSha(script.getSha1(), ReturnType.MULTI, numKeys, keysAndArgs);
+            } catch (RuntimeException e) {
+                if (!isNoScriptError(e)) {
+                    throw e;
+                }
+                return connection.scriptingCommands().eval(
+                        script.getScriptAsString().getBytes(StandardCharsets.UTF_8), ReturnType.MULTI, numKeys, keysAndArgs);
+            }
+        });
+    }
+
+    private boolean isNoScriptError(Throwable e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current.getMessage() != null && current.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        // Weekly
-        String weeklyKey = getWeeklyLeaderboardKey();
-        Long weeklyRank = zSetOperations.reverseRank(weeklyKey, member);
-        Double weeklyScore = zSetOperations.score(weeklyKey, member);
+    private String getLeaderboardKey(LeaderboardType type, Long gameId) {
+        return switch (type) {
+            case GLOBAL -> GLOBAL_LEADERBOARD;
+            case DAILY, WEEKLY, MONTHLY, SEASON -> windowService.current(type).getKey();
+            case ROLLING -> rollingLeaderboard.board(null).getKey();
+            case GAME -> {
+                if (gameId == null) {
+                    throw new IllegalArgumentException("gameId is required for GAME leaderboard");
+                }
+                yield getGameLeaderboardKey(gameId);
+            }
+        };
+    }
 
-        // Total players
-        Long totalPlayers = zSetOperations.size(GLOBAL_LEADERBOARD);
+    @Override
+    public UserRankInfo getUserRank(Long userId) {
+        log.debug("📊 User reytinqi: user:{}", userId);
 
-        if (globalRank == null || globalScore == null) {
+        String member = getUserMember(userId);
+        String globalKey = getGlobalWriteKey(userId);
+        String dailyKey = windowService.current(LeaderboardType.DAILY).getKey();
+        String weeklyKey = windowService.current(LeaderboardType.WEEKLY).getKey();
+
+        // 3 board-un rank ve score-u bir round trip-de; sharded rejimde global ZREVRANK shard daxili yerdir, istifade olunmur
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                ZSetOperations<String, Object> ops = operations.opsForZSet();
+                ops.reverseRank(globalKey, member);
+                ops.score(globalKey, member);
+                ops.reverseRank(dailyKey, member);
+                ops.score(dailyKey, member);
+                ops.reverseRank(weeklyKey, member);
+                ops.score(weeklyKey, member);
+                return null;
+            }
+        });
+
+        Double globalScore = (Double) results.get(1);
+        if (globalScore == null) {
             log.warn("❌ User leaderboard-da tapılmadı: user:{}", userId);
             return null;
         }
-
-        User user = userRepository.findById(userId).orElse(null);
+        // sharded rejimde global rank shard sayimlarindan gelir (ikinci pipeline)
+        int globalRank = shardedLeaderboard.isEnabled()
+                ? shardedLeaderboard.getGlobalRank(globalScore).intValue()
+                : toRank(results.get(0));
+        Long dailyRank = (Long) results.get(2);
+        Double dailyScore = (Double) results.get(3);
+        Long weeklyRank = (Long) results.get(4);
+        Double weeklyScore = (Double) results.get(5);
+        // ZCARD cache-den gelir: kohne ola biler, user ozu ise cemde mutleq var
+        long totalPlayers = Math.max(totalPlayersCache.get(BOARD_GLOBAL), globalRank);
+
+        UserSummary user = userSummaryService.getSummary(userId);
 
         return UserRankInfo.builder()
                 .userId(userId)
                 .username(user != null ? user.getUsername() : null)
                 .avatar(user != null ? user.getAvatar() : null)
-                .globalRank(globalRank.intValue() + 1)
+                .globalRank(globalRank)
                 .globalScore(globalScore.longValue())
                 .dailyRank(dailyRank != null ? dailyRank.intValue() + 1 : null)
                 .dailyScore(dailyScore != null ? dailyScore.longValue() : null)
                 .weeklyRank(weeklyRank != null ? weeklyRank.intValue() + 1 : null)
                 .weeklyScore(weeklyScore != null ? weeklyScore.longValue() : null)
-                .totalPlayers(totalPlayers != null ? totalPlayers.intValue() : 0)
-                .percentile(calculatePercentile(globalRank.intValue(), totalPlayers))
-                .tier(calculateTier(globalRank.intValue()))
+                .totalPlayers((int) totalPlayers)
+                .percentile(calculatePercentile(globalRank - 1, totalPlayers))
+                .tier(calculateTier(globalRank))
                 .build();
     }
 
+    private Long loadTotalPlayers() {
+        Long total = shardedLeaderboard.isEnabled()
+                ? shardedLeaderboard.getTotalPlayers()
+                : zSetOperations.size(GLOBAL_LEADERBOARD);
+        return total != null ? total : 0L;
+    }
+
     private String getUserMember(Long userId) {
         return "user:" + userId;
     }
 
-    private Double calculatePercentile(int rank, Long totalPlayers) {
-        if (totalPlayers == null || totalPlayers == 0) {
+    /**
+     * rankIndex 0-dan baslayir: birinci user 100 alir.
+     */
+    private Double calculatePercentile(int rankIndex, long totalPlayers) {
+        if (totalPlayers == 0) {
             return 0.0;
         }
-        return ((totalPlayers - rank) * 100.0) / totalPlayers;
+        return ((totalPlayers - rankIndex) * 100.0) / totalPlayers;
     }
 
     /**
-     * Tier/Badge teyin et
+     * TIER_MAX_RANKS artan siradadir: rank-dan boyuk ve ya beraber ilk hedd tier-i verir, hec biri deyilse Bronze.
      */
     private String calculateTier(int rank) {
-        if (rank == 1) return "🥇 Champion";
-        if (rank <= 3) return "🥈 Master";
-        if (rank <= 10) return "🥉 Diamond";
-        if (rank <= 50) return "⭐ Platinum";
-        if (rank <= 100) return "💎 Gold";
-        if (rank <= 500) return "🎖️ Silver";
-        return "🏅 Bronze";
+        int index = Arrays.binarySearch(TIER_MAX_RANKS, rank);
+        int tier = index >= 0 ? index : -index - 1;
+        return TIER_NAMES[tier];
     }
 
-
     private String getMember(Long userId) {
         return "user:" + userId;
     }
 
-    private String getDailyLeaderBoardKey() {
-        return getDailyLeaderboardKey(LocalDate.now());
-    }
-
-    private String getDailyLeaderboardKey(LocalDate date) {
-        return GLOBAL_LEADERBOARD + date.format(DateTimeFormatter.BASIC_ISO_DATE);
-    }
-
-    private String getWeeklyLeaderboardKey() {
-        LocalDate now = LocalDate.now();
-        int weekOfYear = now.getDayOfYear();
-        int week = weekOfYear / 7;
-        return WEEKLY_LEADERBOARD_PREFIX + now.getYear() + "-W" + weekOfYear;
+    private String getGlobalWriteKey(Long userId) {
+        return shardedLeaderboard.isEnabled() ? shardedLeaderboard.getShardKey(userId) : GLOBAL_LEADERBOARD;
     }
 
     private String getGameLeaderboardKey(Long gameId) {
@@ -212,15 +908,22 @@ public class LeaderBoardServiceImpl implements ILeaderBoardService {
     /**
      * TypedTuple-ları LeaderboardEntry-lara cevir
      * burada rank onlarin necenci yerde oldugunu gorsedir. onuste biz melumatlari cekende en cox xali olar basda gelirdi ona gore rank 1 den basdayir en cox xali olana rank bir her loop da artirirq bunu 2,3 ,4 kimi bucur isleyir
+     * user melumatlari evvelce butun sehife ucun bir defe yigilir, sonra sira ile entry-lere yazilir
      */
-    private List<LeaderboardEntry> buildLeaderboardEntries(Set<ZSetOperations.TypedTuple<Object>> results, int startRank) {
-        List<LeaderboardEntry> entries = new ArrayList<>();
+    private List<LeaderboardEntry> buildLeaderboardEntries(Collection<ZSetOperations.TypedTuple<Object>> results, int startRank) {
+        List<Long> userIds = new ArrayList<>(results.size());
+        for (ZSetOperations.TypedTuple<Object> tuple : results) {
+            userIds.add(extractUserId(tuple.getValue().toString()));
+        }
+        Map<Long, UserSummary> summaries = userSummaryService.getSummaries(userIds);
+
+        List<LeaderboardEntry> entries = new ArrayList<>(results.size());
         int currentRank = startRank;
+        int index = 0;
         for (ZSetOperations.TypedTuple<Object> tuple : results) {
-            String member = tuple.getValue().toString();
-            Long userId = extractUserId(member);
+            Long userId = userIds.get(index++);
             Long score = tuple.getScore() != null ? tuple.getScore().longValue() : 0L;
-            User user = userRepository.findById(userId).orElse(null);
+            UserSummary user = summaries.get(userId);
 
             LeaderboardEntry entry = LeaderboardEntry.builder()
                     .rank(currentRank++)
@@ -232,8 +935,6 @@ public class LeaderBoardServiceImpl implements ILeaderBoardService {
                     .build();
 
             entries.add(entry);
-
-
         }
 
         return entries;
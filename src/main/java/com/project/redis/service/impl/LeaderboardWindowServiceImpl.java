@@ -0,0 +1,242 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.response.LeaderboardWindow;
+import com.project.redis.enums.LeaderboardType;
+import com.project.redis.model.LeaderboardSnapshot;
+import com.project.redis.repository.LeaderboardSnapshotRepository;
+import com.project.redis.service.ILeaderboardWindowService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Zamanla mehdud leaderboard-larin pencereleri: gun, ISO hefte, ay ve sezon (season.start-dan length-weeks heftelik dovrler).
+ * Pencere serhedleri leaderboard.time-zone saat qursagina goredir, key-ler leaderboard:window:{type}:{id} formasindadir.
+ * Her key pencerenin sonu + grace anina qeder yasayir (TTL ilk yazmada LeaderBoardServiceImpl-in script-i ile qoyulur).
+ * Rollover job grace muddetinde bitmis pencerelerin final top-N-ini leaderboard_snapshots-a yazir,
+ * ZSET expire olandan sonra kohne pencere oradan oxunur.
+ */
+@Service
+@Slf4j
+public class LeaderboardWindowServiceImpl implements ILeaderboardWindowService {
+    private static final String WINDOW_KEY_PREFIX = "leaderboard:window:";
+    private static final String SNAPSHOT_MARKER_PREFIX = "leaderboard:snapshot:";
+    // kohne formatlar: gunluk leaderboard:global20261017, "hefte" leaderboard:weekly:2026-W{gun nomresi}
+    private static final List<String> LEGACY_KEY_PATTERNS = List.of("leaderboard:global[0-9]*", "leaderboard:weekly:*");
+    private static final List<LeaderboardType> WINDOWED_TYPES =
+            List.of(LeaderboardType.DAILY, LeaderboardType.WEEKLY, LeaderboardType.MONTHLY, LeaderboardType.SEASON);
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final LeaderboardSnapshotRepository snapshotRepository;
+    private final Clock clock;
+    private final LocalDate seasonStart;
+    private final int seasonLengthWeeks;
+    private final Duration grace;
+    private final int snapshotTopN;
+    private final boolean expireLegacyKeys;
+
+    public LeaderboardWindowServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                        LeaderboardSnapshotRepository snapshotRepository,
+                                        @Value("${leaderboard.time-zone:UTC}") String timeZone,
+                                        @Value("${leaderboard.season.start:2026-01-05}") String seasonStart,
+                                        @Value("${leaderboard.season.length-weeks:12}") int seasonLengthWeeks,
+                                        @Value("${leaderboard.windows.grace-hours:48}") long graceHours,
+                                        @Value("${leaderboard.windows.snapshot-top-n:100}") int snapshotTopN,
+                                        @Value("${leaderboard.windows.expire-legacy-keys:true}") boolean expireLegacyKeys) {
+        this.redisTemplate = redisTemplate;
+        this.snapshotRepository = snapshotRepository;
+        this.clock = Clock.system(ZoneId.of(timeZone));
+        this.seasonStart = LocalDate.parse(seasonStart);
+        this.seasonLengthWeeks = seasonLengthWeeks;
+        this.grace = Duration.ofHours(graceHours);
+        this.snapshotTopN = snapshotTopN;
+        this.expireLegacyKeys = expireLegacyKeys;
+    }
+
+    @Override
+    public LeaderboardWindow current(LeaderboardType type) {
+        return windowAt(type, ZonedDateTime.now(clock));
+    }
+
+    @Override
+    public List<LeaderboardWindow> currentWindows() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        List<LeaderboardWindow> windows = new ArrayList<>(WINDOWED_TYPES.size());
+        for (LeaderboardType type : WINDOWED_TYPES) {
+            windows.add(windowAt(type, now));
+        }
+        return windows;
+    }
+
+    @Override
+    public LeaderboardWindow window(LeaderboardType type, String windowId) {
+        ZoneId zone = clock.getZone();
+        try {
+            LocalDate day = switch (type) {
+                case DAILY -> LocalDate.parse(windowId);
+                case WEEKLY -> {
+                    String[] parts = windowId.split("-W");
+                    yield LocalDate.of(Integer.parseInt(parts[0]), 1, 4)
+                            .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, Integer.parseInt(parts[1]))
+                            .with(DayOfWeek.MONDAY);
+                }
+                case MONTHLY -> YearMonth.parse(windowId).atDay(1);
+                case SEASON -> seasonStart.plusWeeks((long) (Integer.parseInt(windowId.substring(1)) - 1) * seasonLengthWeeks);
+                default -> throw new IllegalArgumentException(type + " leaderboard has no time windows");
+            };
+            LeaderboardWindow window = windowAt(type, day.atStartOfDay(zone));
+            if (!window.getId().equals(windowId)) {
+                throw new IllegalArgumentException("Invalid " + type + " window: " + windowId);
+            }
+            return window;
+        } catch (DateTimeException | IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + type + " window: " + windowId, e);
+        }
+    }
+
+    /**
+     * Grace muddetindeki (ZSET hele Redis-de olan) bitmis pencereleri snapshot edir.
+     * Her pencere bir defe yazilir: marker key SET NX ile bir node-a dusur, DB yoxlamasi restart-dan sonra tekrari onleyir.
+     */
+    @Override
+    @Scheduled(cron = "${leaderboard.windows.rollover-cron:0 */5 * * * *}")
+    public int rollover() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        int snapshotted = 0;
+        for (LeaderboardType type : WINDOWED_TYPES) {
+            LeaderboardWindow window = windowAt(type, windowAt(type, now).getStart().minusSeconds(1));
+            while (window.getExpireAt().isAfter(now.toInstant())) {
+                if (snapshot(window, now.toInstant())) {
+                    snapshotted++;
+                }
+                window = windowAt(type, window.getStart().minusSeconds(1));
+            }
+        }
+        return snapshotted;
+    }
+
+    private boolean snapshot(LeaderboardWindow window, Instant now) {
+        String marker = SNAPSHOT_MARKER_PREFIX + window.getType() + ":" + window.getId();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(marker, "1", Duration.between(now, window.getExpireAt()));
+        if (!Boolean.TRUE.equals(acquired) || snapshotRepository.existsByTypeAndWindowId(window.getType(), window.getId())) {
+            return false;
+        }
+        try {
+            Set<ZSetOperations.TypedTuple<Object>> top = redisTemplate.opsForZSet()
+                    .reverseRangeWithScores(window.getKey(), 0, snapshotTopN - 1);
+            if (top == null || top.isEmpty()) {
+                return false;
+            }
+            LocalDateTime createdAt = LocalDateTime.now(clock);
+            List<LeaderboardSnapshot> rows = new ArrayList<>(top.size());
+            int rank = 1;
+            for (ZSetOperations.TypedTuple<Object> tuple : top) {
+                rows.add(LeaderboardSnapshot.builder()
+                        .type(window.getType())
+                        .windowId(window.getId())
+                        .rank(rank++)
+                        .userId(Long.parseLong(tuple.getValue().toString().replace("user:", "")))
+                        .score(tuple.getScore() != null ? tuple.getScore().longValue() : 0L)
+                        .createdAt(createdAt)
+                        .build());
+            }
+            snapshotRepository.saveAll(rows);
+            log.info("Leaderboard window {} {} snapshotted: top {}", window.getType(), window.getId(), rows.size());
+            return true;
+        } catch (RuntimeException e) {
+            // novbeti rollover yeniden cehd etsin
+            redisTemplate.delete(marker);
+            throw e;
+        }
+    }
+
+    /**
+     * Kohne formatli daily/weekly key-lerin TTL-i yox idi: grace qeder sonra silinsinler.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void expireLegacyKeys() {
+        if (!expireLegacyKeys) {
+            return;
+        }
+        int expired = 0;
+        for (String pattern : LEGACY_KEY_PATTERNS) {
+            try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(SCAN_BATCH_SIZE).build())) {
+                while (cursor.hasNext()) {
+                    String key = cursor.next();
+                    Long ttl = redisTemplate.getExpire(key);
+                    if (ttl != null && ttl == -1 && Boolean.TRUE.equals(redisTemplate.expire(key, grace))) {
+                        expired++;
+                    }
+                }
+            }
+        }
+        if (expired > 0) {
+            log.info("Legacy leaderboard keys set to expire in {}: {}", grace, expired);
+        }
+    }
+
+    private LeaderboardWindow windowAt(LeaderboardType type, ZonedDateTime time) {
+        LocalDate day = time.toLocalDate();
+        LocalDate start;
+        LocalDate end;
+        String id;
+        switch (type) {
+            case DAILY -> {
+                start = day;
+                end = day.plusDays(1);
+                id = day.toString();
+            }
+            case WEEKLY -> {
+                start = day.with(DayOfWeek.MONDAY);
+                end = start.plusWeeks(1);
+                id = String.format("%d-W%02d", start.get(IsoFields.WEEK_BASED_YEAR), start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            }
+            case MONTHLY -> {
+                start = day.withDayOfMonth(1);
+                end = start.plusMonths(1);
+                id = YearMonth.from(day).toString();
+            }
+            case SEASON -> {
+                long index = Math.floorDiv(ChronoUnit.DAYS.between(seasonStart, day), 7L * seasonLengthWeeks);
+                start = seasonStart.plusWeeks(index * seasonLengthWeeks);
+                end = start.plusWeeks(seasonLengthWeeks);
+                id = "S" + (index + 1);
+            }
+            default -> throw new IllegalArgumentException(type + " leaderboard has no time windows");
+        }
+        ZonedDateTime startAt = start.atStartOfDay(clock.getZone());
+        ZonedDateTime endAt = end.atStartOfDay(clock.getZone());
+        return LeaderboardWindow.builder()
+                .type(type)
+                .id(id)
+                .key(WINDOW_KEY_PREFIX + type.name().toLowerCase() + ":" + id)
+                .start(startAt)
+                .end(endAt)
+                .expireAt(endAt.plus(grace).toInstant())
+                .build();
+    }
+}
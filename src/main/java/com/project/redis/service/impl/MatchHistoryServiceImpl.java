@@ -0,0 +1,179 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.dto.response.MatchHistoryEntry;
+import com.project.redis.dto.response.MatchHistoryPage;
+import com.project.redis.repository.MatchHistoryRepository;
+import com.project.redis.service.IMatchHistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Match tarixcesi. Son match-lar matches:user:{id} list-inde (en yeni evvelde) tam saxlanir, ona gore ilk sehifeler
+ * DB-ye getmeden Redis-den verilir ve write-behind-de gozleyen match-lar da gorunur.
+ * Redis sehifeni tam dolduramirsa (derin sehife ve ya kohne format) keyset sorgusu ile DB-den oxunur.
+ */
+@Service
+@Slf4j
+public class MatchHistoryServiceImpl implements IMatchHistoryService {
+    private static final String HISTORY_KEY_PREFIX = "matches:user:";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String CSV_HEADER = "id,game_id,opponent_id,result,score,duration,created_at\n";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MatchHistoryRepository matchHistoryRepository;
+    private final int redisSize;
+    private final int exportFetchSize;
+
+    public MatchHistoryServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                   MatchHistoryRepository matchHistoryRepository,
+                                   @Value("${match-history.redis-size:100}") int redisSize,
+                                   @Value("${match-history.export-fetch-size:500}") int exportFetchSize) {
+        this.redisTemplate = redisTemplate;
+        this.matchHistoryRepository = matchHistoryRepository;
+        this.redisSize = redisSize;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    @Override
+    public void record(PendingMatch match) {
+        String key = HISTORY_KEY_PREFIX + match.getUserId();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForList().leftPush(key, match);
+                operations.opsForList().trim(key, 0, redisSize - 1);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public MatchHistoryPage getHistory(Long userId, LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<MatchHistoryEntry> cached = readCached(userId, beforeCreatedAt, beforeId, size);
+        if (cached != null) {
+            return toPage(cached, size, true);
+        }
+        log.debug("Match history cache MISS: user:{}, before {}/{}", userId, beforeCreatedAt, beforeId);
+        return toPage(matchHistoryRepository.findPage(userId, beforeCreatedAt, beforeId, size), size, false);
+    }
+
+    @Override
+    public List<MatchHistoryEntry> getHistoryInRange(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+        return matchHistoryRepository.findRange(userId, from, to, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Setirler DB cursor-undan birbasa writer-e yazilir. Write-behind-de hele gozleyen match-lar flush-dan sonra dusur.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public int exportHistory(Long userId, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        int[] written = {0};
+        try {
+            matchHistoryRepository.streamAll(userId, exportFetchSize, entry -> {
+                try {
+                    writer.write(toCsv(entry));
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return written[0];
+    }
+
+    /**
+     * Yeni match hele write-behind-de ola biler, ona gore evvel Redis list-ine baxilir.
+     */
+    @Override
+    public boolean ownsMatch(Long userId, Long matchId) {
+        List<Object> values = redisTemplate.opsForList().range(HISTORY_KEY_PREFIX + userId, 0, redisSize - 1);
+        if (values != null) {
+            for (Object value : values) {
+                if (value instanceof PendingMatch match && matchId.equals(match.getId())) {
+                    return true;
+                }
+            }
+        }
+        return matchHistoryRepository.existsForUser(userId, matchId);
+    }
+
+    /**
+     * Cursor-dan kohne size match Redis list-inde varsa onlari qaytarir, yoxsa null (DB-ye gedilir).
+     */
+    private List<MatchHistoryEntry> readCached(Long userId, LocalDateTime beforeCreatedAt, Long beforeId, int size) {
+        List<Object> values = redisTemplate.opsForList().range(HISTORY_KEY_PREFIX + userId, 0, redisSize - 1);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        List<MatchHistoryEntry> entries = new ArrayList<>(size);
+        for (Object value : values) {
+            // kohne format (match:{id} reference) tam data saxlamir
+            if (!(value instanceof PendingMatch match)) {
+                return null;
+            }
+            if (!isBefore(match, beforeCreatedAt, beforeId)) {
+                continue;
+            }
+            entries.add(toEntry(match));
+            if (entries.size() == size) {
+                return entries;
+            }
+        }
+        return null;
+    }
+
+    private boolean isBefore(PendingMatch match, LocalDateTime beforeCreatedAt, Long beforeId) {
+        if (beforeCreatedAt == null || beforeId == null) {
+            return true;
+        }
+        int compare = match.getCreatedAt().compareTo(beforeCreatedAt);
+        return compare < 0 || (compare == 0 && match.getId() < beforeId);
+    }
+
+    private MatchHistoryPage toPage(List<MatchHistoryEntry> entries, int size, boolean fromCache) {
+        MatchHistoryEntry last = entries.size() == size ? entries.get(entries.size() - 1) : null;
+        return MatchHistoryPage.builder()
+                .entries(entries)
+                .nextBeforeCreatedAt(last != null ? last.getCreatedAt() : null)
+                .nextBeforeId(last != null ? last.getMatchId() : null)
+                .fromCache(fromCache)
+                .build();
+    }
+
+    private MatchHistoryEntry toEntry(PendingMatch match) {
+        return MatchHistoryEntry.builder()
+                .matchId(match.getId())
+                .gameId(match.getGameId())
+                .opponentId(match.getOpponentId())
+                .result(match.getResult())
+                .score(match.getScore())
+                .duration(match.getDuration())
+                .createdAt(match.getCreatedAt())
+                .build();
+    }
+
+    private String toCsv(MatchHistoryEntry entry) {
+        return entry.getMatchId() + "," + entry.getGameId() + "," + (entry.getOpponentId() != null ? entry.getOpponentId() : "")
+                + "," + entry.getResult() + "," + entry.getScore() + "," + entry.getDuration() + "," + entry.getCreatedAt() + "\n";
+    }
+}
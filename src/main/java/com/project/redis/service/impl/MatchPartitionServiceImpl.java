@@ -0,0 +1,88 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.repository.MatchPartitionRepository;
+import com.project.redis.service.IMatchPartitionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * matches partition-larinin heyat dovru. Cari ay + months-ahead ay evvelceden yaradilir ki insert-ler
+ * matches_default-a dusmesin; retention-months-dan kohne aylar xulase cedveline yigilib drop olunur.
+ * Ona gore aktiv partition-larin sayi ve olcusu tarixce boyudukce sabit qalir.
+ */
+@Service
+@Slf4j
+public class MatchPartitionServiceImpl implements IMatchPartitionService {
+    private final MatchPartitionRepository matchPartitionRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public MatchPartitionServiceImpl(MatchPartitionRepository matchPartitionRepository,
+                                     @Value("${matches.partitions.months-ahead:3}") int monthsAhead,
+                                     @Value("${matches.archive.retention-months:12}") int retentionMonths) {
+        this.matchPartitionRepository = matchPartitionRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        ensurePartitions();
+    }
+
+    @Override
+    @Scheduled(cron = "${matches.partitions.cron:0 0 3 * * *}")
+    public int ensurePartitions() {
+        List<YearMonth> existing = matchPartitionRepository.findMonthlyPartitions();
+        YearMonth current = YearMonth.now();
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (existing.contains(month)) {
+                continue;
+            }
+            try {
+                matchPartitionRepository.createMonthlyPartition(month);
+                created++;
+            } catch (DataAccessException e) {
+                // matches_default-da bu aya aid setir varsa partition yaradila bilmez
+                log.error("Match partition could not be created for {}", month, e);
+            }
+        }
+        if (created > 0) {
+            log.info("Match partitions created: {}", created);
+        }
+        return created;
+    }
+
+    @Override
+    @Scheduled(cron = "${matches.archive.cron:0 30 3 1 * *}")
+    public int archiveExpiredPartitions() {
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        int archived = 0;
+        for (YearMonth month : matchPartitionRepository.findMonthlyPartitions()) {
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+            int summaries = matchPartitionRepository.archiveMonthlyPartition(month);
+            if (summaries >= 0) {
+                archived++;
+                log.info("Match partition {} archived into {} summary rows", month, summaries);
+            }
+        }
+        return archived;
+    }
+
+    @Override
+    public List<YearMonth> getPartitions() {
+        return matchPartitionRepository.findMonthlyPartitions();
+    }
+}
@@ -0,0 +1,348 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.enums.MatchResult;
+import com.project.redis.repository.MatchBatchRepository;
+import com.project.redis.service.IMatchWriteBehindService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bitmis match-lar evvelce Redis stream-e (stream:matches) yazilir, API cavabi DB-ni gozlemir.
+ * Scheduled writer consumer group ile stream-i oxuyur, batch-i bir multi-row INSERT ile yazir, sonra XACK + XDEL edir.
+ * Yazilmamis (ack olunmamis) entry-ler restartdan sonra ve xeta olanda yeniden oxunur.
+ * Consumer adi restartlar arasi sabitdir (property ve ya host adi), pid ile deyismir. Basqa consumer-in (coken node)
+ * claim-idle-ms-den cox gozleyen entry-leri startup-da ve periodik XCLAIM ile bu consumer-e kecir ve yazilir.
+ * Yazila bilmeyen pis record stream:matches:dead-e kecir, qalan match-larin yazilmasini saxlamir.
+ */
+@Service
+@Slf4j
+public class MatchWriteBehindServiceImpl implements IMatchWriteBehindService {
+    private static final String STREAM_KEY = "stream:matches";
+    private static final String GROUP = "match-writers";
+    private static final String DEAD_LETTER_KEY = "stream:matches:dead";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MatchBatchRepository matchBatchRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxBacklog;
+    private final String consumerName;
+    private final Duration claimIdle;
+    private final long claimIntervalMs;
+    private final long maxDeliveries;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private volatile boolean ready;
+    // true olanda evvel bu consumer-in ack olunmamis entry-leri yazilir (startup recovery ve xeta sonrasi)
+    private volatile boolean pendingReplay = true;
+
+    private long nextId;
+    private long blockEnd;
+    private long nextClaimAt;
+
+    public MatchWriteBehindServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                       MatchBatchRepository matchBatchRepository,
+                                       @Value("${match.write-behind.enabled:true}") boolean enabled,
+                                       @Value("${match.write-behind.batch-size:500}") int batchSize,
+                                       @Value("${match.write-behind.max-backlog:50000}") long maxBacklog,
+                                       @Value("${match.write-behind.consumer:}") String consumerName,
+                                       @Value("${match.write-behind.claim-idle-ms:60000}") long claimIdleMs,
+                                       @Value("${match.write-behind.claim-interval-ms:30000}") long claimIntervalMs,
+                                       @Value("${match.write-behind.max-deliveries:5}") long maxDeliveries) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.matchBatchRepository = matchBatchRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBacklog = maxBacklog;
+        this.consumerName = consumerName.isBlank() ? hostName() : consumerName;
+        this.claimIdle = Duration.ofMillis(claimIdleMs);
+        this.claimIntervalMs = claimIntervalMs;
+        this.maxDeliveries = maxDeliveries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        matchBatchRepository.alignSequence();
+        if (enabled) {
+            createGroupIfMissing();
+            Long length = stringRedisTemplate.opsForStream().size(STREAM_KEY);
+            backlog.set(length != null ? length : 0L);
+        }
+        ready = true;
+        log.info("Match write-behind started: enabled={}, consumer={}, backlog={}", enabled, consumerName, backlog.get());
+    }
+
+    @Override
+    public synchronized long nextMatchId() {
+        if (nextId >= blockEnd) {
+            nextId = matchBatchRepository.allocateIdBlock();
+            blockEnd = nextId + MatchBatchRepository.ID_ALLOCATION_SIZE;
+        }
+        return nextId++;
+    }
+
+    @Override
+    public void enqueue(PendingMatch match) {
+        if (!enabled || !ready) {
+            matchBatchRepository.insertAll(List.of(match));
+            return;
+        }
+        // back-pressure: writer geri qalibsa bu match birbasa yazilir, caller yavaslayir ve stream boyumur
+        if (backlog.get() >= maxBacklog) {
+            log.warn("Match write-behind backlog full ({}), writing match {} synchronously", backlog.get(), match.getId());
+            matchBatchRepository.insertAll(List.of(match));
+            return;
+        }
+        stringRedisTemplate.opsForStream().add(StreamRecords.newRecord().in(STREAM_KEY).ofMap(toFields(match)));
+        backlog.incrementAndGet();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${match.write-behind.drain-interval-ms:200}")
+    public int drain() {
+        if (!enabled || !ready) {
+            return 0;
+        }
+        int written = 0;
+        try {
+            long now = System.currentTimeMillis();
+            if (now >= nextClaimAt) {
+                claimIdle();
+                nextClaimAt = now + claimIntervalMs;
+            }
+            if (pendingReplay) {
+                // drainFrom yazila bilmeyen entry qalanda bayragi yeniden qoyur
+                pendingReplay = false;
+                written += drainFrom(ReadOffset.from("0"));
+            }
+            int batch;
+            do {
+                batch = drainFrom(ReadOffset.lastConsumed());
+                written += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            pendingReplay = true;
+            log.error("Match write-behind drain failed, will retry pending entries", e);
+        }
+        Long length = stringRedisTemplate.opsForStream().size(STREAM_KEY);
+        backlog.set(length != null ? length : 0L);
+        return written;
+    }
+
+    private int drainFrom(ReadOffset offset) {
+        int written = 0;
+        boolean replay = !offset.equals(ReadOffset.lastConsumed());
+        List<MapRecord<String, Object, Object>> records;
+        int left;
+        do {
+            records = stringRedisTemplate.opsForStream().read(
+                    Consumer.from(GROUP, consumerName),
+                    StreamReadOptions.empty().count(batchSize),
+                    StreamOffset.create(STREAM_KEY, offset));
+            if (records == null || records.isEmpty()) {
+                return written;
+            }
+            int batchWritten = writeBatch(records);
+            written += batchWritten;
+            left = records.size() - batchWritten;
+            if (left > 0) {
+                pendingReplay = true;
+            }
+            // pending oxumada ack olunanlar siyahidan cixir, ona gore "0" ile tekrar oxumaq novbeti hisseni verir.
+            // qalan (yazila bilmeyen) entry varsa tekrar oxuma eyni entry-leri qaytarardi, novbeti drain-e saxlanilir
+        } while (records.size() == batchSize && (!replay || left == 0));
+        return written;
+    }
+
+    /**
+     * Batch bir INSERT ile yazilir. Alinmasa her record ayrica yazilir ki, bir pis match qalanlari saxlamasin.
+     * Ayrica da yazilmayan record dead-letter stream-e kecir, eger: parse olunmur, data xetasi verir
+     * ve ya max-deliveries defe oxunub. Hec bir record yazila bilmirse bu DB xetasi sayilir, hec ne dead-letter olmur.
+     * Qaytarir: ack olunan (yazilan ve ya dead-letter-e kecen) record sayi.
+     */
+    private int writeBatch(List<MapRecord<String, Object, Object>> records) {
+        List<PendingMatch> matches = new ArrayList<>(records.size());
+        List<MapRecord<String, Object, Object>> parsed = new ArrayList<>(records.size());
+        List<RecordId> done = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            try {
+                matches.add(fromFields(record.getValue()));
+                parsed.add(record);
+            } catch (RuntimeException e) {
+                deadLetter(record, e);
+                done.add(record.getId());
+            }
+        }
+        if (!matches.isEmpty()) {
+            try {
+                matchBatchRepository.insertAll(matches);
+                parsed.forEach(record -> done.add(record.getId()));
+            } catch (RuntimeException batchError) {
+                log.warn("Match write-behind batch of {} failed, writing records one by one: {}", matches.size(), batchError.getMessage());
+                done.addAll(writeOneByOne(parsed, matches, batchError));
+            }
+        }
+        acknowledge(done);
+        return done.size();
+    }
+
+    private List<RecordId> writeOneByOne(List<MapRecord<String, Object, Object>> records, List<PendingMatch> matches,
+                                         RuntimeException batchError) {
+        List<RecordId> done = new ArrayList<>(records.size());
+        Map<MapRecord<String, Object, Object>, RuntimeException> failed = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                matchBatchRepository.insertAll(List.of(matches.get(i)));
+                done.add(records.get(i).getId());
+            } catch (RuntimeException e) {
+                failed.put(records.get(i), e);
+            }
+        }
+        boolean databaseDown = done.isEmpty() && failed.values().stream().noneMatch(e -> e instanceof DataIntegrityViolationException);
+        if (databaseDown) {
+            // retry novbeti drain-de; delivery count bu muddetde artsa da DB qalxanda record-lar yazilir
+            throw batchError;
+        }
+        for (Map.Entry<MapRecord<String, Object, Object>, RuntimeException> entry : failed.entrySet()) {
+            if (entry.getValue() instanceof DataIntegrityViolationException
+                    || deliveryCount(entry.getKey().getId()) >= maxDeliveries) {
+                deadLetter(entry.getKey(), entry.getValue());
+                done.add(entry.getKey().getId());
+            }
+        }
+        return done;
+    }
+
+    private long deliveryCount(RecordId id) {
+        PendingMessages pending = stringRedisTemplate.opsForStream().pending(STREAM_KEY, GROUP, Range.closed(id.getValue(), id.getValue()), 1);
+        return pending.isEmpty() ? 0 : pending.get(0).getTotalDeliveryCount();
+    }
+
+    private void deadLetter(MapRecord<String, Object, Object> record, RuntimeException e) {
+        Map<String, String> fields = new HashMap<>();
+        record.getValue().forEach((key, value) -> fields.put(String.valueOf(key), String.valueOf(value)));
+        fields.put("sourceId", record.getId().getValue());
+        fields.put("error", String.valueOf(e.getMessage()));
+        stringRedisTemplate.opsForStream().add(StreamRecords.newRecord().in(DEAD_LETTER_KEY).ofMap(fields));
+        log.error("Match write-behind moved entry {} to {}: {}", record.getId(), DEAD_LETTER_KEY, e.getMessage());
+    }
+
+    private void acknowledge(List<RecordId> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        RecordId[] array = ids.toArray(RecordId[]::new);
+        stringRedisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, array);
+        stringRedisTemplate.opsForStream().delete(STREAM_KEY, array);
+    }
+
+    /**
+     * Basqa consumer-lerin claim-idle-ms-den cox ack olunmamis qalan entry-lerini (coken ve ya adi deyisen node) goturur.
+     * XCLAIM min-idle ile gedir: bu arada sahibi entry-ni yeniden oxuyubsa claim alinmir. Goturulenler oz PEL-den yazilir.
+     */
+    private int claimIdle() {
+        PendingMessages idle = stringRedisTemplate.opsForStream().pending(STREAM_KEY, GROUP, Range.unbounded(), batchSize, claimIdle);
+        RecordId[] ids = idle.stream()
+                .filter(message -> !consumerName.equals(message.getConsumerName()))
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+        if (ids.length == 0) {
+            return 0;
+        }
+        List<MapRecord<String, Object, Object>> claimed = stringRedisTemplate.opsForStream()
+                .claim(STREAM_KEY, GROUP, consumerName, claimIdle, ids);
+        if (!claimed.isEmpty()) {
+            pendingReplay = true;
+            log.warn("Match write-behind claimed {} idle entries from other consumers", claimed.size());
+        }
+        return claimed.size();
+    }
+
+    private String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("match.write-behind.consumer must be set when the host name cannot be resolved", e);
+        }
+    }
+
+    private void createGroupIfMissing() {
+        try {
+            stringRedisTemplate.execute((RedisCallback<String>) (RedisConnection connection) ->
+                    connection.streamCommands().xGroupCreate(STREAM_KEY.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true));
+        } catch (RuntimeException e) {
+            if (!isBusyGroupError(e)) {
+                throw e;
+            }
+        }
+    }
+
+    private boolean isBusyGroupError(Throwable e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current.getMessage() != null && current.getMessage().contains("BUSYGROUP")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, String> toFields(PendingMatch match) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("id", String.valueOf(match.getId()));
+        fields.put("userId", String.valueOf(match.getUserId()));
+        fields.put("gameId", String.valueOf(match.getGameId()));
+        if (match.getOpponentId() != null) {
+            fields.put("opponentId", String.valueOf(match.getOpponentId()));
+        }
+        fields.put("result", match.getResult().name());
+        fields.put("score", String.valueOf(match.getScore()));
+        fields.put("duration", String.valueOf(match.getDuration()));
+        fields.put("createdAt", match.getCreatedAt().toString());
+        return fields;
+    }
+
+    private PendingMatch fromFields(Map<Object, Object> fields) {
+        Object opponentId = fields.get("opponentId");
+        return PendingMatch.builder()
+                .id(Long.parseLong((String) fields.get("id")))
+                .userId(Long.parseLong((String) fields.get("userId")))
+                .gameId(Long.parseLong((String) fields.get("gameId")))
+                .opponentId(opponentId != null ? Long.parseLong((String) opponentId) : null)
+                .result(MatchResult.valueOf((String) fields.get("result")))
+                .score(Integer.parseInt((String) fields.get("score")))
+                .duration(Integer.parseInt((String) fields.get("duration")))
+                .createdAt(LocalDateTime.parse((String) fields.get("createdAt")))
+                .build();
+    }
+}
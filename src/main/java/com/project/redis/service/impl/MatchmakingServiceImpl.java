@@ -0,0 +1,372 @@
+package com.project.redis.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.redis.dto.response.MatchLobby;
+import com.project.redis.dto.response.MatchmakingStatsResponse;
+import com.project.redis.exception.GameNotFoundException;
+import com.project.redis.model.Game;
+import com.project.redis.repository.GameRepository;
+import com.project.redis.service.IMatchmakingService;
+import com.project.redis.service.IPresenceService;
+import com.project.redis.service.IRatingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Oyun ucun matchmaking novbesi.
+ * <ul>
+ *     <li>mm:queue:{gameId} ZSET: score = skill (oyunun Glicko-2 reytinqi), reytinq araligi ile namized axtarmaq ucun</li>
+ *     <li>mm:wait:{gameId} ZSET: score = novbeye girme vaxti, en cox gozleyenler anchor olur</li>
+ * </ul>
+ * Matcher her anchor ucun reytinq band-i gozleme muddetine gore genislenir (base + widen * saniye, max-a qeder)
+ * ve band daxilinde en yaxin minPlayers..maxPlayers oyuncunu secir. Secilen oyuncular Lua ile atomik claim olunur:
+ * biri artiq basqa node terefinden goturulubse claim imtina edir, ona gore matcher bir nece node-da paralel isleye biler.
+ * Offline oyuncular (presence) secilmir, max-wait-den cox gozleyenler novbeden cixarilir, novbesi bosalan oyun mm:games-den silinir.
+ */
+@Service
+@Slf4j
+public class MatchmakingServiceImpl implements IMatchmakingService {
+    private static final String QUEUE_KEY_PREFIX = "mm:queue:";
+    private static final String WAIT_KEY_PREFIX = "mm:wait:";
+    private static final String GAMES_KEY = "mm:games";
+    private static final String ASSIGNMENT_KEY_PREFIX = "mm:assignment:";
+    private static final String LOBBY_KEY_PREFIX = "mm:lobby:";
+
+    // max-wait-den kohne `batch` entry-ni her iki ZSET-den silir; novbe bosdursa oyunu mm:games-den cixarir.
+    // enqueue SADD-i ZADD-dan sonra edir, ona gore bos yoxlamasi ile yaris yeni gelen oyunu itirmir
+    private static final DefaultRedisScript<Long> EXPIRE_SCRIPT = new DefaultRedisScript<>("""
+            local stale = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, member in ipairs(stale) do
+                redis.call('ZREM', KEYS[1], member)
+                redis.call('ZREM', KEYS[2], member)
+            end
+            if redis.call('ZCARD', KEYS[2]) == 0 then
+                redis.call('SREM', KEYS[3], ARGV[3])
+            end
+            return #stale
+            """, Long.class);
+
+    // butun oyuncular hele novbededirse hamisini cixarir ve assignment yazir, yoxsa hec neye toxunmur
+    private static final DefaultRedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            for i = 4, #ARGV do
+                if not redis.call('ZSCORE', KEYS[2], ARGV[i]) then
+                    return 0
+                end
+            end
+            for i = 4, #ARGV do
+                redis.call('ZREM', KEYS[1], ARGV[i])
+                redis.call('ZREM', KEYS[2], ARGV[i])
+                redis.call('SET', ARGV[3] .. ARGV[i], ARGV[1], 'EX', ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final GameRepository gameRepository;
+    private final IRatingService ratingService;
+    private final IPresenceService presenceService;
+    private final double baseBand;
+    private final double bandWidenPerSecond;
+    private final double maxBand;
+    private final int anchorsPerRun;
+    private final int candidateLimit;
+    private final long assignmentTtlSeconds;
+    private final long maxWaitMillis;
+    // oyuncu limitleri nadir deyisir, her matcher run-da DB-ye getmemek ucun
+    private final Cache<Long, Game> games = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong lobbiesFormed = new AtomicLong();
+    private final AtomicLong playersMatched = new AtomicLong();
+    private final AtomicLong claimConflicts = new AtomicLong();
+    private final AtomicLong expiredEntries = new AtomicLong();
+    private final AtomicLong matcherRuns = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+
+    public MatchmakingServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                  RedisTemplate<String, Object> redisTemplate,
+                                  GameRepository gameRepository,
+                                  IRatingService ratingService,
+                                  IPresenceService presenceService,
+                                  @Value("${matchmaking.band.base:100}") double baseBand,
+                                  @Value("${matchmaking.band.widen-per-second:25}") double bandWidenPerSecond,
+                                  @Value("${matchmaking.band.max:1000}") double maxBand,
+                                  @Value("${matchmaking.anchors-per-run:200}") int anchorsPerRun,
+                                  @Value("${matchmaking.candidate-limit:50}") int candidateLimit,
+                                  @Value("${matchmaking.assignment-ttl-seconds:120}") long assignmentTtlSeconds,
+                                  @Value("${matchmaking.max-wait-seconds:300}") long maxWaitSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTemplate = redisTemplate;
+        this.gameRepository = gameRepository;
+        this.ratingService = ratingService;
+        this.presenceService = presenceService;
+        this.baseBand = baseBand;
+        this.bandWidenPerSecond = bandWidenPerSecond;
+        this.maxBand = maxBand;
+        this.anchorsPerRun = anchorsPerRun;
+        this.candidateLimit = candidateLimit;
+        this.assignmentTtlSeconds = assignmentTtlSeconds;
+        this.maxWaitMillis = maxWaitSeconds * 1000;
+    }
+
+    @Override
+    public void enqueue(Long userId, Long gameId) throws GameNotFoundException {
+        Game game = getGame(gameId);
+        if (game.getMaxPlayers() < 2) {
+            throw new IllegalStateException("Game is single player: " + gameId);
+        }
+        String member = String.valueOf(userId);
+        double rating = lookupRating(userId, gameId);
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.delete(ASSIGNMENT_KEY_PREFIX + userId);
+                operations.opsForZSet().addIfAbsent(QUEUE_KEY_PREFIX + gameId, member, rating);
+                operations.opsForZSet().addIfAbsent(WAIT_KEY_PREFIX + gameId, member, now);
+                operations.opsForSet().add(GAMES_KEY, String.valueOf(gameId));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public boolean dequeue(Long userId, Long gameId) {
+        String member = String.valueOf(userId);
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForZSet().remove(QUEUE_KEY_PREFIX + gameId, member);
+                operations.opsForZSet().remove(WAIT_KEY_PREFIX + gameId, member);
+                return null;
+            }
+        });
+        return results.get(1) instanceof Number removed && removed.longValue() > 0;
+    }
+
+    @Override
+    public MatchLobby getAssignment(Long userId) {
+        String lobbyId = stringRedisTemplate.opsForValue().get(ASSIGNMENT_KEY_PREFIX + userId);
+        if (lobbyId == null) {
+            return null;
+        }
+        return (MatchLobby) redisTemplate.opsForValue().get(LOBBY_KEY_PREFIX + lobbyId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${matchmaking.matcher-interval-ms:500}")
+    public int runMatcher() {
+        matcherRuns.incrementAndGet();
+        Set<String> gameIds = stringRedisTemplate.opsForSet().members(GAMES_KEY);
+        if (gameIds == null || gameIds.isEmpty()) {
+            return 0;
+        }
+        int formed = 0;
+        for (String gameId : gameIds) {
+            try {
+                formed += matchGame(getGame(Long.parseLong(gameId)));
+            } catch (GameNotFoundException e) {
+                log.warn("Matchmaking queue for unknown game {}, skipping", gameId);
+            }
+        }
+        return formed;
+    }
+
+    @Override
+    public MatchmakingStatsResponse getStats() {
+        Set<String> gameIds = stringRedisTemplate.opsForSet().members(GAMES_KEY);
+        List<String> ids = gameIds != null ? new ArrayList<>(gameIds) : List.of();
+        List<Object> sizes = ids.isEmpty() ? List.of() : stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (String gameId : ids) {
+                    operations.opsForZSet().zCard(WAIT_KEY_PREFIX + gameId);
+                }
+                return null;
+            }
+        });
+        long queued = sizes.stream().mapToLong(size -> size != null ? ((Number) size).longValue() : 0L).sum();
+        long matched = playersMatched.get();
+        double uptimeSeconds = Math.max(1.0, (System.currentTimeMillis() - startedAt) / 1000.0);
+        return MatchmakingStatsResponse.builder()
+                .queuedPlayers(queued)
+                .lobbiesFormed(lobbiesFormed.get())
+                .playersMatched(matched)
+                .claimConflicts(claimConflicts.get())
+                .expiredPlayers(expiredEntries.get())
+                .matcherRuns(matcherRuns.get())
+                .lobbiesPerSecond(lobbiesFormed.get() / uptimeSeconds)
+                .averageTimeToMatchMs(matched > 0 ? (double) totalWaitMs.get() / matched : 0.0)
+                .maxTimeToMatchMs(maxWaitMs.get())
+                .build();
+    }
+
+    private int matchGame(Game game) {
+        Long gameId = game.getId();
+        String queueKey = QUEUE_KEY_PREFIX + gameId;
+        String waitKey = WAIT_KEY_PREFIX + gameId;
+        int minSize = Math.max(2, game.getMinPlayers());
+        int maxSize = Math.max(minSize, game.getMaxPlayers());
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+        long now = System.currentTimeMillis();
+
+        Long expired = stringRedisTemplate.execute(EXPIRE_SCRIPT, List.of(queueKey, waitKey, GAMES_KEY),
+                String.valueOf(now - maxWaitMillis), String.valueOf(anchorsPerRun), String.valueOf(gameId));
+        if (expired != null && expired > 0) {
+            expiredEntries.addAndGet(expired);
+            log.debug("Matchmaking queue for game {}: {} player expired after max wait", gameId, expired);
+        }
+
+        Set<ZSetOperations.TypedTuple<String>> anchors = zSet.rangeWithScores(waitKey, 0, anchorsPerRun - 1);
+        if (anchors == null || anchors.size() < minSize) {
+            return 0;
+        }
+        // bu run-da online yoxlanmis user-ler; yeni namizedler ucun bir ZMSCORE ile tamamlanir
+        Map<String, Boolean> online = new HashMap<>();
+        resolveOnline(online, anchors);
+        Set<String> claimed = new HashSet<>();
+        int formed = 0;
+        for (ZSetOperations.TypedTuple<String> anchor : anchors) {
+            String anchorId = anchor.getValue();
+            if (anchorId == null || claimed.contains(anchorId) || !online.get(anchorId)) {
+                continue;
+            }
+            Double rating = zSet.score(queueKey, anchorId);
+            if (rating == null) {
+                continue;
+            }
+            double waitedSeconds = (now - anchor.getScore()) / 1000.0;
+            double band = Math.min(maxBand, baseBand + bandWidenPerSecond * waitedSeconds);
+            Set<ZSetOperations.TypedTuple<String>> candidates = zSet.rangeByScoreWithScores(queueKey, rating - band, rating + band, 0, candidateLimit);
+            if (candidates == null) {
+                continue;
+            }
+            resolveOnline(online, candidates);
+            List<ZSetOperations.TypedTuple<String>> pool = new ArrayList<>();
+            for (ZSetOperations.TypedTuple<String> candidate : candidates) {
+                if (!claimed.contains(candidate.getValue()) && !anchorId.equals(candidate.getValue())
+                        && online.get(candidate.getValue())) {
+                    pool.add(candidate);
+                }
+            }
+            if (pool.size() + 1 < minSize) {
+                continue;
+            }
+            pool.sort(Comparator.comparingDouble(candidate -> Math.abs(candidate.getScore() - rating)));
+            List<ZSetOperations.TypedTuple<String>> picked = new ArrayList<>();
+            picked.add(ZSetOperations.TypedTuple.of(anchorId, rating));
+            picked.addAll(pool.subList(0, Math.min(maxSize - 1, pool.size())));
+            if (claim(gameId, queueKey, waitKey, picked, now)) {
+                picked.forEach(player -> claimed.add(player.getValue()));
+                formed++;
+            } else {
+                claimConflicts.incrementAndGet();
+            }
+        }
+        return formed;
+    }
+
+    private boolean claim(Long gameId, String queueKey, String waitKey, List<ZSetOperations.TypedTuple<String>> players, long now) {
+        List<String> members = players.stream().map(ZSetOperations.TypedTuple::getValue).toList();
+        List<Double> enqueuedAt = stringRedisTemplate.opsForZSet().score(waitKey, members.toArray());
+        String lobbyId = UUID.randomUUID().toString();
+        List<String> args = new ArrayList<>(members.size() + 3);
+        args.add(lobbyId);
+        args.add(String.valueOf(assignmentTtlSeconds));
+        args.add(ASSIGNMENT_KEY_PREFIX);
+        args.addAll(members);
+        Long claimed = stringRedisTemplate.execute(CLAIM_SCRIPT, List.of(queueKey, waitKey), args.toArray());
+        if (claimed == null || claimed == 0L) {
+            return false;
+        }
+
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double sum = 0;
+        for (ZSetOperations.TypedTuple<String> player : players) {
+            min = Math.min(min, player.getScore());
+            max = Math.max(max, player.getScore());
+            sum += player.getScore();
+        }
+        MatchLobby lobby = MatchLobby.builder()
+                .lobbyId(lobbyId)
+                .gameId(gameId)
+                .playerIds(members.stream().map(Long::valueOf).toList())
+                .averageRating(sum / players.size())
+                .ratingSpread(max - min)
+                .createdAt(LocalDateTime.now())
+                .build();
+        redisTemplate.opsForValue().set(LOBBY_KEY_PREFIX + lobbyId, lobby, Duration.ofSeconds(assignmentTtlSeconds));
+
+        lobbiesFormed.incrementAndGet();
+        playersMatched.addAndGet(members.size());
+        for (Double queuedAt : enqueuedAt) {
+            if (queuedAt != null) {
+                long waited = now - queuedAt.longValue();
+                totalWaitMs.addAndGet(waited);
+                maxWaitMs.accumulateAndGet(waited, Math::max);
+            }
+        }
+        log.debug("Lobby {} formed for game {}: {}", lobbyId, gameId, members);
+        return true;
+    }
+
+    private void resolveOnline(Map<String, Boolean> online, Set<ZSetOperations.TypedTuple<String>> players) {
+        List<Long> unknown = new ArrayList<>();
+        for (ZSetOperations.TypedTuple<String> player : players) {
+            if (player.getValue() != null && !online.containsKey(player.getValue())) {
+                unknown.add(Long.valueOf(player.getValue()));
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Set<Long> present = presenceService.filterOnline(unknown);
+        for (Long userId : unknown) {
+            online.put(String.valueOf(userId), present.contains(userId));
+        }
+    }
+
+    private double lookupRating(Long userId, Long gameId) {
+        return ratingService.getRating(userId, gameId).getRating();
+    }
+
+    private Game getGame(Long gameId) throws GameNotFoundException {
+        Game cached = games.getIfPresent(gameId);
+        if (cached != null) {
+            return cached;
+        }
+        Game game = gameRepository.findById(gameId).orElseThrow(() -> new GameNotFoundException("Game not found!: " + gameId));
+        games.put(gameId, game);
+        return game;
+    }
+}
@@ -0,0 +1,269 @@
+package com.project.redis.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.redis.service.IPresenceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Heartbeat esasli online presence.
+ * <ul>
+ *     <li>presence:online ZSET: member userId, score son heartbeat vaxti (ms). ZCARD O(1) online sayidir</li>
+ *     <li>presence:lobby:{gameId} ZSET: oyunun lobby-sindeki user-ler, presence:user-lobby hash-i user-in hansi lobby-de oldugunu saxlayir</li>
+ *     <li>presence:hll:{deqiqe} HyperLogLog: son N deqiqede aktiv user-lerin texmini sayi (12KB/bucket)</li>
+ * </ul>
+ * Authenticated her request touch ile user-i (ve oldugu lobby-ni) yenileyir, node-da user basina touch-interval-da bir defe.
+ * Heartbeat gelmeyen user-leri sweep job kicik batch-lerle silir, Redis-i uzun muddet bloklamir. Aktiv oyun sessiyasi
+ * (active-session:user:{id}) olan user silinmir, yenilenir: oyun zamani request gondermeyen oyuncu lobby-den dusmur.
+ */
+@Service
+@Slf4j
+public class PresenceServiceImpl implements IPresenceService {
+    private static final String ONLINE_KEY = "presence:online";
+    private static final String USER_LOBBY_KEY = "presence:user-lobby";
+    private static final String LOBBY_KEY_PREFIX = "presence:lobby:";
+    private static final String HLL_KEY_PREFIX = "presence:hll:";
+    // GameServiceImpl-in oyun sessiyasi key-i
+    private static final String ACTIVE_SESSION_KEY_PREFIX = "active-session:user:";
+    private static final int MAX_HLL_WINDOW_MINUTES = 60;
+
+    // online + lobby + HLL bir round trip-de; user basqa lobby-ye kecibse kohnesinden cixarilir
+    private static final DefaultRedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>("""
+            local previous = redis.call('HGET', KEYS[2], ARGV[1])
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('PFADD', KEYS[3], ARGV[1])
+            redis.call('EXPIRE', KEYS[3], ARGV[4])
+            if previous and previous ~= ARGV[3] then
+                redis.call('ZREM', ARGV[5] .. previous, ARGV[1])
+            end
+            if ARGV[3] ~= '' then
+                redis.call('ZADD', ARGV[5] .. ARGV[3], ARGV[2], ARGV[1])
+                redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+            elseif previous then
+                redis.call('HDEL', KEYS[2], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    // lobby-ni deyismeden online ve lobby score-larini yenileyir
+    private static final DefaultRedisScript<Long> TOUCH_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('PFADD', KEYS[3], ARGV[1])
+            redis.call('EXPIRE', KEYS[3], ARGV[3])
+            local lobby = redis.call('HGET', KEYS[2], ARGV[1])
+            if lobby then
+                redis.call('ZADD', ARGV[4] .. lobby, 'XX', ARGV[2], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> OFFLINE_SCRIPT = new DefaultRedisScript<>("""
+            local lobby = redis.call('HGET', KEYS[2], ARGV[1])
+            if lobby then
+                redis.call('ZREM', ARGV[2] .. lobby, ARGV[1])
+                redis.call('HDEL', KEYS[2], ARGV[1])
+            end
+            return redis.call('ZREM', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    // en kohne `batch` stale user-e baxir: aktiv oyun sessiyasi olanlari ARGV[4] (indi) ile yenileyir, qalanlari silir.
+    // Cavab: {silinen, baxilan}
+    private static final DefaultRedisScript<List> SWEEP_SCRIPT = new DefaultRedisScript<>("""
+            local stale = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            local removed = 0
+            for _, member in ipairs(stale) do
+                local lobby = redis.call('HGET', KEYS[2], member)
+                if redis.call('EXISTS', ARGV[5] .. member) == 1 then
+                    redis.call('ZADD', KEYS[1], ARGV[4], member)
+                    if lobby then
+                        redis.call('ZADD', ARGV[3] .. lobby, 'XX', ARGV[4], member)
+                    end
+                else
+                    if lobby then
+                        redis.call('ZREM', ARGV[3] .. lobby, member)
+                        redis.call('HDEL', KEYS[2], member)
+                    end
+                    redis.call('ZREM', KEYS[1], member)
+                    removed = removed + 1
+                end
+            end
+            return {removed, #stale}
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long timeoutMillis;
+    private final int sweepBatchSize;
+    private final int sweepMaxBatches;
+    // userId -> son touch vaxti, entry touch-interval-dan sonra dusur ve novbeti request yeniden touch edir
+    private final Cache<Long, Long> touched;
+
+    public PresenceServiceImpl(StringRedisTemplate stringRedisTemplate,
+                               @Value("${presence.timeout-seconds:60}") long timeoutSeconds,
+                               @Value("${presence.sweep-batch-size:500}") int sweepBatchSize,
+                               @Value("${presence.sweep-max-batches:20}") int sweepMaxBatches,
+                               @Value("${presence.touch-interval-seconds:20}") long touchIntervalSeconds,
+                               @Value("${presence.touch-cache-size:100000}") long touchCacheSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.timeoutMillis = timeoutSeconds * 1000;
+        this.sweepBatchSize = sweepBatchSize;
+        this.sweepMaxBatches = sweepMaxBatches;
+        this.touched = Caffeine.newBuilder()
+                .maximumSize(touchCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(touchIntervalSeconds))
+                .build();
+    }
+
+    @Override
+    public void heartbeat(Long userId, Long gameId) {
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.execute(HEARTBEAT_SCRIPT,
+                List.of(ONLINE_KEY, USER_LOBBY_KEY, hllKey(now / 60_000)),
+                String.valueOf(userId),
+                String.valueOf(now),
+                gameId != null ? String.valueOf(gameId) : "",
+                String.valueOf((MAX_HLL_WINDOW_MINUTES + 1) * 60),
+                LOBBY_KEY_PREFIX);
+    }
+
+    @Override
+    public void touch(Long userId) {
+        long now = System.currentTimeMillis();
+        if (touched.asMap().putIfAbsent(userId, now) != null) {
+            return;
+        }
+        stringRedisTemplate.execute(TOUCH_SCRIPT,
+                List.of(ONLINE_KEY, USER_LOBBY_KEY, hllKey(now / 60_000)),
+                String.valueOf(userId),
+                String.valueOf(now),
+                String.valueOf((MAX_HLL_WINDOW_MINUTES + 1) * 60),
+                LOBBY_KEY_PREFIX);
+    }
+
+    @Override
+    public void goOffline(Long userId) {
+        touched.invalidate(userId);
+        stringRedisTemplate.execute(OFFLINE_SCRIPT, List.of(ONLINE_KEY, USER_LOBBY_KEY), String.valueOf(userId), LOBBY_KEY_PREFIX);
+    }
+
+    @Override
+    public boolean isOnline(Long userId) {
+        Double lastSeen = stringRedisTemplate.opsForZSet().score(ONLINE_KEY, String.valueOf(userId));
+        return lastSeen != null && lastSeen >= System.currentTimeMillis() - timeoutMillis;
+    }
+
+    /**
+     * Verilen user-lerden online olanlar, bir ZMSCORE ile.
+     */
+    @Override
+    public Set<Long> filterOnline(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> ids = new ArrayList<>(userIds);
+        List<Double> lastSeen = stringRedisTemplate.opsForZSet()
+                .score(ONLINE_KEY, ids.stream().map(String::valueOf).toArray());
+        long cutoff = System.currentTimeMillis() - timeoutMillis;
+        Set<Long> online = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Double score = lastSeen != null ? lastSeen.get(i) : null;
+            if (score != null && score >= cutoff) {
+                online.add(ids.get(i));
+            }
+        }
+        return online;
+    }
+
+    /**
+     * Deqiq say (ZCARD, O(1)). Stale user-ler en gec timeout + sweep intervali qeder sayilir.
+     */
+    @Override
+    public long getOnlineCount() {
+        Long count = stringRedisTemplate.opsForZSet().zCard(ONLINE_KEY);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Son `minutes` deqiqede heartbeat gonderen unikal user-lerin texmini sayi (HLL, ~0.81% xeta).
+     */
+    @Override
+    public long getApproximateOnlineCount(int minutes) {
+        int window = Math.max(1, Math.min(minutes, MAX_HLL_WINDOW_MINUTES));
+        long currentMinute = System.currentTimeMillis() / 60_000;
+        String[] keys = new String[window];
+        for (int i = 0; i < window; i++) {
+            keys[i] = hllKey(currentMinute - i);
+        }
+        Long count = stringRedisTemplate.opsForHyperLogLog().size(keys);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public long getLobbyCount(Long gameId) {
+        Long count = stringRedisTemplate.opsForZSet().zCard(LOBBY_KEY_PREFIX + gameId);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public Map<Long, Long> getLobbyCounts(Collection<Long> gameIds) {
+        List<Long> ids = new ArrayList<>(gameIds);
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (Long gameId : ids) {
+                    operations.opsForZSet().zCard(LOBBY_KEY_PREFIX + gameId);
+                }
+                return null;
+            }
+        });
+        Map<Long, Long> counts = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object count = results.get(i);
+            counts.put(ids.get(i), count != null ? ((Number) count).longValue() : 0L);
+        }
+        return counts;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${presence.sweep-interval-ms:5000}")
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        String cutoff = String.valueOf(now - timeoutMillis);
+        int removed = 0;
+        for (int batch = 0; batch < sweepMaxBatches; batch++) {
+            List<?> result = stringRedisTemplate.execute(SWEEP_SCRIPT, List.of(ONLINE_KEY, USER_LOBBY_KEY),
+                    cutoff, String.valueOf(sweepBatchSize), LOBBY_KEY_PREFIX, String.valueOf(now), ACTIVE_SESSION_KEY_PREFIX);
+            if (result == null || result.size() < 2) {
+                break;
+            }
+            removed += ((Number) result.get(0)).intValue();
+            if (((Number) result.get(1)).intValue() < sweepBatchSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Presence sweep removed {} stale user", removed);
+        }
+        return removed;
+    }
+
+    private String hllKey(long epochMinute) {
+        return HLL_KEY_PREFIX + epochMinute;
+    }
+}
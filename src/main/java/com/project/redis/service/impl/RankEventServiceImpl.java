@@ -0,0 +1,237 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.request.RankChange;
+import com.project.redis.dto.response.RankChangeEvent;
+import com.project.redis.enums.RankEventType;
+import com.project.redis.service.IRankEventService;
+import com.project.redis.service.IShardedLeaderboardService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * addScore-un rank deyisikliklerini leaderboard:events stream-ine yazir (XADD, taxmini MAXLEN ile mehdud).
+ * Yazma request thread-inde deyil, tek thread-li executor-da gedir: hadise sirasi saxlanir, addScore latency-si artmir.
+ * Novbe doludursa hadise atilir ve sayilir - push best-effort-dur, esas menbe leaderboard ZSET-leridir.
+ * Hadiseler: RANK_CHANGED (rank deyisib ve ya top-N-de xal deyisib), TOP_ENTERED, TOP_LEFT
+ * (top-N-e giren user N+1-e dusen user-i cixarir, onun ucun de TOP_LEFT yazilir).
+ */
+@Service
+@Slf4j
+public class RankEventServiceImpl implements IRankEventService {
+    static final String STREAM_KEY = "leaderboard:events";
+
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_BOARD = "board";
+    private static final String FIELD_USER = "user";
+    private static final String FIELD_OLD_RANK = "old";
+    private static final String FIELD_NEW_RANK = "new";
+    private static final String FIELD_SCORE = "score";
+    private static final String FIELD_TOP = "top";
+    private static final String FIELD_TIMESTAMP = "ts";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final IShardedLeaderboardService shardedLeaderboard;
+    private final boolean enabled;
+    private final int topN;
+    private final XAddOptions addOptions;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public RankEventServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                RedisTemplate<String, Object> redisTemplate,
+                                IShardedLeaderboardService shardedLeaderboard,
+                                @Value("${leaderboard.events.enabled:true}") boolean enabled,
+                                @Value("${leaderboard.events.top-n:10}") int topN,
+                                @Value("${leaderboard.events.max-length:100000}") long maxLength,
+                                @Value("${leaderboard.events.queue-size:10000}") int queueSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTemplate = redisTemplate;
+        this.shardedLeaderboard = shardedLeaderboard;
+        this.enabled = enabled;
+        this.topN = topN;
+        // "~" ile trim radix tree node-u dolanda edilir, her XADD-de deyil
+        this.addOptions = XAddOptions.maxlen(maxLength).approximateTrimming(true);
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "rank-events");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> dropped.incrementAndGet());
+    }
+
+    @Override
+    public void publish(Long userId, Integer points, List<RankChange> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        executor.execute(() -> {
+            try {
+                write(toEvents(userId, points, changes, timestamp));
+            } catch (RuntimeException e) {
+                dropped.incrementAndGet();
+                log.warn("Rank events for user {} could not be published: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<RankChangeEvent> toEvents(Long userId, Integer points, List<RankChange> changes, long timestamp) {
+        List<RankChangeEvent> events = new ArrayList<>();
+        for (RankChange change : changes) {
+            Integer oldRank = change.getKey() != null ? change.getOldRank() : shardedOldRank(change.getScore(), points);
+            Integer newRank = change.getNewRank();
+            if (newRank == null || newRank <= 0) {
+                continue;
+            }
+            boolean wasTop = oldRank != null && oldRank <= topN;
+            boolean isTop = newRank <= topN;
+            if (Objects.equals(oldRank, newRank) && !isTop) {
+                continue;
+            }
+            RankEventType type = isTop && !wasTop ? RankEventType.TOP_ENTERED
+                    : wasTop && !isTop ? RankEventType.TOP_LEFT
+                    : RankEventType.RANK_CHANGED;
+            events.add(event(type, change.getBoard(), userId, oldRank, newRank, change.getScore(), wasTop || isTop, timestamp));
+            if (type == RankEventType.TOP_ENTERED) {
+                // yeni giren N-ci yerden birini N+1-e itelib
+                ZSetOperations.TypedTuple<Object> displaced = memberAt(change.getKey(), topN);
+                Long displacedId = displaced != null ? extractUserId(displaced.getValue()) : null;
+                if (displacedId != null && !displacedId.equals(userId)) {
+                    Long score = displaced.getScore() != null ? displaced.getScore().longValue() : null;
+                    events.add(event(RankEventType.TOP_LEFT, change.getBoard(), displacedId, topN, topN + 1, score, true, timestamp));
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Sharded global-da kohne rank = kohne xaldan yuksek olanlarin sayi + 1. Xal artibsa user ozu de bu sayimdadir.
+     */
+    private Integer shardedOldRank(Long score, Integer points) {
+        long oldScore = score - points;
+        if (oldScore <= 0 && points > 0) {
+            return null;
+        }
+        long rank = shardedLeaderboard.getGlobalRank(oldScore);
+        return (int) (points > 0 ? rank - 1 : rank);
+    }
+
+    private ZSetOperations.TypedTuple<Object> memberAt(String key, long index) {
+        if (key == null) {
+            List<ZSetOperations.TypedTuple<Object>> range = shardedLeaderboard.getRange(index, 1);
+            return range.isEmpty() ? null : range.get(0);
+        }
+        Set<ZSetOperations.TypedTuple<Object>> range = redisTemplate.opsForZSet().reverseRangeWithScores(key, index, index);
+        return range == null || range.isEmpty() ? null : range.iterator().next();
+    }
+
+    private void write(List<RankChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (RankChangeEvent event : events) {
+                    operations.opsForStream().add(StreamRecords.newRecord().in(STREAM_KEY).ofMap(toFields(event)), addOptions);
+                }
+                return null;
+            }
+        });
+        published.addAndGet(events.size());
+    }
+
+    private RankChangeEvent event(RankEventType type, String board, Long userId, Integer oldRank, Integer newRank,
+                                  Long score, boolean top, long timestamp) {
+        return RankChangeEvent.builder()
+                .type(type)
+                .board(board)
+                .userId(userId)
+                .oldRank(oldRank)
+                .newRank(newRank)
+                .score(score)
+                .top(top)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private Map<String, String> toFields(RankChangeEvent event) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_TYPE, event.getType().name());
+        fields.put(FIELD_BOARD, event.getBoard());
+        fields.put(FIELD_USER, String.valueOf(event.getUserId()));
+        if (event.getOldRank() != null) {
+            fields.put(FIELD_OLD_RANK, String.valueOf(event.getOldRank()));
+        }
+        fields.put(FIELD_NEW_RANK, String.valueOf(event.getNewRank()));
+        if (event.getScore() != null) {
+            fields.put(FIELD_SCORE, String.valueOf(event.getScore()));
+        }
+        fields.put(FIELD_TOP, event.isTop() ? "1" : "0");
+        fields.put(FIELD_TIMESTAMP, String.valueOf(event.getTimestamp()));
+        return fields;
+    }
+
+    static RankChangeEvent fromFields(String id, Map<String, String> fields) {
+        return RankChangeEvent.builder()
+                .id(id)
+                .type(RankEventType.valueOf(fields.get(FIELD_TYPE)))
+                .board(fields.get(FIELD_BOARD))
+                .userId(Long.valueOf(fields.get(FIELD_USER)))
+                .oldRank(fields.containsKey(FIELD_OLD_RANK) ? Integer.valueOf(fields.get(FIELD_OLD_RANK)) : null)
+                .newRank(Integer.valueOf(fields.get(FIELD_NEW_RANK)))
+                .score(fields.containsKey(FIELD_SCORE) ? Long.valueOf(fields.get(FIELD_SCORE)) : null)
+                .top("1".equals(fields.get(FIELD_TOP)))
+                .timestamp(Long.valueOf(fields.get(FIELD_TIMESTAMP)))
+                .build();
+    }
+
+    private Long extractUserId(Object member) {
+        if (member == null) {
+            return null;
+        }
+        String value = member.toString();
+        return value.startsWith("user:") ? Long.valueOf(value.substring(5)) : null;
+    }
+}
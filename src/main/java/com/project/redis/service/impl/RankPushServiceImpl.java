@@ -0,0 +1,320 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.response.RankChangeEvent;
+import com.project.redis.service.IRankPushService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rank hadiselerini SSE ile client-lere oturur. Her node leaderboard:events stream-ini ozu oxuyur (consumer group yoxdur,
+ * her hadise butun node-lara catir), hadiseni yalniz oz baglantilarina paylayir:
+ * user-in oz hadiseleri onun baglantilarina, top-N-e toxunan hadiseler hemin board-a abune olanlara.
+ * Hadiseler baglanti basina (board, user, tip) uzre birlesdirilir ve flush-interval-ms-de bir batch kimi gonderilir:
+ * cox tez deyisen rank client-e bir defe, ilk kohne ve son yeni rank ile catir.
+ * Evvelki gonderisi hele bitmemis baglantiya yeni batch gonderilmir, hadiseler yigilir; max-pending-i kecen yavas client atilir.
+ */
+@Service
+@Slf4j
+public class RankPushServiceImpl implements IRankPushService {
+    private static final String EVENT_NAME = "rank";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final boolean enabled;
+    private final int maxPending;
+    private final long sseTimeoutMs;
+    private final long heartbeatIntervalMs;
+    private final Duration pollTimeout;
+    private final ExecutorService senders;
+
+    private final Map<Long, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Connection>> userConnections = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> boardConnections = new ConcurrentHashMap<>();
+    private final AtomicLong connectionIds = new AtomicLong();
+
+    private StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+    private LettuceConnectionFactory streamConnectionFactory;
+
+    public RankPushServiceImpl(StringRedisTemplate stringRedisTemplate,
+                               RedisConnectionFactory connectionFactory,
+                               @Value("${leaderboard.push.enabled:true}") boolean enabled,
+                               @Value("${leaderboard.push.max-pending:200}") int maxPending,
+                               @Value("${leaderboard.push.sse-timeout-ms:1800000}") long sseTimeoutMs,
+                               @Value("${leaderboard.push.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                               @Value("${leaderboard.push.poll-timeout-ms:1000}") long pollTimeoutMs,
+                               @Value("${leaderboard.push.send-threads:4}") int sendThreads) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.sseTimeoutMs = sseTimeoutMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.pollTimeout = Duration.ofMillis(pollTimeoutMs);
+        this.senders = Executors.newFixedThreadPool(Math.max(1, sendThreads), runnable -> {
+            Thread thread = new Thread(runnable, "rank-push-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stream-i en son entry-den oxumaga baslayir: kecmis hadiseler yeni baglantilar ucun maraqli deyil.
+     * ReadOffset.latest() her poll-da "$" gonderir ve poll-lar arasi hadiseleri itirir, ona gore son id-den davam edilir.
+     * XREAD BLOCK paylasilan factory-nin qisa komanda timeout-u (spring.data.redis.timeout) ile her poll-da dusur,
+     * ona gore container oz connection factory-si ile (timeout poll-timeout-dan uzun) oxuyur.
+     * Xeta subscription-u legv etmir, novbeti poll-da davam edir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        List<MapRecord<String, Object, Object>> last = stringRedisTemplate.opsForStream()
+                .reverseRange(RankEventServiceImpl.STREAM_KEY, Range.unbounded(), Limit.limit().count(1));
+        String lastId = last == null || last.isEmpty() ? "0-0" : last.get(0).getId().getValue();
+        StreamMessageListenerContainerOptions<String, MapRecord<String, String, String>> options =
+                StreamMessageListenerContainerOptions.builder()
+                        .serializer(StringRedisSerializer.UTF_8)
+                        .pollTimeout(pollTimeout)
+                        .batchSize(500)
+                        .build();
+        container = StreamMessageListenerContainer.create(streamConnectionFactory(), options);
+        StreamReadRequest<String> request = StreamReadRequest
+                .builder(StreamOffset.create(RankEventServiceImpl.STREAM_KEY, ReadOffset.from(lastId)))
+                .cancelOnError(e -> false)
+                .errorHandler(e -> log.warn("Rank event stream read failed, retrying: {}", e.getMessage()))
+                .build();
+        container.register(request, this::dispatch);
+        container.start();
+        log.info("Rank push gateway started from stream id {}", lastId);
+    }
+
+    /**
+     * Paylasilan Lettuce factory-nin surucu/SSL/client ayarlari ile, amma poll-timeout-a yer olan komanda timeout-u ile ayri factory.
+     * Lettuce deyilse paylasilan factory istifade olunur (poll-timeout-ms onun timeout-undan qisa olmalidir).
+     */
+    private RedisConnectionFactory streamConnectionFactory() {
+        if (!(connectionFactory instanceof LettuceConnectionFactory shared)) {
+            return connectionFactory;
+        }
+        LettuceClientConfiguration source = shared.getClientConfiguration();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = LettuceClientConfiguration.builder()
+                .commandTimeout(pollTimeout.multipliedBy(2).plus(source.getCommandTimeout()))
+                .shutdownTimeout(source.getShutdownTimeout());
+        source.getClientOptions().ifPresent(builder::clientOptions);
+        source.getClientResources().ifPresent(builder::clientResources);
+        source.getClientName().ifPresent(builder::clientName);
+        source.getRedisCredentialsProviderFactory().ifPresent(builder::redisCredentialsProviderFactory);
+        if (source.isUseSsl()) {
+            LettuceClientConfiguration.LettuceSslClientConfigurationBuilder ssl = builder.useSsl().verifyPeer(source.getVerifyMode());
+            if (source.isStartTls()) {
+                ssl.startTls();
+            }
+            builder = ssl.and();
+        }
+        RedisConfiguration configuration = shared.isClusterAware() ? shared.getClusterConfiguration()
+                : shared.isRedisSentinelAware() ? shared.getSentinelConfiguration()
+                : shared.getStandaloneConfiguration();
+        streamConnectionFactory = new LettuceConnectionFactory(configuration, builder.build());
+        streamConnectionFactory.afterPropertiesSet();
+        streamConnectionFactory.start();
+        return streamConnectionFactory;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+        if (streamConnectionFactory != null) {
+            streamConnectionFactory.destroy();
+        }
+        senders.shutdown();
+        connections.values().forEach(connection -> connection.emitter.complete());
+    }
+
+    /**
+     * boards: top-N deyisikliklerini izlenen board-lar (global, daily, weekly, monthly, season, game:{id}).
+     * User-in oz rank hadiseleri butun board-lar ucun hemise gelir.
+     */
+    @Override
+    public SseEmitter subscribe(Long userId, List<String> boards) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Connection connection = new Connection(connectionIds.incrementAndGet(), userId, Set.copyOf(boards), emitter);
+        connections.put(connection.id, connection);
+        userConnections.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(connection);
+        for (String board : connection.boards) {
+            boardConnections.computeIfAbsent(board, key -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+        return emitter;
+    }
+
+    /**
+     * Yigilmis hadiseleri gonderir, bos baglantilara heartbeat (SSE comment) gedir ki, olu baglanti tez tapilsin.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${leaderboard.push.flush-interval-ms:100}")
+    public int flush() {
+        long now = System.currentTimeMillis();
+        int batches = 0;
+        for (Connection connection : connections.values()) {
+            if (!connection.sending.compareAndSet(false, true)) {
+                // evvelki gonderi hele yazilir, hadiseler pending-de birlesir
+                continue;
+            }
+            List<RankChangeEvent> batch = connection.drain();
+            boolean heartbeat = batch.isEmpty() && now - connection.lastSentAt >= heartbeatIntervalMs;
+            if (batch.isEmpty() && !heartbeat) {
+                connection.sending.set(false);
+                continue;
+            }
+            batches++;
+            senders.execute(() -> send(connection, batch, heartbeat));
+        }
+        return batches;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    private void dispatch(MapRecord<String, String, String> record) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        RankChangeEvent event = RankEventServiceImpl.fromFields(record.getId().getValue(), record.getValue());
+        Set<Connection> own = userConnections.getOrDefault(event.getUserId(), Set.of());
+        for (Connection connection : own) {
+            offer(connection, event);
+        }
+        if (event.isTop()) {
+            for (Connection connection : boardConnections.getOrDefault(event.getBoard(), Set.of())) {
+                if (!own.contains(connection)) {
+                    offer(connection, event);
+                }
+            }
+        }
+    }
+
+    private void offer(Connection connection, RankChangeEvent event) {
+        String key = event.getBoard() + ":" + event.getUserId() + ":" + event.getType();
+        boolean overflow;
+        synchronized (connection.pending) {
+            // ilk kohne rank saxlanir, qalan her sey son hadiseden gelir (event baglantilar arasi paylasilir, deyisdirilmir)
+            connection.pending.merge(key, event, (previous, latest) -> RankChangeEvent.builder()
+                    .id(latest.getId())
+                    .type(latest.getType())
+                    .board(latest.getBoard())
+                    .userId(latest.getUserId())
+                    .oldRank(previous.getOldRank())
+                    .newRank(latest.getNewRank())
+                    .score(latest.getScore())
+                    .top(previous.isTop() || latest.isTop())
+                    .timestamp(latest.getTimestamp())
+                    .build());
+            overflow = connection.pending.size() > maxPending;
+        }
+        if (overflow) {
+            log.info("Rank push connection {} (user {}) dropped: more than {} pending events", connection.id, connection.userId, maxPending);
+            remove(connection);
+            connection.emitter.complete();
+        }
+    }
+
+    private void send(Connection connection, List<RankChangeEvent> batch, boolean heartbeat) {
+        try {
+            if (heartbeat) {
+                connection.emitter.send(SseEmitter.event().comment("ping"));
+            } else {
+                connection.emitter.send(SseEmitter.event().name(EVENT_NAME).data(batch));
+            }
+            connection.lastSentAt = System.currentTimeMillis();
+        } catch (IOException | IllegalStateException e) {
+            remove(connection);
+        } finally {
+            connection.sending.set(false);
+        }
+    }
+
+    private void remove(Connection connection) {
+        if (connections.remove(connection.id) == null) {
+            return;
+        }
+        removeFrom(userConnections, connection.userId, connection);
+        for (String board : connection.boards) {
+            removeFrom(boardConnections, board, connection);
+        }
+    }
+
+    private <K> void removeFrom(Map<K, Set<Connection>> index, K key, Connection connection) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Connection {
+        private final long id;
+        private final Long userId;
+        private final Set<String> boards;
+        private final SseEmitter emitter;
+        private final LinkedHashMap<String, RankChangeEvent> pending = new LinkedHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Connection(long id, Long userId, Set<String> boards, SseEmitter emitter) {
+            this.id = id;
+            this.userId = userId;
+            this.boards = boards;
+            this.emitter = emitter;
+        }
+
+        private List<RankChangeEvent> drain() {
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return List.of();
+                }
+                List<RankChangeEvent> batch = new ArrayList<>(pending.values());
+                pending.clear();
+                return batch;
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.dto.response.LeaderboardEntry;
+import com.project.redis.dto.response.PlayerRating;
+import com.project.redis.dto.response.UserSummary;
+import com.project.redis.enums.MatchResult;
+import com.project.redis.model.UserRating;
+import com.project.redis.repository.RatingBatchRepository;
+import com.project.redis.repository.UserRatingRepository;
+import com.project.redis.service.IRatingService;
+import com.project.redis.service.IUserSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Glicko-2 reytinqleri: global ve her oyun ucun ayrica scope.
+ * <ul>
+ *     <li>rating:user:{userId} HASH: field = scope ("global", "game:{id}"), value = "rating:deviation:volatility:matches"</li>
+ *     <li>rating:leaderboard:{scope} ZSET: score = rating, member = user:{id}</li>
+ *     <li>rating:dirty SET: DB-ye yazilmamis userler, flush job user_ratings-e batch upsert edir</li>
+ * </ul>
+ * Match bitende yalniz bitiren oyuncunun reytinqi WATCH/MULTI ile yenilenir, raqib oz finishGame-inde yenilenir.
+ * Recompute butun tarixi matches cedvelinden yeniden oynayir: oyun partition-lari paralel, global scope ardicil.
+ * Recompute offline isledilmelidir (match qebulu dayandirilmis halda): replay-den sonra gelen recordResult
+ * yenilemeleri rating:user:* ve leaderboard-a yazilan replay neticesi ile ustune yazilir.
+ */
+@Service
+@Slf4j
+public class RatingServiceImpl implements IRatingService {
+    private static final String RATING_KEY_PREFIX = "rating:user:";
+    private static final String LEADERBOARD_KEY_PREFIX = "rating:leaderboard:";
+    private static final String DIRTY_SET = "rating:dirty";
+    private static final String GLOBAL_SCOPE = "global";
+    private static final String GAME_SCOPE_PREFIX = "game:";
+    private static final int MAX_RETRIES = 5;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int RECOMPUTE_PAGE_SIZE = 10000;
+    private static final int WRITE_CHUNK_SIZE = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserRatingRepository userRatingRepository;
+    private final RatingBatchRepository ratingBatchRepository;
+    private final IUserSummaryService userSummaryService;
+    private final Glicko2Calculator calculator;
+    private final double initialRating;
+    private final double initialDeviation;
+    private final double initialVolatility;
+    private final double minDeviation;
+    private final int flushBatchSize;
+
+    public RatingServiceImpl(StringRedisTemplate stringRedisTemplate,
+                             UserRatingRepository userRatingRepository,
+                             RatingBatchRepository ratingBatchRepository,
+                             IUserSummaryService userSummaryService,
+                             @Value("${rating.tau:0.5}") double tau,
+                             @Value("${rating.initial:1500}") double initialRating,
+                             @Value("${rating.initial-deviation:350}") double initialDeviation,
+                             @Value("${rating.initial-volatility:0.06}") double initialVolatility,
+                             @Value("${rating.min-deviation:30}") double minDeviation,
+                             @Value("${rating.flush-batch-size:1000}") int flushBatchSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.userRatingRepository = userRatingRepository;
+        this.ratingBatchRepository = ratingBatchRepository;
+        this.userSummaryService = userSummaryService;
+        this.initialRating = initialRating;
+        this.initialDeviation = initialDeviation;
+        this.initialVolatility = initialVolatility;
+        this.minDeviation = minDeviation;
+        this.flushBatchSize = flushBatchSize;
+        this.calculator = new Glicko2Calculator(tau, initialDeviation, minDeviation);
+    }
+
+    @Override
+    public PlayerRating getRating(Long userId, Long gameId) {
+        String scope = scopeOf(gameId);
+        return readRatings(userId, List.of(scope)).get(scope);
+    }
+
+    @Override
+    public void recordResult(Long userId, Long opponentId, Long gameId, MatchResult result) {
+        List<String> scopes = List.of(GLOBAL_SCOPE, scopeOf(gameId));
+        Map<String, PlayerRating> opponent = readRatings(opponentId, scopes);
+        double score = scoreOf(result);
+        String key = RATING_KEY_PREFIX + userId;
+
+        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+            List<Object> exec = stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public List<Object> execute(RedisOperations operations) {
+                    operations.watch(key);
+                    List<Object> values = operations.opsForHash().multiGet(key, new ArrayList<>(scopes));
+                    Map<String, PlayerRating> current = resolve(userId, scopes, values);
+
+                    Map<String, String> updates = new HashMap<>();
+                    Map<String, Double> ratings = new HashMap<>();
+                    for (String scope : scopes) {
+                        PlayerRating updated = calculator.update(current.get(scope), opponent.get(scope), score);
+                        updates.put(scope, encode(updated));
+                        ratings.put(scope, updated.getRating());
+                    }
+
+                    operations.multi();
+                    operations.opsForHash().putAll(key, updates);
+                    ratings.forEach((scope, rating) ->
+                            operations.opsForZSet().add(LEADERBOARD_KEY_PREFIX + scope, "user:" + userId, rating));
+                    operations.opsForSet().add(DIRTY_SET, String.valueOf(userId));
+                    return operations.exec();
+                }
+            });
+            // WATCH pozulubsa exec bos qayidir: eyni userin paralel match-i, yeniden oxuyub hesablayiriq
+            if (exec != null && !exec.isEmpty()) {
+                return;
+            }
+            log.debug("Rating update conflict for user:{} (attempt {})", userId, attempt);
+        }
+        log.warn("Rating update skipped after {} conflicts: user:{}, game:{}", MAX_RETRIES, userId, gameId);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getRatingLeaderboard(Long gameId, int offset, int limit) {
+        int start = Math.max(offset, 0);
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Set<ZSetOperations.TypedTuple<String>> results = stringRedisTemplate.opsForZSet()
+                .reverseRangeWithScores(LEADERBOARD_KEY_PREFIX + scopeOf(gameId), start, start + size - 1);
+        if (results == null || results.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> userIds = new ArrayList<>(results.size());
+        for (ZSetOperations.TypedTuple<String> tuple : results) {
+            userIds.add(Long.parseLong(tuple.getValue().substring("user:".length())));
+        }
+        Map<Long, UserSummary> summaries = userSummaryService.getSummaries(userIds);
+
+        List<LeaderboardEntry> entries = new ArrayList<>(results.size());
+        int rank = start + 1;
+        int index = 0;
+        for (ZSetOperations.TypedTuple<String> tuple : results) {
+            Long userId = userIds.get(index++);
+            UserSummary user = summaries.get(userId);
+            entries.add(LeaderboardEntry.builder()
+                    .rank(rank++)
+                    .userId(userId)
+                    .username(user != null ? user.getUsername() : "Unknown")
+                    .avatar(user != null ? user.getAvatar() : null)
+                    .score(tuple.getScore() != null ? Math.round(tuple.getScore()) : 0L)
+                    .level(user != null ? user.getLevel() : 1)
+                    .build());
+        }
+        return entries;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${rating.flush-interval-ms:10000}")
+    public int flush() {
+        int flushed = 0;
+        List<String> userIds;
+        do {
+            userIds = stringRedisTemplate.opsForSet().pop(DIRTY_SET, flushBatchSize);
+            if (userIds == null || userIds.isEmpty()) {
+                break;
+            }
+            flushed += flushBatch(userIds);
+        } while (userIds.size() == flushBatchSize);
+        if (flushed > 0) {
+            log.debug("Ratings flushed: {} row", flushed);
+        }
+        return flushed;
+    }
+
+    @Override
+    public int recompute(int parallelism, Double tau) {
+        Glicko2Calculator replayCalculator = tau != null
+                ? new Glicko2Calculator(tau, initialDeviation, minDeviation)
+                : calculator;
+        List<Long> gameIds = ratingBatchRepository.findRatedGameIds();
+        long startedAt = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            // global scope butun match-larin ardicil replay-idir, oyun scope-lari bir-birinden asili deyil
+            Map<String, Future<Map<Long, PlayerRating>>> partitions = new LinkedHashMap<>();
+            partitions.put(GLOBAL_SCOPE, executor.submit(() -> replay(null, replayCalculator)));
+            for (Long gameId : gameIds) {
+                partitions.put(scopeOf(gameId), executor.submit(() -> replay(gameId, replayCalculator)));
+            }
+
+            int written = 0;
+            for (Map.Entry<String, Future<Map<Long, PlayerRating>>> partition : partitions.entrySet()) {
+                written += store(partition.getKey(), partition.getValue().get());
+            }
+            log.info("Ratings recomputed: {} scope, {} row in {} ms",
+                    partitions.size(), written, System.currentTimeMillis() - startedAt);
+            return written;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rating recompute interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rating recompute failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Long, PlayerRating> replay(Long gameId, Glicko2Calculator replayCalculator) {
+        Map<Long, PlayerRating> ratings = new HashMap<>();
+        long afterId = 0;
+        List<PendingMatch> page;
+        do {
+            page = ratingBatchRepository.findRatedMatchesAfter(gameId, afterId, RECOMPUTE_PAGE_SIZE);
+            for (PendingMatch match : page) {
+                PlayerRating player = ratings.computeIfAbsent(match.getUserId(), id -> initial());
+                PlayerRating opponent = ratings.computeIfAbsent(match.getOpponentId(), id -> initial());
+                ratings.put(match.getUserId(), replayCalculator.update(player, opponent, scoreOf(match.getResult())));
+                afterId = match.getId();
+            }
+        } while (page.size() == RECOMPUTE_PAGE_SIZE);
+        return ratings;
+    }
+
+    /**
+     * Leaderboard muveqqeti key-de qurulur ve sonda RENAME ile canli key-in yerine kecir,
+     * oxuyanlar bos ve ya yarimciq board gormur.
+     */
+    private int store(String scope, Map<Long, PlayerRating> ratings) {
+        String leaderboardKey = LEADERBOARD_KEY_PREFIX + scope;
+        String rebuildKey = leaderboardKey + ":rebuild";
+        stringRedisTemplate.delete(rebuildKey);
+        LocalDateTime now = LocalDateTime.now();
+        List<Map.Entry<Long, PlayerRating>> entries = new ArrayList<>(ratings.entrySet());
+        for (int from = 0; from < entries.size(); from += WRITE_CHUNK_SIZE) {
+            List<Map.Entry<Long, PlayerRating>> chunk = entries.subList(from, Math.min(from + WRITE_CHUNK_SIZE, entries.size()));
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    for (Map.Entry<Long, PlayerRating> entry : chunk) {
+                        operations.opsForHash().put(RATING_KEY_PREFIX + entry.getKey(), scope, encode(entry.getValue()));
+                        operations.opsForZSet().add(rebuildKey, "user:" + entry.getKey(), entry.getValue().getRating());
+                    }
+                    return null;
+                }
+            });
+            ratingBatchRepository.upsertAll(chunk.stream()
+                    .map(entry -> toEntity(entry.getKey(), scope, entry.getValue(), now))
+                    .toList());
+        }
+        if (entries.isEmpty()) {
+            stringRedisTemplate.delete(leaderboardKey);
+        } else {
+            stringRedisTemplate.rename(rebuildKey, leaderboardKey);
+        }
+        return entries.size();
+    }
+
+    private int flushBatch(List<String> userIds) {
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (String userId : userIds) {
+                    operations.opsForHash().entries(RATING_KEY_PREFIX + userId);
+                }
+                return null;
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UserRating> rows = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            Map<?, ?> fields = (Map<?, ?>) results.get(i);
+            if (fields == null) {
+                continue;
+            }
+            Long userId = Long.parseLong(userIds.get(i));
+            fields.forEach((scope, value) -> rows.add(toEntity(userId, scope.toString(), decode(value.toString()), now)));
+        }
+
+        // bir user-in bir nece scope-u var, ona gore setir sayi user sayindan coxdur: Postgres-in 65535 bind limitine gore
+        // her INSERT en cox WRITE_CHUNK_SIZE setir (7 bind) yazir
+        try {
+            for (int from = 0; from < rows.size(); from += WRITE_CHUNK_SIZE) {
+                ratingBatchRepository.upsertAll(rows.subList(from, Math.min(from + WRITE_CHUNK_SIZE, rows.size())));
+            }
+        } catch (RuntimeException e) {
+            log.error("Rating flush failed, {} user marked dirty again", userIds.size(), e);
+            stringRedisTemplate.opsForSet().add(DIRTY_SET, userIds.toArray(new String[0]));
+            throw e;
+        }
+        return rows.size();
+    }
+
+    private Map<String, PlayerRating> readRatings(Long userId, List<String> scopes) {
+        List<Object> values = stringRedisTemplate.opsForHash().multiGet(RATING_KEY_PREFIX + userId, new ArrayList<>(scopes));
+        return resolve(userId, scopes, values);
+    }
+
+    /**
+     * Redis-de olmayan scope-lar user_ratings-den (Redis flush olunub/itib) ve ya default deyerlerden goturulur.
+     */
+    private Map<String, PlayerRating> resolve(Long userId, List<String> scopes, List<Object> values) {
+        Map<String, PlayerRating> ratings = new HashMap<>();
+        Map<String, UserRating> stored = null;
+        for (int i = 0; i < scopes.size(); i++) {
+            String scope = scopes.get(i);
+            Object value = values != null ? values.get(i) : null;
+            if (value != null) {
+                ratings.put(scope, decode(value.toString()));
+                continue;
+            }
+            if (stored == null) {
+                stored = new HashMap<>();
+                for (UserRating rating : userRatingRepository.findByUserId(userId)) {
+                    stored.put(rating.getScope(), rating);
+                }
+            }
+            UserRating rating = stored.get(scope);
+            ratings.put(scope, rating != null
+                    ? new PlayerRating(rating.getRating(), rating.getDeviation(), rating.getVolatility(), rating.getMatches())
+                    : initial());
+        }
+        return ratings;
+    }
+
+    private PlayerRating initial() {
+        return new PlayerRating(initialRating, initialDeviation, initialVolatility, 0);
+    }
+
+    private UserRating toEntity(Long userId, String scope, PlayerRating rating, LocalDateTime now) {
+        return UserRating.builder()
+                .userId(userId)
+                .scope(scope)
+                .rating(rating.getRating())
+                .deviation(rating.getDeviation())
+                .volatility(rating.getVolatility())
+                .matches(rating.getMatches())
+                .updatedAt(now)
+                .build();
+    }
+
+    private String scopeOf(Long gameId) {
+        return gameId != null ? GAME_SCOPE_PREFIX + gameId : GLOBAL_SCOPE;
+    }
+
+    private double scoreOf(MatchResult result) {
+        return switch (result) {
+            case WIN -> 1.0;
+            case DRAW -> 0.5;
+            case LOSS -> 0.0;
+        };
+    }
+
+    private String encode(PlayerRating rating) {
+        return rating.getRating() + ":" + rating.getDeviation() + ":" + rating.getVolatility() + ":" + rating.getMatches();
+    }
+
+    private PlayerRating decode(String value) {
+        String[] parts = value.split(":");
+        return new PlayerRating(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]),
+                Double.parseDouble(parts[2]), Integer.parseInt(parts[3]));
+    }
+}
@@ -0,0 +1,268 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.exception.UnauthorizedException;
+import com.project.redis.model.MatchReplay;
+import com.project.redis.repository.MatchReplayRepository;
+import com.project.redis.repository.ReplayMigrationRepository;
+import com.project.redis.service.IMatchHistoryService;
+import com.project.redis.service.IReplayService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Replay-ler matches cedvelinden kenarda, content-addressed fayl store-da gzip ile saxlanir: {store-dir}/{hash[0..2]}/{hash}.gz.
+ * Upload stream olaraq hash + gzip-den kecib temp fayla yazilir ve atomik rename olunur, eyni replay ikinci defe yazilmir.
+ * Download-da compressed fayl FileChannel.transferTo ile, acilmis replay ise mmap olunmus fayldan stream edilir.
+ * Multi-node deploy-da store-dir butun node-larin gorduyu shared volume olmalidir.
+ */
+@Service
+@Slf4j
+public class ReplayServiceImpl implements IReplayService {
+    private static final String FILE_SUFFIX = ".gz";
+    private static final int MIGRATION_FETCH_SIZE = 100;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MatchReplayRepository matchReplayRepository;
+    private final ReplayMigrationRepository replayMigrationRepository;
+    private final IMatchHistoryService matchHistoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path storeDir;
+    private final Path tempDir;
+    private final long maxSizeBytes;
+    private final boolean migrateOnStartup;
+
+    public ReplayServiceImpl(MatchReplayRepository matchReplayRepository,
+                             ReplayMigrationRepository replayMigrationRepository,
+                             IMatchHistoryService matchHistoryService,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${replay.store-dir:./data/replays}") String storeDir,
+                             @Value("${replay.max-size-bytes:20971520}") long maxSizeBytes,
+                             @Value("${replay.migrate-inline-on-startup:false}") boolean migrateOnStartup) throws IOException {
+        this.matchReplayRepository = matchReplayRepository;
+        this.replayMigrationRepository = replayMigrationRepository;
+        this.matchHistoryService = matchHistoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.storeDir = Path.of(storeDir).toAbsolutePath();
+        this.tempDir = this.storeDir.resolve("tmp");
+        this.maxSizeBytes = maxSizeBytes;
+        this.migrateOnStartup = migrateOnStartup;
+        Files.createDirectories(tempDir);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() throws IOException {
+        if (migrateOnStartup) {
+            migrateInlineReplays();
+        }
+    }
+
+    @Override
+    public MatchReplay storeReplay(Long userId, Long matchId, InputStream data) throws IOException, UnauthorizedException {
+        Optional<MatchReplay> existing = matchReplayRepository.findById(matchId);
+        if (existing.isPresent() ? !existing.get().getUserId().equals(userId) : !matchHistoryService.ownsMatch(userId, matchId)) {
+            throw new UnauthorizedException("This match does not belong to this user. userId:" + userId + ", match:" + matchId);
+        }
+        return save(matchId, userId, out -> data.transferTo(out));
+    }
+
+    @Override
+    public boolean streamReplay(Long matchId, OutputStream out, boolean compressed) throws IOException {
+        Optional<MatchReplay> replay = matchReplayRepository.findById(matchId);
+        if (replay.isEmpty()) {
+            return false;
+        }
+        Path file = blobPath(replay.get().getContentHash());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (compressed) {
+                // gzip fayl oldugu kimi gedir (Content-Encoding: gzip), user-space buffer yoxdur
+                WritableByteChannel target = Channels.newChannel(out);
+                for (long position = 0; position < size; ) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            } else {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                try (InputStream in = new GZIPInputStream(new MappedInputStream(mapped), BUFFER_SIZE)) {
+                    in.transferTo(out);
+                }
+            }
+        }
+        out.flush();
+        return true;
+    }
+
+    /**
+     * V1 migration-in match_inline_replays-e ayirdigi kohne TEXT replay-leri fayl store-a kocurur ve cedveli silir.
+     */
+    @Override
+    public int migrateInlineReplays() throws IOException {
+        if (!replayMigrationRepository.hasInlineReplays()) {
+            return 0;
+        }
+        int[] migrated = {0};
+        try {
+            // Postgres cursor-u (fetchSize) yalniz transaction daxilinde isleyir
+            transactionTemplate.executeWithoutResult(status -> {
+                replayMigrationRepository.streamInlineReplays(MIGRATION_FETCH_SIZE, (matchId, userId, replay) -> {
+                    save(matchId, userId, out -> {
+                        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                        replay.transferTo(writer);
+                        writer.flush();
+                    });
+                    migrated[0]++;
+                });
+                replayMigrationRepository.dropInlineReplays();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Inline replays migrated to {}: {}", storeDir, migrated[0]);
+        return migrated[0];
+    }
+
+    private MatchReplay save(Long matchId, Long userId, ReplaySource source) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tempDir, "replay-", FILE_SUFFIX);
+        long rawSize;
+        try {
+            SizeLimitedOutputStream limited;
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE);
+                 GZIPOutputStream gzip = new GZIPOutputStream(file, BUFFER_SIZE);
+                 DigestOutputStream hashing = new DigestOutputStream(gzip, digest)) {
+                limited = new SizeLimitedOutputStream(hashing, maxSizeBytes);
+                source.writeTo(limited);
+                limited.flush();
+            }
+            rawSize = limited.written;
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = blobPath(hash);
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // eyni mezmun artiq store-dadir
+                Files.delete(temp);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return matchReplayRepository.save(MatchReplay.builder()
+                    .matchId(matchId)
+                    .userId(userId)
+                    .contentHash(hash)
+                    .rawSize(rawSize)
+                    .storedSize(Files.size(target))
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return storeDir.resolve(hash.substring(0, 2)).resolve(hash + FILE_SUFFIX);
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReplaySource {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Limit asilanda yazma dayanir, temp fayl silinir.
+     */
+    private static final class SizeLimitedOutputStream extends FilterOutputStream {
+        private final long limit;
+        private long written;
+
+        private SizeLimitedOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity(1);
+            out.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureCapacity(len);
+            out.write(b, off, len);
+            written += len;
+        }
+
+        private void ensureCapacity(int len) {
+            if (written + len > limit) {
+                throw new IllegalArgumentException("Replay is larger than " + limit + " bytes");
+            }
+        }
+    }
+
+    /**
+     * mmap olunmus fayl uzerinde InputStream: oxuma birbasa page cache-den gedir, fayl heap-e kopyalanmir.
+     */
+    private static final class MappedInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.response.LeaderboardWindow;
+import com.project.redis.enums.LeaderboardType;
+import com.project.redis.service.IRollingLeaderboardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Surusen pencereli leaderboard-lar ("son 24 saat", "son 7 gun"). Her xal cari saatin bucket ZSET-ine
+ * (leaderboard:rolling:bucket:{epoch saat}) ve butun rolling board-lara eyni script-de yazilir, ona gore board-lar canlidir.
+ * Saatliq job yalniz pencereden cixan bucket-i ZUNIONSTORE ... WEIGHTS 1 -1 ile board-dan cixir, hec ne yeniden hesablanmir.
+ * Board-un cursor key-i en son cixilmis saati saxlayir: job tekrar islese ve ya bir nece node-da islese de
+ * her bucket bir defe cixilir. Oxuma adi ZSET oxumasidir (O(log N)), yaddas bucket TTL-leri ile mehduddur.
+ */
+@Service
+@Slf4j
+public class RollingLeaderboardServiceImpl implements IRollingLeaderboardService {
+    private static final String BOARD_KEY_PREFIX = "leaderboard:rolling:";
+    private static final String BUCKET_KEY_PREFIX = "leaderboard:rolling:bucket:";
+    private static final String CURSOR_SUFFIX = ":cursor";
+    private static final long HOUR_SECONDS = 3600;
+
+    /**
+     * KEYS[1] board, KEYS[2] cursor, KEYS[3] pencereden cixan bucket; ARGV[1] bucket-in saati.
+     * Cursor artiq bu saatdadirsa hec ne etmir. 0-a dusen member-ler board-dan silinir.
+     */
+    private static final DefaultRedisScript<Long> SUBTRACT_SCRIPT = new DefaultRedisScript<>("""
+            local cursor = redis.call('GET', KEYS[2])
+            if not cursor or tonumber(cursor) >= tonumber(ARGV[1]) then
+                return 0
+            end
+            if redis.call('EXISTS', KEYS[1]) == 1 and redis.call('EXISTS', KEYS[3]) == 1 then
+                redis.call('ZUNIONSTORE', KEYS[1], 2, KEYS[1], KEYS[3], 'WEIGHTS', 1, -1)
+                redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', 0)
+            end
+            redis.call('SET', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS[1] board, KEYS[2] cursor, KEYS[3..] penceredeki bucket-lar; ARGV[1] cursor-un yeni deyeri.
+     * Atomikdir: arada gelen yazmalar itmir.
+     */
+    private static final DefaultRedisScript<Long> REBUILD_SCRIPT = new DefaultRedisScript<>("""
+            local buckets = {}
+            for i = 3, #KEYS do
+                if redis.call('EXISTS', KEYS[i]) == 1 then
+                    buckets[#buckets + 1] = KEYS[i]
+                end
+            end
+            if #buckets > 0 then
+                redis.call('ZUNIONSTORE', KEYS[1], #buckets, unpack(buckets))
+            else
+                redis.call('DEL', KEYS[1])
+            end
+            redis.call('SET', KEYS[2], ARGV[1])
+            return #buckets
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Clock clock = Clock.systemUTC();
+    private final Map<String, Long> windowHours = new LinkedHashMap<>();
+    private final long bucketRetentionHours;
+    private final long catchUpHours;
+
+    public RollingLeaderboardServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                         @Value("${leaderboard.rolling.windows:24h,7d}") List<String> windows,
+                                         @Value("${leaderboard.rolling.catch-up-hours:6}") long catchUpHours) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        for (String window : windows) {
+            windowHours.put(window.trim(), parseHours(window.trim()));
+        }
+        if (windowHours.isEmpty()) {
+            throw new IllegalArgumentException("leaderboard.rolling.windows must not be empty");
+        }
+        this.catchUpHours = catchUpHours;
+        // bucket en uzun pencereden cixandan sonra da catch-up muddeti qeder qalir ki, gecikmis job onu cixa bilsin
+        this.bucketRetentionHours = windowHours.values().stream().mapToLong(Long::longValue).max().orElse(0) + catchUpHours;
+    }
+
+    @Override
+    public List<LeaderboardWindow> writeTargets() {
+        long hour = currentHour();
+        List<LeaderboardWindow> targets = new ArrayList<>(windowHours.size() + 1);
+        targets.add(LeaderboardWindow.builder()
+                .type(LeaderboardType.ROLLING)
+                .id(String.valueOf(hour))
+                .key(BUCKET_KEY_PREFIX + hour)
+                .expireAt(Instant.ofEpochSecond((hour + 1 + bucketRetentionHours) * HOUR_SECONDS))
+                .build());
+        for (String windowId : windowHours.keySet()) {
+            targets.add(board(windowId));
+        }
+        return targets;
+    }
+
+    /**
+     * windowId null ise ilk konfiqurasiya olunmus pencere.
+     */
+    @Override
+    public LeaderboardWindow board(String windowId) {
+        String id = windowId != null ? windowId : windowHours.keySet().iterator().next();
+        if (!windowHours.containsKey(id)) {
+            throw new IllegalArgumentException("Unknown rolling window: " + id);
+        }
+        return LeaderboardWindow.builder()
+                .type(LeaderboardType.ROLLING)
+                .id(id)
+                .key(BOARD_KEY_PREFIX + id)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void advanceOnStartup() {
+        advance();
+    }
+
+    /**
+     * Her board ucun pencereden cixmis, hele cixilmamis bucket-lari bir-bir cixir.
+     * Cursor yoxdursa ve ya job catch-up-hours-dan cox gecikibse (bucket-lar expire ola biler) board yeniden qurulur.
+     */
+    @Override
+    @Scheduled(cron = "${leaderboard.rolling.advance-cron:5 0 * * * *}")
+    public int advance() {
+        long hour = currentHour();
+        int subtracted = 0;
+        for (Map.Entry<String, Long> window : windowHours.entrySet()) {
+            String boardKey = BOARD_KEY_PREFIX + window.getKey();
+            String cursorKey = boardKey + CURSOR_SUFFIX;
+            long lastExpired = hour - window.getValue();
+            String cursor = stringRedisTemplate.opsForValue().get(cursorKey);
+            if (cursor == null || lastExpired - Long.parseLong(cursor) > catchUpHours) {
+                rebuild(window.getKey());
+                continue;
+            }
+            for (long expired = Long.parseLong(cursor) + 1; expired <= lastExpired; expired++) {
+                Long applied = stringRedisTemplate.execute(SUBTRACT_SCRIPT,
+                        List.of(boardKey, cursorKey, BUCKET_KEY_PREFIX + expired), String.valueOf(expired));
+                if (applied != null && applied > 0) {
+                    subtracted++;
+                }
+            }
+        }
+        if (subtracted > 0) {
+            log.debug("Rolling leaderboards advanced: {} bucket subtracted", subtracted);
+        }
+        return subtracted;
+    }
+
+    /**
+     * Board-u penceredeki butun bucket-larin ZUNIONSTORE-u ile yeniden qurur.
+     */
+    @Override
+    public void rebuild(String windowId) {
+        LeaderboardWindow board = board(windowId);
+        long hour = currentHour();
+        long hours = windowHours.get(board.getId());
+        List<String> keys = new ArrayList<>((int) hours + 2);
+        keys.add(board.getKey());
+        keys.add(board.getKey() + CURSOR_SUFFIX);
+        for (long bucket = hour - hours + 1; bucket <= hour; bucket++) {
+            keys.add(BUCKET_KEY_PREFIX + bucket);
+        }
+        Long buckets = stringRedisTemplate.execute(REBUILD_SCRIPT, keys, String.valueOf(hour - hours));
+        log.info("Rolling leaderboard {} rebuilt from {} hourly buckets", board.getId(), buckets);
+    }
+
+    private long currentHour() {
+        return clock.instant().getEpochSecond() / HOUR_SECONDS;
+    }
+
+    private long parseHours(String window) {
+        if (window.length() < 2) {
+            throw new IllegalArgumentException("Invalid rolling window: " + window);
+        }
+        long amount = Long.parseLong(window.substring(0, window.length() - 1));
+        return switch (window.charAt(window.length() - 1)) {
+            case 'h' -> amount;
+            case 'd' -> amount * 24;
+            default -> throw new IllegalArgumentException("Invalid rolling window: " + window);
+        };
+    }
+}
@@ -0,0 +1,301 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.service.IShardedLeaderboardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Global leaderboard-u N dene sub-ZSET-e bolur (leaderboard:global:{shard:i}), userId hash-ine gore.
+ * {shard:i} Redis Cluster hash tag-idir: shard ve onun kocurme marker-i eyni slot-dadir.
+ * Global rank = butun shard-larda bu score-dan yuksek olanlarin sayi + 1, top-N ise k-way merge ile yigilir.
+ * leaderboard.sharding.enabled=false olanda istifade olunmur, tek key (leaderboard:global) isleyir.
+ */
+@Service
+@Slf4j
+public class ShardedLeaderboardServiceImpl implements IShardedLeaderboardService {
+    private static final String GLOBAL_LEADERBOARD = "leaderboard:global";
+    private static final String MIGRATED_SUFFIX = ":migrated";
+    private static final int MIGRATION_BATCH_SIZE = 1000;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean enabled;
+    private final int shardCount;
+    private final boolean migrateOnStartup;
+    private final long maxPageDepth;
+
+    /**
+     * Bir shard-in kocurme batch-i: member ucun SADD shard-in marker set-ine 1 qaytarirsa (hele kocurulmeyib) kohne xal
+     * shard-a ZINCRBY olunur. Sharding acilandan sonra canli yazmalar shard-a ZINCRBY edir, ZADD onlari silerdi; marker set
+     * ise tekrar isledilende xalin iki defe elave olunmasinin qarsisini alir.
+     * KEYS[1]: shard, KEYS[2]: shard-in marker set-i (eyni hash tag). ARGV: member, xal, member, xal, ... Cavab: kocurulen sayi
+     */
+    private static final DefaultRedisScript<Long> MIGRATE_BATCH_SCRIPT = new DefaultRedisScript<>("""
+            local migrated = 0
+            for i = 1, #ARGV, 2 do
+                if redis.call('SADD', KEYS[2], ARGV[i]) == 1 then
+                    redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i])
+                    migrated = migrated + 1
+                end
+            end
+            return migrated
+            """, Long.class);
+
+    public ShardedLeaderboardServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                         @Value("${leaderboard.sharding.enabled:false}") boolean enabled,
+                                         @Value("${leaderboard.sharding.shards:16}") int shardCount,
+                                         @Value("${leaderboard.sharding.migrate-on-startup:false}") boolean migrateOnStartup,
+                                         @Value("${leaderboard.sharding.max-page-depth:10000}") long maxPageDepth) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("leaderboard.sharding.shards must be positive: " + shardCount);
+        }
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.shardCount = shardCount;
+        this.migrateOnStartup = migrateOnStartup;
+        this.maxPageDepth = maxPageDepth;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String getShardKey(Long userId) {
+        return shardKey(Math.floorMod(Long.hashCode(userId), shardCount));
+    }
+
+    @Override
+    public List<String> getShardKeys() {
+        List<String> keys = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            keys.add(shardKey(i));
+        }
+        return keys;
+    }
+
+    @Override
+    public Long getGlobalRank(double score) {
+        // ZCOUNT key (score +inf, Math.nextUp score-un ozunu sayimdan cixarir
+        double above = Math.nextUp(score);
+        List<Object> counts = pipelineOverShards((ops, key) -> ops.count(key, above, Double.POSITIVE_INFINITY));
+        return sum(counts) + 1;
+    }
+
+    @Override
+    public Long getTotalPlayers() {
+        return sum(pipelineOverShards(ZSetOperations::size));
+    }
+
+    @Override
+    public Double getScore(Long userId) {
+        return redisTemplate.opsForZSet().score(getShardKey(userId), "user:" + userId);
+    }
+
+    /**
+     * Offset sehifesi: her shard-dan 0..end oxunur ve k-way merge olunur, yeni qiymet offset x shard sayi qederdir.
+     * Ona gore derinlik max-page-depth ile mehdudlasdirilir: sehife bu hedde kesilir, hedden kenarda bos qayidir.
+     * Daha derin yerler ucun getWindowAround istifade olunmalidir.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ZSetOperations.TypedTuple<Object>> getRange(long start, long count) {
+        if (count <= 0 || start >= maxPageDepth) {
+            return List.of();
+        }
+        long end = Math.min(start + count, maxPageDepth) - 1;
+        List<Object> perShard = pipelineOverShards((ops, key) -> ops.reverseRangeWithScores(key, 0, end));
+
+        PriorityQueue<ShardCursor> heap = new PriorityQueue<>(Comparator.comparingDouble(ShardCursor::score).reversed());
+        for (Object shard : perShard) {
+            Set<ZSetOperations.TypedTuple<Object>> tuples = (Set<ZSetOperations.TypedTuple<Object>>) shard;
+            if (tuples != null && !tuples.isEmpty()) {
+                Iterator<ZSetOperations.TypedTuple<Object>> iterator = tuples.iterator();
+                heap.add(new ShardCursor(iterator.next(), iterator));
+            }
+        }
+
+        List<ZSetOperations.TypedTuple<Object>> merged = new ArrayList<>((int) (end - start + 1));
+        long position = 0;
+        while (!heap.isEmpty() && position <= end) {
+            ShardCursor cursor = heap.poll();
+            if (position >= start) {
+                merged.add(cursor.head());
+            }
+            position++;
+            if (cursor.rest().hasNext()) {
+                heap.add(new ShardCursor(cursor.rest().next(), cursor.rest()));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Userin etrafindaki pencere: her shard-dan score-a en yaxin radius qeder yuxari ve asagi uzv alinir,
+     * sonra birlesdirilir. Deyeri rank-dan asili deyil.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ZSetOperations.TypedTuple<Object>> getWindowAround(Long userId, double score, int radius) {
+        double above = Math.nextUp(score);
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public Object execute(RedisOperations operations) {
+                ZSetOperations<String, Object> ops = operations.opsForZSet();
+                for (int i = 0; i < shardCount; i++) {
+                    ops.rangeByScoreWithScores(shardKey(i), above, Double.POSITIVE_INFINITY, 0, radius + 1);
+                    ops.reverseRangeByScoreWithScores(shardKey(i), Double.NEGATIVE_INFINITY, score, 0, radius + 1);
+                }
+                return null;
+            }
+        });
+
+        Object self = "user:" + userId;
+        List<ZSetOperations.TypedTuple<Object>> higher = new ArrayList<>();
+        List<ZSetOperations.TypedTuple<Object>> lower = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            Set<ZSetOperations.TypedTuple<Object>> tuples = (Set<ZSetOperations.TypedTuple<Object>>) results.get(i);
+            if (tuples == null) {
+                continue;
+            }
+            for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+                if (!self.equals(tuple.getValue())) {
+                    (i % 2 == 0 ? higher : lower).add(tuple);
+                }
+            }
+        }
+        higher.sort(Comparator.comparingDouble(ZSetOperations.TypedTuple::getScore));
+        lower.sort(Comparator.comparingDouble((ZSetOperations.TypedTuple<Object> t) -> t.getScore()).reversed());
+
+        List<ZSetOperations.TypedTuple<Object>> window = new ArrayList<>(radius * 2 + 1);
+        List<ZSetOperations.TypedTuple<Object>> nearestHigher = higher.subList(0, Math.min(radius, higher.size()));
+        for (int i = nearestHigher.size() - 1; i >= 0; i--) {
+            window.add(nearestHigher.get(i));
+        }
+        window.add(ZSetOperations.TypedTuple.of(self, score));
+        window.addAll(lower.subList(0, Math.min(radius, lower.size())));
+        return window;
+    }
+
+    /**
+     * Tek key-den (leaderboard:global) shard-lara kocurme. ZSCAN ile hisse-hisse oxuyur ve her batch-i
+     * shard-lara gore qruplasdirib her shard ucun bir script ile xala elave edir (canli ZINCRBY-lar itmir, tekrar
+     * isledilmek tehlukesizdir). Her script yalniz bir slot-a toxunur, Redis Cluster-de CROSSSLOT olmur.
+     * Menbe key ve leaderboard:global:{shard:i}:migrated set-leri silinmir, yoxlamadan sonra elle silinmelidir.
+     */
+    @Override
+    public long migrateFromSingleKey(String sourceKey) {
+        long migrated = 0;
+        List<ZSetOperations.TypedTuple<Object>> batch = new ArrayList<>(MIGRATION_BATCH_SIZE);
+        try (Cursor<ZSetOperations.TypedTuple<Object>> cursor = redisTemplate.opsForZSet()
+                .scan(sourceKey, ScanOptions.scanOptions().count(MIGRATION_BATCH_SIZE).build())) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == MIGRATION_BATCH_SIZE) {
+                    migrated += writeBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            migrated += writeBatch(batch);
+        }
+        log.info("Leaderboard migration: {} -> {} shard, {} member", sourceKey, shardCount, migrated);
+        return migrated;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (enabled && migrateOnStartup) {
+            migrateFromSingleKey(GLOBAL_LEADERBOARD);
+        }
+    }
+
+    private long writeBatch(List<ZSetOperations.TypedTuple<Object>> batch) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        Map<Integer, List<byte[]>> argsByShard = new HashMap<>();
+        for (ZSetOperations.TypedTuple<Object> tuple : batch) {
+            Long userId = Long.parseLong(tuple.getValue().toString().replace("user:", ""));
+            List<byte[]> args = argsByShard.computeIfAbsent(Math.floorMod(Long.hashCode(userId), shardCount), shard -> new ArrayList<>());
+            // member ZSET-de value serializer ile saxlanir, xal duz reqem kimi
+            args.add(valueSerializer.serialize(tuple.getValue()));
+            args.add(String.valueOf(tuple.getScore()).getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] script = MIGRATE_BATCH_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<Integer, List<byte[]>> shard : argsByShard.entrySet()) {
+                String key = shardKey(shard.getKey());
+                List<byte[]> keysAndArgs = new ArrayList<>(shard.getValue().size() + 2);
+                keysAndArgs.add(key.getBytes(StandardCharsets.UTF_8));
+                keysAndArgs.add((key + MIGRATED_SUFFIX).getBytes(StandardCharsets.UTF_8));
+                keysAndArgs.addAll(shard.getValue());
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 2, keysAndArgs.toArray(new byte[0][]));
+            }
+            return null;
+        });
+        return sum(replies);
+    }
+
+    private String shardKey(int shard) {
+        return GLOBAL_LEADERBOARD + ":{shard:" + shard + "}";
+    }
+
+    private List<Object> pipelineOverShards(ShardCommand command) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                ZSetOperations<String, Object> ops = operations.opsForZSet();
+                for (int i = 0; i < shardCount; i++) {
+                    command.apply(ops, shardKey(i));
+                }
+                return null;
+            }
+        });
+    }
+
+    private long sum(List<Object> values) {
+        long total = 0;
+        for (Object value : values) {
+            if (value instanceof Number number) {
+                total += number.longValue();
+            }
+        }
+        return total;
+    }
+
+    private interface ShardCommand {
+        void apply(ZSetOperations<String, Object> ops, String key);
+    }
+
+    private record ShardCursor(ZSetOperations.TypedTuple<Object> head,
+                               Iterator<ZSetOperations.TypedTuple<Object>> rest) {
+        double score() {
+            return head.getScore() != null ? head.getScore() : 0.0;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.model.Clan;
+import com.project.redis.model.ClanMember;
+import com.project.redis.model.Friendship;
+import com.project.redis.repository.ClanMemberRepository;
+import com.project.redis.repository.ClanRepository;
+import com.project.redis.repository.FriendshipRepository;
+import com.project.redis.service.ISocialService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dostluq ve klan qrafi. Postgres esas menbedir, Redis-de her qrup "user:{id}" member-li set kimi saxlanir
+ * (leaderboard ZSET-leri ile eyni member formati), ona gore qrup leaderboard-u set-i birbasa ZMSCORE-a vere bilir.
+ * Set-ler oxunanda DB-den doldurulur ve set-ttl-minutes sonra dusur, yazmalar yalniz movcud set-e elave olunur.
+ * Set yazmalari transaction commit olandan sonra gedir: rollback olan deyisiklik Redis-e dusmur.
+ */
+@Service
+@Slf4j
+public class SocialServiceImpl implements ISocialService {
+    private static final String FRIENDS_KEY_PREFIX = "social:friends:";
+    private static final String CLAN_KEY_PREFIX = "social:clan:";
+    private static final String CLAN_MEMBERS_SUFFIX = ":members";
+
+    // set yoxdursa toxunmur: natamam set yaranmasin, novbeti oxuma DB-den tam doldurur
+    private static final DefaultRedisScript<Long> ADD_IF_EXISTS_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            return redis.call('SADD', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final FriendshipRepository friendshipRepository;
+    private final ClanRepository clanRepository;
+    private final ClanMemberRepository clanMemberRepository;
+    private final Duration setTtl;
+    private final int maxFriends;
+    private final int maxClanMembers;
+
+    public SocialServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                             FriendshipRepository friendshipRepository,
+                             ClanRepository clanRepository,
+                             ClanMemberRepository clanMemberRepository,
+                             @Value("${social.set-ttl-minutes:60}") long setTtlMinutes,
+                             @Value("${social.friends.max:500}") int maxFriends,
+                             @Value("${social.clan.max-members:500}") int maxClanMembers) {
+        this.redisTemplate = redisTemplate;
+        this.friendshipRepository = friendshipRepository;
+        this.clanRepository = clanRepository;
+        this.clanMemberRepository = clanMemberRepository;
+        this.setTtl = Duration.ofMinutes(setTtlMinutes);
+        this.maxFriends = maxFriends;
+        this.maxClanMembers = maxClanMembers;
+    }
+
+    @Override
+    @Transactional
+    public void addFriend(Long userId, Long friendId) {
+        if (userId.equals(friendId)) {
+            throw new IllegalArgumentException("User cannot add itself as a friend");
+        }
+        if (friendshipRepository.existsById(new Friendship.Key(userId, friendId))) {
+            return;
+        }
+        // dostluq iki terefli yazilir, limit her iki user ucun yoxlanir
+        if (friendshipRepository.countByUserId(userId) >= maxFriends) {
+            throw new IllegalArgumentException("Friend limit reached: " + maxFriends);
+        }
+        if (friendshipRepository.countByUserId(friendId) >= maxFriends) {
+            throw new IllegalArgumentException("Friend limit reached for user " + friendId + ": " + maxFriends);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        friendshipRepository.saveAll(List.of(
+                Friendship.builder().userId(userId).friendId(friendId).createdAt(now).build(),
+                Friendship.builder().userId(friendId).friendId(userId).createdAt(now).build()));
+        afterCommit(() -> {
+            addIfExists(friendsKey(userId), friendId);
+            addIfExists(friendsKey(friendId), userId);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void removeFriend(Long userId, Long friendId) {
+        friendshipRepository.deleteAllById(List.of(new Friendship.Key(userId, friendId), new Friendship.Key(friendId, userId)));
+        afterCommit(() -> {
+            redisTemplate.opsForSet().remove(friendsKey(userId), getMember(friendId));
+            redisTemplate.opsForSet().remove(friendsKey(friendId), getMember(userId));
+        });
+    }
+
+    @Override
+    public List<Long> getFriendIds(Long userId) {
+        return friendshipRepository.findByUserId(userId).stream().map(Friendship::getFriendId).toList();
+    }
+
+    @Override
+    @Transactional
+    public Clan createClan(Long ownerId, String name) {
+        String clanName = name.trim();
+        if (clanRepository.existsByName(clanName)) {
+            throw new IllegalArgumentException("Clan name already taken: " + clanName);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Clan clan = clanRepository.save(Clan.builder()
+                .name(clanName)
+                .ownerId(ownerId)
+                .createdAt(now)
+                .build());
+        clanMemberRepository.save(ClanMember.builder().clanId(clan.getId()).userId(ownerId).joinedAt(now).build());
+        return clan;
+    }
+
+    @Override
+    @Transactional
+    public void joinClan(Long userId, Long clanId) {
+        if (!clanRepository.existsById(clanId)) {
+            throw new IllegalArgumentException("Clan not found: " + clanId);
+        }
+        if (clanMemberRepository.existsById(new ClanMember.Key(clanId, userId))) {
+            return;
+        }
+        if (clanMemberRepository.countByClanId(clanId) >= maxClanMembers) {
+            throw new IllegalArgumentException("Clan is full: " + clanId);
+        }
+        clanMemberRepository.save(ClanMember.builder().clanId(clanId).userId(userId).joinedAt(LocalDateTime.now()).build());
+        afterCommit(() -> addIfExists(clanMembersKey(clanId), userId));
+    }
+
+    @Override
+    @Transactional
+    public void leaveClan(Long userId, Long clanId) {
+        clanMemberRepository.deleteById(new ClanMember.Key(clanId, userId));
+        afterCommit(() -> redisTemplate.opsForSet().remove(clanMembersKey(clanId), getMember(userId)));
+    }
+
+    @Override
+    public List<Long> getClanMemberIds(Long clanId) {
+        return clanMemberRepository.findByClanId(clanId).stream().map(ClanMember::getUserId).toList();
+    }
+
+    @Override
+    public String friendsKey(Long userId) {
+        return FRIENDS_KEY_PREFIX + userId;
+    }
+
+    @Override
+    public String clanMembersKey(Long clanId) {
+        return CLAN_KEY_PREFIX + clanId + CLAN_MEMBERS_SUFFIX;
+    }
+
+    /**
+     * Set-i DB-den doldurur. Dostu olmayan user ucun set yaranmir, false qaytarir.
+     */
+    @Override
+    public boolean hydrateFriends(Long userId) {
+        return hydrate(friendsKey(userId), getFriendIds(userId));
+    }
+
+    @Override
+    public boolean hydrateClanMembers(Long clanId) {
+        return hydrate(clanMembersKey(clanId), getClanMemberIds(clanId));
+    }
+
+    private boolean hydrate(String key, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return false;
+        }
+        Object[] members = userIds.stream().map(this::getMember).toArray();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForSet().add(key, members);
+                operations.expire(key, setTtl);
+                return null;
+            }
+        });
+        log.debug("Social set hydrated: {} ({} member)", key, members.length);
+        return true;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void addIfExists(String key, Long userId) {
+        redisTemplate.execute(ADD_IF_EXISTS_SCRIPT, List.of(key), getMember(userId));
+    }
+
+    private String getMember(Long userId) {
+        return "user:" + userId;
+    }
+}
@@ -0,0 +1,147 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.request.StatsBucketRow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bir rollup-un (user + oyun, oyun + gun, oyun) deyerleri. Redis hash field-leri ile eyni adlari dasiyir:
+ * matches, wins, losses, draws, scoreSum, scoreMin, scoreMax, durationSum, h0..h{buckets-1}.
+ */
+final class StatsAggregate {
+    static final String HISTOGRAM_FIELD_PREFIX = "h";
+
+    long matches;
+    long wins;
+    long losses;
+    long draws;
+    long scoreSum;
+    Long scoreMin;
+    Long scoreMax;
+    long durationSum;
+    final long[] histogram;
+
+    StatsAggregate(int buckets) {
+        this.histogram = new long[buckets];
+    }
+
+    static StatsAggregate fromHash(Map<?, ?> fields, int buckets) {
+        StatsAggregate aggregate = new StatsAggregate(buckets);
+        aggregate.matches = longField(fields, "matches");
+        aggregate.wins = longField(fields, "wins");
+        aggregate.losses = longField(fields, "losses");
+        aggregate.draws = longField(fields, "draws");
+        aggregate.scoreSum = longField(fields, "scoreSum");
+        aggregate.durationSum = longField(fields, "durationSum");
+        aggregate.scoreMin = fields.get("scoreMin") != null ? Long.parseLong(fields.get("scoreMin").toString()) : null;
+        aggregate.scoreMax = fields.get("scoreMax") != null ? Long.parseLong(fields.get("scoreMax").toString()) : null;
+        for (int i = 0; i < buckets; i++) {
+            aggregate.histogram[i] = longField(fields, HISTOGRAM_FIELD_PREFIX + i);
+        }
+        return aggregate;
+    }
+
+    static StatsAggregate fromColumns(long matches, long wins, long losses, long draws, long scoreSum,
+                                      Long scoreMin, Long scoreMax, long durationSum, String histogram, int buckets) {
+        StatsAggregate aggregate = new StatsAggregate(buckets);
+        aggregate.matches = matches;
+        aggregate.wins = wins;
+        aggregate.losses = losses;
+        aggregate.draws = draws;
+        aggregate.scoreSum = scoreSum;
+        aggregate.scoreMin = scoreMin;
+        aggregate.scoreMax = scoreMax;
+        aggregate.durationSum = durationSum;
+        if (histogram != null && !histogram.isEmpty()) {
+            String[] counts = histogram.split(",");
+            for (int i = 0; i < Math.min(counts.length, buckets); i++) {
+                aggregate.histogram[i] = Long.parseLong(counts[i]);
+            }
+        }
+        return aggregate;
+    }
+
+    static StatsAggregate fromRow(StatsBucketRow row, int buckets) {
+        StatsAggregate aggregate = new StatsAggregate(buckets);
+        aggregate.matches = row.getMatches();
+        aggregate.wins = row.getWins();
+        aggregate.losses = row.getLosses();
+        aggregate.draws = row.getDraws();
+        aggregate.scoreSum = row.getScoreSum();
+        aggregate.scoreMin = row.getScoreMin();
+        aggregate.scoreMax = row.getScoreMax();
+        aggregate.durationSum = row.getDurationSum();
+        aggregate.histogram[row.getBucket()] = row.getMatches();
+        return aggregate;
+    }
+
+    /**
+     * Arxiv xulasesi: min score ve histogram saxlanmir, ona gore bos qalir.
+     */
+    static StatsAggregate fromArchivedRow(StatsBucketRow row, int buckets) {
+        return fromColumns(row.getMatches(), row.getWins(), row.getLosses(), row.getDraws(), row.getScoreSum(),
+                null, row.getScoreMax(), row.getDurationSum(), null, buckets);
+    }
+
+    void merge(StatsAggregate other) {
+        matches += other.matches;
+        wins += other.wins;
+        losses += other.losses;
+        draws += other.draws;
+        scoreSum += other.scoreSum;
+        durationSum += other.durationSum;
+        if (other.scoreMin != null && (scoreMin == null || other.scoreMin < scoreMin)) {
+            scoreMin = other.scoreMin;
+        }
+        if (other.scoreMax != null && (scoreMax == null || other.scoreMax > scoreMax)) {
+            scoreMax = other.scoreMax;
+        }
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] += other.histogram[i];
+        }
+    }
+
+    Map<String, String> toHash() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("matches", String.valueOf(matches));
+        fields.put("wins", String.valueOf(wins));
+        fields.put("losses", String.valueOf(losses));
+        fields.put("draws", String.valueOf(draws));
+        fields.put("scoreSum", String.valueOf(scoreSum));
+        fields.put("durationSum", String.valueOf(durationSum));
+        if (scoreMin != null) {
+            fields.put("scoreMin", String.valueOf(scoreMin));
+        }
+        if (scoreMax != null) {
+            fields.put("scoreMax", String.valueOf(scoreMax));
+        }
+        for (int i = 0; i < histogram.length; i++) {
+            fields.put(HISTOGRAM_FIELD_PREFIX + i, String.valueOf(histogram[i]));
+        }
+        return fields;
+    }
+
+    String histogramCsv() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < histogram.length; i++) {
+            csv.append(i == 0 ? "" : ",").append(histogram[i]);
+        }
+        return csv.toString();
+    }
+
+    List<Long> histogramList() {
+        List<Long> counts = new ArrayList<>(histogram.length);
+        for (long count : histogram) {
+            counts.add(count);
+        }
+        return counts;
+    }
+
+    private static long longField(Map<?, ?> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+}
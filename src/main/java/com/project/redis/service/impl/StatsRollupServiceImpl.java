@@ -0,0 +1,560 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.request.PendingMatch;
+import com.project.redis.dto.request.StatsBucketRow;
+import com.project.redis.dto.response.StatsRollupResponse;
+import com.project.redis.model.GameDailyStats;
+import com.project.redis.model.UserGameStats;
+import com.project.redis.repository.GameDailyStatsRepository;
+import com.project.redis.repository.StatsRollupRepository;
+import com.project.redis.repository.UserGameStatsRepository;
+import com.project.redis.service.IMatchWriteBehindService;
+import com.project.redis.service.IStatsRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Match bitende artimli yenilenen statistika rollup-lari:
+ * <ul>
+ *     <li>stats:user-game:{userId}:{gameId} HASH: user-in oyun uzre statistikasi</li>
+ *     <li>stats:game-day:{gameId}:{yyyy-MM-dd} HASH: oyunun gunluk statistikasi (game-day-ttl-days qeder Redis-de qalir)</li>
+ *     <li>stats:game:{gameId} HASH: oyunun umumi statistikasi, DB-ye yazilmir (game_daily_stats cemi ile berpa olunur)</li>
+ * </ul>
+ * Her hash counter-ler, score min/max ve score histogram-i (h0..hN) saxlayir, bir Lua cagirisi ile ucu birden yenilenir.
+ * Hash-lar absolyut deyerdir: flush onlari user_game_stats / game_daily_stats-e upsert edir (idempotent),
+ * Redis-de olmayan hash evvelce DB-den doldurulur ki, kohne deyer kicik deyerle ezilmesin.
+ */
+@Service
+@Slf4j
+public class StatsRollupServiceImpl implements IStatsRollupService {
+    private static final String USER_GAME_KEY_PREFIX = "stats:user-game:";
+    private static final String GAME_DAY_KEY_PREFIX = "stats:game-day:";
+    private static final String GAME_KEY_PREFIX = "stats:game:";
+    private static final String DIRTY_USER_GAME = "stats:dirty:user-game";
+    private static final String DIRTY_GAME_DAY = "stats:dirty:game-day";
+    private static final int MAX_DAYS = 366;
+    private static final int WRITE_CHUNK_SIZE = 1000;
+
+    // hash-lardan biri yoxdursa hec neye toxunmur ve 0 qaytarir (caller DB-den doldurub tekrarlayir)
+    private static final DefaultRedisScript<Long> ROLLUP_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, 3 do
+                if redis.call('EXISTS', KEYS[i]) == 0 then
+                    return 0
+                end
+            end
+            local score = tonumber(ARGV[2])
+            for i = 1, 3 do
+                redis.call('HINCRBY', KEYS[i], 'matches', 1)
+                redis.call('HINCRBY', KEYS[i], ARGV[1], 1)
+                redis.call('HINCRBY', KEYS[i], 'scoreSum', ARGV[2])
+                redis.call('HINCRBY', KEYS[i], 'durationSum', ARGV[3])
+                redis.call('HINCRBY', KEYS[i], ARGV[4], 1)
+                local min = redis.call('HGET', KEYS[i], 'scoreMin')
+                if not min or score < tonumber(min) then
+                    redis.call('HSET', KEYS[i], 'scoreMin', ARGV[2])
+                end
+                local max = redis.call('HGET', KEYS[i], 'scoreMax')
+                if not max or score > tonumber(max) then
+                    redis.call('HSET', KEYS[i], 'scoreMax', ARGV[2])
+                end
+            end
+            redis.call('EXPIRE', KEYS[2], ARGV[5])
+            redis.call('SADD', KEYS[4], ARGV[6])
+            redis.call('SADD', KEYS[5], ARGV[7])
+            return 1
+            """, Long.class);
+
+    // hash-i bir addimda evez edir: DEL ile HSET arasinda gelen ROLLUP_SCRIPT key-i yox gorub hydrate etmir
+    private static final DefaultRedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            if tonumber(ARGV[1]) > 0 then
+                redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    // yalniz key hele yoxdursa yazir: paralel doldurma artiq gelmis artimlari ezmir
+    private static final DefaultRedisScript<Long> HYDRATE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            if tonumber(ARGV[1]) > 0 then
+                redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserGameStatsRepository userGameStatsRepository;
+    private final GameDailyStatsRepository gameDailyStatsRepository;
+    private final StatsRollupRepository statsRollupRepository;
+    private final IMatchWriteBehindService matchWriteBehindService;
+    private final int bucketWidth;
+    private final int buckets;
+    private final int gameDayTtlDays;
+    private final int flushBatchSize;
+
+    public StatsRollupServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                  UserGameStatsRepository userGameStatsRepository,
+                                  GameDailyStatsRepository gameDailyStatsRepository,
+                                  StatsRollupRepository statsRollupRepository,
+                                  IMatchWriteBehindService matchWriteBehindService,
+                                  @Value("${stats.histogram.bucket-width:10}") int bucketWidth,
+                                  @Value("${stats.histogram.buckets:20}") int buckets,
+                                  @Value("${stats.game-day-ttl-days:14}") int gameDayTtlDays,
+                                  @Value("${stats.flush-batch-size:1000}") int flushBatchSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.userGameStatsRepository = userGameStatsRepository;
+        this.gameDailyStatsRepository = gameDailyStatsRepository;
+        this.statsRollupRepository = statsRollupRepository;
+        this.matchWriteBehindService = matchWriteBehindService;
+        this.bucketWidth = bucketWidth;
+        this.buckets = buckets;
+        this.gameDayTtlDays = gameDayTtlDays;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @Override
+    public void recordMatch(PendingMatch match) {
+        int score = match.getScore() != null ? match.getScore() : 0;
+        int duration = match.getDuration() != null ? match.getDuration() : 0;
+        LocalDate day = match.getCreatedAt().toLocalDate();
+        String userGameMember = match.getUserId() + ":" + match.getGameId();
+        String gameDayMember = match.getGameId() + ":" + day;
+        String gameMember = String.valueOf(match.getGameId());
+        List<String> keys = List.of(USER_GAME_KEY_PREFIX + userGameMember, GAME_DAY_KEY_PREFIX + gameDayMember,
+                GAME_KEY_PREFIX + gameMember, DIRTY_USER_GAME, DIRTY_GAME_DAY);
+        Object[] args = {
+                resultField(match), String.valueOf(score), String.valueOf(duration),
+                StatsAggregate.HISTOGRAM_FIELD_PREFIX + bucketOf(score), String.valueOf(gameDayTtlSeconds()),
+                userGameMember, gameDayMember
+        };
+
+        Long applied = stringRedisTemplate.execute(ROLLUP_SCRIPT, keys, args);
+        if (applied == null || applied == 0) {
+            hydrate(match.getUserId(), match.getGameId(), day);
+            stringRedisTemplate.execute(ROLLUP_SCRIPT, keys, args);
+        }
+    }
+
+    @Override
+    public StatsRollupResponse getUserGameStats(Long userId, Long gameId) {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(USER_GAME_KEY_PREFIX + userId + ":" + gameId);
+        StatsAggregate aggregate = !fields.isEmpty()
+                ? StatsAggregate.fromHash(fields, buckets)
+                : loadUserGame(userId, gameId);
+        return toResponse(aggregate, userId, gameId, null);
+    }
+
+    @Override
+    public StatsRollupResponse getGameStats(Long gameId) {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(GAME_KEY_PREFIX + gameId);
+        StatsAggregate aggregate = !fields.isEmpty()
+                ? StatsAggregate.fromHash(fields, buckets)
+                : loadGame(gameId);
+        return toResponse(aggregate, null, gameId, null);
+    }
+
+    @Override
+    public List<StatsRollupResponse> getGameDailyStats(Long gameId, LocalDate from, LocalDate to) {
+        LocalDate last = to.isAfter(from.plusDays(MAX_DAYS - 1)) ? from.plusDays(MAX_DAYS - 1) : to;
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(last); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        if (days.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (LocalDate day : days) {
+                    operations.opsForHash().entries(GAME_DAY_KEY_PREFIX + gameId + ":" + day);
+                }
+                return null;
+            }
+        });
+
+        // Redis-de olmayan (kohne ve ya expire olmus) gunler bir sorgu ile DB-den
+        Map<LocalDate, GameDailyStats> stored = null;
+        List<StatsRollupResponse> responses = new ArrayList<>(days.size());
+        for (int i = 0; i < days.size(); i++) {
+            Map<?, ?> fields = (Map<?, ?>) results.get(i);
+            StatsAggregate aggregate;
+            if (fields != null && !fields.isEmpty()) {
+                aggregate = StatsAggregate.fromHash(fields, buckets);
+            } else {
+                if (stored == null) {
+                    stored = new HashMap<>();
+                    for (GameDailyStats row : gameDailyStatsRepository.findByGameIdAndDayBetween(gameId, from, last)) {
+                        stored.put(row.getDay(), row);
+                    }
+                }
+                GameDailyStats row = stored.get(days.get(i));
+                aggregate = row != null ? fromEntity(row) : new StatsAggregate(buckets);
+            }
+            responses.add(toResponse(aggregate, null, gameId, days.get(i)));
+        }
+        return responses;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stats.flush-interval-ms:10000}")
+    public int flush() {
+        LocalDateTime now = LocalDateTime.now();
+        int flushed = flushDirty(DIRTY_USER_GAME, USER_GAME_KEY_PREFIX, (members, aggregates) -> {
+            List<UserGameStats> rows = new ArrayList<>(members.size());
+            for (int i = 0; i < members.size(); i++) {
+                String[] ids = members.get(i).split(":");
+                rows.add(toUserGameEntity(Long.parseLong(ids[0]), Long.parseLong(ids[1]), aggregates.get(i), now));
+            }
+            statsRollupRepository.upsertUserGameStats(rows);
+        });
+        flushed += flushDirty(DIRTY_GAME_DAY, GAME_DAY_KEY_PREFIX, (members, aggregates) -> {
+            List<GameDailyStats> rows = new ArrayList<>(members.size());
+            for (int i = 0; i < members.size(); i++) {
+                String[] parts = members.get(i).split(":");
+                rows.add(toGameDayEntity(Long.parseLong(parts[0]), LocalDate.parse(parts[1]), aggregates.get(i), now));
+            }
+            statsRollupRepository.upsertGameDailyStats(rows);
+        });
+        if (flushed > 0) {
+            log.debug("Stats rollups flushed: {} row", flushed);
+        }
+        return flushed;
+    }
+
+    /**
+     * Butun rollup-lari matches tarixcesinden yeniden qurur. Her ay ayrica task-dir: sorgular ay araligi ile getdiyi ucun
+     * Postgres her task-da yalniz bir partition-u oxuyur ve task-lar paralel isleyir.
+     * Arxivlenmis (drop olunmus) aylar match_monthly_summaries-den user + oyun ve oyun cemlerine elave olunur
+     * (histogram ve min score yalniz arxivlenmemis match-lardan), gunluk statistikalari ise DB-de oldugu kimi qalir.
+     * Hash-lar atomik evez olunur, amma scan-dan sonra gelen recordMatch artimlari evezlemede itir:
+     * backfill match qebulu dayandirilmis halda isledilmelidir.
+     */
+    @Override
+    public int backfill(int parallelism) {
+        // write-behind-de gozleyen match-lar da sayilsin
+        matchWriteBehindService.drain();
+        LocalDateTime[] range = statsRollupRepository.findMatchTimeRange();
+        long startedAt = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            // matches bos ola biler (butun aylar arxivlenib), onda yalniz xulaseler qalir
+            List<Future<Rollups>> months = new ArrayList<>();
+            YearMonth last = range != null ? YearMonth.from(range[1]) : null;
+            for (YearMonth month = range != null ? YearMonth.from(range[0]) : null; month != null && !month.isAfter(last); month = month.plusMonths(1)) {
+                LocalDateTime from = month.atDay(1).atStartOfDay();
+                LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+                months.add(executor.submit(() -> scan(from, to)));
+            }
+
+            Rollups total = new Rollups();
+            for (StatsBucketRow row : statsRollupRepository.aggregateArchivedByUserGame()) {
+                mergeInto(total.userGames, row.getUserId() + ":" + row.getGameId(), StatsAggregate.fromArchivedRow(row, buckets));
+            }
+            for (Future<Rollups> month : months) {
+                Rollups rollups = month.get();
+                rollups.userGames.forEach((member, aggregate) -> mergeInto(total.userGames, member, aggregate));
+                rollups.gameDays.forEach((member, aggregate) -> mergeInto(total.gameDays, member, aggregate));
+            }
+            Map<String, StatsAggregate> games = new HashMap<>();
+            // oyun cemi user + oyun cemlerinden (arxivlenmis aylar yalniz orada var), yeni obyekte yigilir ki user + oyun deyerleri deyismesin
+            total.userGames.forEach((member, aggregate) -> games
+                    .computeIfAbsent(member.substring(member.indexOf(':') + 1), gameId -> new StatsAggregate(buckets))
+                    .merge(aggregate));
+
+            int written = store(total.userGames, total.gameDays, games);
+            log.info("Stats rollups rebuilt: {} month, {} row in {} ms",
+                    months.size(), written, System.currentTimeMillis() - startedAt);
+            return written;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stats backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Stats backfill failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Rollups scan(LocalDateTime from, LocalDateTime to) {
+        Rollups rollups = new Rollups();
+        for (StatsBucketRow row : statsRollupRepository.aggregateByUserGame(from, to, bucketWidth, buckets)) {
+            mergeInto(rollups.userGames, row.getUserId() + ":" + row.getGameId(), StatsAggregate.fromRow(row, buckets));
+        }
+        for (StatsBucketRow row : statsRollupRepository.aggregateByGameDay(from, to, bucketWidth, buckets)) {
+            mergeInto(rollups.gameDays, row.getGameId() + ":" + row.getDay(), StatsAggregate.fromRow(row, buckets));
+        }
+        return rollups;
+    }
+
+    private int store(Map<String, StatsAggregate> userGames, Map<String, StatsAggregate> gameDays, Map<String, StatsAggregate> games) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate oldestCachedDay = LocalDate.now().minusDays(gameDayTtlDays);
+        Duration ttl = Duration.ofSeconds(gameDayTtlSeconds());
+
+        List<Map.Entry<String, StatsAggregate>> userGameEntries = new ArrayList<>(userGames.entrySet());
+        for (int from = 0; from < userGameEntries.size(); from += WRITE_CHUNK_SIZE) {
+            List<Map.Entry<String, StatsAggregate>> chunk = userGameEntries.subList(from, Math.min(from + WRITE_CHUNK_SIZE, userGameEntries.size()));
+            replaceHashes(USER_GAME_KEY_PREFIX, chunk, null);
+            statsRollupRepository.upsertUserGameStats(chunk.stream().map(entry -> {
+                String[] ids = entry.getKey().split(":");
+                return toUserGameEntity(Long.parseLong(ids[0]), Long.parseLong(ids[1]), entry.getValue(), now);
+            }).toList());
+        }
+
+        List<Map.Entry<String, StatsAggregate>> gameDayEntries = new ArrayList<>(gameDays.entrySet());
+        for (int from = 0; from < gameDayEntries.size(); from += WRITE_CHUNK_SIZE) {
+            List<Map.Entry<String, StatsAggregate>> chunk = gameDayEntries.subList(from, Math.min(from + WRITE_CHUNK_SIZE, gameDayEntries.size()));
+            // Redis-e yalniz ttl penceresindeki gunler gedir, kohneler DB-den oxunur
+            replaceHashes(GAME_DAY_KEY_PREFIX, chunk.stream()
+                    .filter(entry -> !LocalDate.parse(entry.getKey().split(":")[1]).isBefore(oldestCachedDay))
+                    .toList(), ttl);
+            statsRollupRepository.upsertGameDailyStats(chunk.stream().map(entry -> {
+                String[] parts = entry.getKey().split(":");
+                return toGameDayEntity(Long.parseLong(parts[0]), LocalDate.parse(parts[1]), entry.getValue(), now);
+            }).toList());
+        }
+
+        List<Map.Entry<String, StatsAggregate>> gameEntries = new ArrayList<>(games.entrySet());
+        replaceHashes(GAME_KEY_PREFIX, gameEntries, null);
+
+        return userGameEntries.size() + gameDayEntries.size() + gameEntries.size();
+    }
+
+    private void replaceHashes(String keyPrefix, List<Map.Entry<String, StatsAggregate>> entries, Duration ttl) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        byte[] script = REPLACE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        String ttlSeconds = String.valueOf(ttl != null ? ttl.toSeconds() : 0);
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (Map.Entry<String, StatsAggregate> entry : entries) {
+                    List<byte[]> keysAndArgs = new ArrayList<>();
+                    keysAndArgs.add((keyPrefix + entry.getKey()).getBytes(StandardCharsets.UTF_8));
+                    keysAndArgs.add(ttlSeconds.getBytes(StandardCharsets.UTF_8));
+                    entry.getValue().toHash().forEach((field, value) -> {
+                        keysAndArgs.add(field.getBytes(StandardCharsets.UTF_8));
+                        keysAndArgs.add(value.getBytes(StandardCharsets.UTF_8));
+                    });
+                    // pipeline-da NOSCRIPT tutula bilmir, ona gore EVALSHA yox EVAL
+                    operations.execute((RedisCallback<Object>) connection -> connection.scriptingCommands()
+                            .eval(script, ReturnType.INTEGER, 1, keysAndArgs.toArray(new byte[0][])));
+                }
+                return null;
+            }
+        });
+    }
+
+    private int flushDirty(String dirtySet, String keyPrefix, RollupWriter writer) {
+        int flushed = 0;
+        List<String> members;
+        do {
+            members = stringRedisTemplate.opsForSet().pop(dirtySet, flushBatchSize);
+            if (members == null || members.isEmpty()) {
+                break;
+            }
+            List<String> batch = members;
+            List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    for (String member : batch) {
+                        operations.opsForHash().entries(keyPrefix + member);
+                    }
+                    return null;
+                }
+            });
+
+            List<String> present = new ArrayList<>(batch.size());
+            List<StatsAggregate> aggregates = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Map<?, ?> fields = (Map<?, ?>) results.get(i);
+                if (fields != null && !fields.isEmpty()) {
+                    present.add(batch.get(i));
+                    aggregates.add(StatsAggregate.fromHash(fields, buckets));
+                }
+            }
+            try {
+                writer.write(present, aggregates);
+            } catch (RuntimeException e) {
+                log.error("Stats rollup flush failed for {}, {} member marked dirty again", dirtySet, batch.size(), e);
+                stringRedisTemplate.opsForSet().add(dirtySet, batch.toArray(new String[0]));
+                throw e;
+            }
+            flushed += present.size();
+        } while (members.size() == flushBatchSize);
+        return flushed;
+    }
+
+    private void hydrate(Long userId, Long gameId, LocalDate day) {
+        String userGameKey = USER_GAME_KEY_PREFIX + userId + ":" + gameId;
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(userGameKey))) {
+            hydrateKey(userGameKey, loadUserGame(userId, gameId), 0);
+        }
+        String gameDayKey = GAME_DAY_KEY_PREFIX + gameId + ":" + day;
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(gameDayKey))) {
+            GameDailyStats row = gameDailyStatsRepository.findById(new GameDailyStats.Key(gameId, day)).orElse(null);
+            hydrateKey(gameDayKey, row != null ? fromEntity(row) : new StatsAggregate(buckets), gameDayTtlSeconds());
+        }
+        String gameKey = GAME_KEY_PREFIX + gameId;
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(gameKey))) {
+            hydrateKey(gameKey, loadGame(gameId), 0);
+        }
+    }
+
+    private void hydrateKey(String key, StatsAggregate aggregate, long ttlSeconds) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttlSeconds));
+        aggregate.toHash().forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        stringRedisTemplate.execute(HYDRATE_SCRIPT, List.of(key), args.toArray());
+    }
+
+    private StatsAggregate loadUserGame(Long userId, Long gameId) {
+        return userGameStatsRepository.findById(new UserGameStats.Key(userId, gameId))
+                .map(row -> StatsAggregate.fromColumns(row.getMatches(), row.getWins(), row.getLosses(), row.getDraws(),
+                        row.getScoreSum(), row.getScoreMin(), row.getScoreMax(), row.getDurationSum(), row.getHistogram(), buckets))
+                .orElseGet(() -> new StatsAggregate(buckets));
+    }
+
+    private StatsAggregate loadGame(Long gameId) {
+        StatsAggregate total = new StatsAggregate(buckets);
+        for (GameDailyStats row : gameDailyStatsRepository.findByGameId(gameId)) {
+            total.merge(fromEntity(row));
+        }
+        return total;
+    }
+
+    private StatsAggregate fromEntity(GameDailyStats row) {
+        return StatsAggregate.fromColumns(row.getMatches(), row.getWins(), row.getLosses(), row.getDraws(),
+                row.getScoreSum(), row.getScoreMin(), row.getScoreMax(), row.getDurationSum(), row.getHistogram(), buckets);
+    }
+
+    private UserGameStats toUserGameEntity(Long userId, Long gameId, StatsAggregate aggregate, LocalDateTime now) {
+        return UserGameStats.builder()
+                .userId(userId)
+                .gameId(gameId)
+                .matches(aggregate.matches)
+                .wins(aggregate.wins)
+                .losses(aggregate.losses)
+                .draws(aggregate.draws)
+                .scoreSum(aggregate.scoreSum)
+                .scoreMin(aggregate.scoreMin)
+                .scoreMax(aggregate.scoreMax)
+                .durationSum(aggregate.durationSum)
+                .histogram(aggregate.histogramCsv())
+                .updatedAt(now)
+                .build();
+    }
+
+    private GameDailyStats toGameDayEntity(Long gameId, LocalDate day, StatsAggregate aggregate, LocalDateTime now) {
+        return GameDailyStats.builder()
+                .gameId(gameId)
+                .day(day)
+                .matches(aggregate.matches)
+                .wins(aggregate.wins)
+                .losses(aggregate.losses)
+                .draws(aggregate.draws)
+                .scoreSum(aggregate.scoreSum)
+                .scoreMin(aggregate.scoreMin)
+                .scoreMax(aggregate.scoreMax)
+                .durationSum(aggregate.durationSum)
+                .histogram(aggregate.histogramCsv())
+                .updatedAt(now)
+                .build();
+    }
+
+    private StatsRollupResponse toResponse(StatsAggregate aggregate, Long userId, Long gameId, LocalDate day) {
+        long matches = aggregate.matches;
+        return StatsRollupResponse.builder()
+                .userId(userId)
+                .gameId(gameId)
+                .day(day)
+                .matches(matches)
+                .wins(aggregate.wins)
+                .losses(aggregate.losses)
+                .draws(aggregate.draws)
+                .winRate(matches > 0 ? (double) aggregate.wins / matches : 0.0)
+                .averageScore(averageScore(aggregate))
+                .scoreMin(aggregate.scoreMin)
+                .scoreMax(aggregate.scoreMax)
+                .averageDuration(matches > 0 ? (double) aggregate.durationSum / matches : 0.0)
+                .histogramBucketWidth(bucketWidth)
+                .scoreHistogram(aggregate.histogramList())
+                .build();
+    }
+
+    private double averageScore(StatsAggregate aggregate) {
+        return aggregate.matches > 0 ? (double) aggregate.scoreSum / aggregate.matches : 0.0;
+    }
+
+    private void mergeInto(Map<String, StatsAggregate> target, String member, StatsAggregate aggregate) {
+        StatsAggregate existing = target.get(member);
+        if (existing == null) {
+            target.put(member, aggregate);
+        } else {
+            existing.merge(aggregate);
+        }
+    }
+
+    private String resultField(PendingMatch match) {
+        return switch (match.getResult()) {
+            case WIN -> "wins";
+            case LOSS -> "losses";
+            case DRAW -> "draws";
+        };
+    }
+
+    private int bucketOf(int score) {
+        return score < 0 ? 0 : Math.min(score / bucketWidth, buckets - 1);
+    }
+
+    private long gameDayTtlSeconds() {
+        return ChronoUnit.DAYS.getDuration().multipliedBy(gameDayTtlDays).toSeconds();
+    }
+
+    @FunctionalInterface
+    private interface RollupWriter {
+        void write(List<String> members, List<StatsAggregate> aggregates);
+    }
+
+    private static final class Rollups {
+        private final Map<String, StatsAggregate> userGames = new HashMap<>();
+        private final Map<String, StatsAggregate> gameDays = new HashMap<>();
+    }
+}
@@ -0,0 +1,193 @@
+package com.project.redis.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.project.redis.service.ITokenRevocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token revocation. Her token-de iki claim var: tv (user-in token versiyasi) ve sid (cihaz session id-si).
+ * <ul>
+ *     <li>revokeAll: user:token-version:{id} INCR olunur, kohne tv-li butun token-ler etibarsiz olur</li>
+ *     <li>revokeSession: yalniz bir cihazin sid-i token:revoked:{sid}-e yazilir, diger cihazlar islemeye davam edir</li>
+ * </ul>
+ * Request yolunda yoxlama yalniz local cache-e baxir (Redis-e getmir). Deyisiklikler auth:revocations
+ * kanalinda pub/sub ile butun node-lara yayilir; itmis mesajlara qarsi versiya cache-i version-ttl-den sonra
+ * arxa planda yenilenir (request kohne deyeri alir, gozlemir).
+ */
+@Service
+@Slf4j
+public class TokenRevocationServiceImpl implements ITokenRevocationService, MessageListener {
+    private static final String CHANNEL = "auth:revocations";
+    private static final String VERSION_KEY_PREFIX = "user:token-version:";
+    private static final String SESSIONS_KEY_PREFIX = "user:sessions:";
+    private static final String REVOKED_KEY_PREFIX = "token:revoked:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final LoadingCache<Long, Long> versions;
+    // sid -> token-in exp vaxti (epoch ms), entry exp-e qeder yasayir. Versiya cache-inden ferqli olaraq
+    // burada miss "revoke olunmayib" demekdir, ona gore size ile mehdudlasdirilmir
+    private final Cache<String, Long> revokedSessions;
+
+    public TokenRevocationServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      @Value("${token.revocation.version-ttl-seconds:300}") long versionTtlSeconds,
+                                      @Value("${token.revocation.max-size:100000}") long maxSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofSeconds(versionTtlSeconds))
+                .build(this::loadVersion);
+        this.revokedSessions = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String sessionId, Long expiresAt, long currentTime) {
+                        return untilNanos(expiresAt);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String sessionId, Long expiresAt, long currentTime, long currentDuration) {
+                        return untilNanos(expiresAt);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String sessionId, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Node restart olanda evvel yayilmis sid revocation-lari Redis-den yuklenir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevokedSessions() {
+        List<String> keys = new ArrayList<>();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(ScanOptions.scanOptions().match(REVOKED_KEY_PREFIX + "*").count(1000).build())) {
+            cursor.forEachRemaining(keys::add);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; i < keys.size(); i++) {
+            String expiresAt = values != null ? values.get(i) : null;
+            if (expiresAt != null) {
+                revokedSessions.put(keys.get(i).substring(REVOKED_KEY_PREFIX.length()), Long.parseLong(expiresAt));
+            }
+        }
+        log.info("Loaded {} revoked sessions", revokedSessions.estimatedSize());
+    }
+
+    /**
+     * Login zamani cagirilir, ona gore versiya birbasa Redis-den oxunur (local cache kohne ola biler).
+     */
+    @Override
+    public long currentVersion(Long userId) {
+        long version = loadVersion(userId);
+        versions.asMap().merge(userId, version, Math::max);
+        return version;
+    }
+
+    @Override
+    public void registerSession(Long userId, String sessionId, Date expiresAt) {
+        String key = SESSIONS_KEY_PREFIX + userId;
+        stringRedisTemplate.opsForHash().put(key, sessionId, String.valueOf(expiresAt.getTime()));
+        stringRedisTemplate.expireAt(key, expiresAt);
+    }
+
+    @Override
+    public boolean isRevoked(Long userId, long tokenVersion, String sessionId) {
+        if (sessionId != null && revokedSessions.getIfPresent(sessionId) != null) {
+            return true;
+        }
+        return tokenVersion < versions.get(userId);
+    }
+
+    @Override
+    public void revokeSession(Long userId, String sessionId) {
+        String sessionsKey = SESSIONS_KEY_PREFIX + userId;
+        Object expiresAt = stringRedisTemplate.opsForHash().get(sessionsKey, sessionId);
+        if (expiresAt == null) {
+            log.debug("Session not registered or already expired: user:{} sid:{}", userId, sessionId);
+            return;
+        }
+        long expiresAtMillis = Long.parseLong(expiresAt.toString());
+        long ttlMillis = expiresAtMillis - System.currentTimeMillis();
+        stringRedisTemplate.opsForHash().delete(sessionsKey, sessionId);
+        if (ttlMillis <= 0) {
+            return;
+        }
+        stringRedisTemplate.opsForValue().set(REVOKED_KEY_PREFIX + sessionId, String.valueOf(expiresAtMillis), Duration.ofMillis(ttlMillis));
+        revokedSessions.put(sessionId, expiresAtMillis);
+        stringRedisTemplate.convertAndSend(CHANNEL, "s:" + sessionId + ":" + expiresAtMillis);
+    }
+
+    @Override
+    public void revokeAll(Long userId) {
+        Long version = stringRedisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + userId);
+        stringRedisTemplate.delete(SESSIONS_KEY_PREFIX + userId);
+        long newVersion = version != null ? version : 0L;
+        versions.asMap().merge(userId, newVersion, Math::max);
+        stringRedisTemplate.convertAndSend(CHANNEL, "v:" + userId + ":" + newVersion);
+    }
+
+    @Override
+    public Map<String, Long> getActiveSessions(Long userId) {
+        long now = System.currentTimeMillis();
+        Map<String, Long> sessions = new HashMap<>();
+        stringRedisTemplate.opsForHash().entries(SESSIONS_KEY_PREFIX + userId).forEach((sessionId, expiresAt) -> {
+            long expiresAtMillis = Long.parseLong(expiresAt.toString());
+            if (expiresAtMillis > now && revokedSessions.getIfPresent(sessionId.toString()) == null) {
+                sessions.put(sessionId.toString(), expiresAtMillis);
+            }
+        });
+        return sessions;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 3) {
+            log.warn("Unknown revocation message: {}", String.join(":", parts));
+            return;
+        }
+        if ("v".equals(parts[0])) {
+            versions.asMap().merge(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Math::max);
+        } else if ("s".equals(parts[0])) {
+            revokedSessions.put(parts[1], Long.parseLong(parts[2]));
+        }
+    }
+
+    private Long loadVersion(Long userId) {
+        String version = stringRedisTemplate.opsForValue().get(VERSION_KEY_PREFIX + userId);
+        return version != null ? Long.parseLong(version) : 0L;
+    }
+
+    private static long untilNanos(long epochMillis) {
+        return Math.max(0L, Duration.ofMillis(epochMillis - System.currentTimeMillis()).toNanos());
+    }
+}
@@ -62,16 +62,18 @@ public class UserProfileServiceImpl implements IUserProfileService {
     }
 
     private UserProfileResponse mapFromRedis(Map<String, Object> cached) {
+        Integer totalMatches = castToInt(cached.get("totalMatches"));
+        Integer wins = castToInt(cached.get("wins"));
         return UserProfileResponse.builder()
                 .username((String) cached.get("username"))
                 .email((String) cached.get("email"))
                 .avatar((String) cached.get("avatar"))
                 .totalScore(castToLong(cached.get("totalScore")))
                 .level(castToInt(cached.get("level")))
-                .totalMatches(castToInt(cached.get("totalMatches")))
-                .wins(castToInt(cached.get("wins")))
+                .totalMatches(totalMatches)
+                .wins(wins)
                 .losses(castToInt(cached.get("losses")))
-                .winRate(castToDouble(cached.get("winRate")))
+                .winRate(totalMatches > 0 ? (wins * 100.0) / totalMatches : 0.0)
                 .lastLogin(cached.get("lastLogin") != null ? LocalDateTime.parse((String) cached.get("lastLogin")) : null)
                 .build();
     }
@@ -90,13 +92,6 @@ public class UserProfileServiceImpl implements IUserProfileService {
         return Long.parseLong(obj.toString());
     }
 
-    private Double castToDouble(Object obj) {
-        if (obj == null) return 0.0;
-        if (obj instanceof Double) return (Double) obj;
-        if (obj instanceof Float) return ((Float) obj).doubleValue();
-        return Double.parseDouble(obj.toString());
-    }
-
     public UserProfileResponse mapToUserProfileResponse(User user) {
 
         return UserProfileResponse.builder()
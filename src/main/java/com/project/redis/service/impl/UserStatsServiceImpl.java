@@ -0,0 +1,241 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.request.UserStatsDelta;
+import com.project.redis.enums.MatchResult;
+import com.project.redis.repository.UserBatchRepository;
+import com.project.redis.service.IUserStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User statistikasi (wins, losses, totalMatches, totalScore) Redis hash counter-lerinde (HINCRBY) toplanir.
+ * Flush job dirty user-leri goturur, delta-lari eyni hash-in p:* field-lerine kocurur (claim) ve bir set-based UPDATE ile
+ * DB-ye yazir, p:* field-leri yalniz commit-den sonra silinir. Proses flush arasinda dusse p:* qalir, claim-lease bitenden
+ * sonra novbeti flush onu yeniden goturur (startup-da qalan delta-lar dirty set-e qaytarilir). Commit ile silme arasinda
+ * dusme halinda delta ikinci defe yazila biler (at-least-once).
+ * Eyni userin paralel match-lari bir-birinin yazisini itirmir ve user setrinde lock gozlemir.
+ */
+@Service
+@Slf4j
+public class UserStatsServiceImpl implements IUserStatsService {
+    private static final String DELTA_KEY_PREFIX = "user:stats:delta:";
+    private static final String DIRTY_SET = "user:stats:dirty";
+    private static final String PROFILE_CACHE_PREFIX = "user:";
+
+    /**
+     * Claim: sade field-ler p:* field-lerine elave olunub silinir, p:at claim vaxtidir. Basqa flush-in lease-i hele
+     * bitmeyibse {-1} qaytarir. Evvelki claim dusubse (lease bitib) onun p:* deyerleri yeni delta ile birlikde yeniden goturulur.
+     * KEYS[1]: delta hash, ARGV[1]: indiki vaxt (ms), ARGV[2]: lease (ms). Cavab: {1, field, deyer, ...} ve ya {0} (delta yoxdur)
+     */
+    private static final DefaultRedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local at = redis.call('HGET', KEYS[1], 'p:at')
+            if at and tonumber(at) > tonumber(ARGV[1]) - tonumber(ARGV[2]) then
+                return {-1}
+            end
+            local values = redis.call('HGETALL', KEYS[1])
+            for i = 1, #values, 2 do
+                local field = values[i]
+                if string.sub(field, 1, 2) ~= 'p:' then
+                    redis.call('HINCRBY', KEYS[1], 'p:' .. field, values[i + 1])
+                    redis.call('HDEL', KEYS[1], field)
+                end
+            end
+            local result = {1}
+            local pending = redis.call('HGETALL', KEYS[1])
+            for i = 1, #pending, 2 do
+                if pending[i] ~= 'p:at' then
+                    result[#result + 1] = string.sub(pending[i], 3)
+                    result[#result + 1] = pending[i + 1]
+                end
+            end
+            if #result == 1 then
+                redis.call('DEL', KEYS[1])
+                return {0}
+            end
+            redis.call('HSET', KEYS[1], 'p:at', ARGV[1])
+            return result
+            """, List.class);
+
+    private static final String[] CLAIMED_FIELDS = {"p:totalMatches", "p:wins", "p:losses", "p:totalScore", "p:at"};
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserBatchRepository userBatchRepository;
+    private final int batchSize;
+    private final long claimLeaseMs;
+
+    public UserStatsServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                UserBatchRepository userBatchRepository,
+                                @Value("${user.stats.flush-batch-size:1000}") int batchSize,
+                                @Value("${user.stats.claim-lease-ms:60000}") long claimLeaseMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.userBatchRepository = userBatchRepository;
+        this.batchSize = batchSize;
+        this.claimLeaseMs = claimLeaseMs;
+    }
+
+    @Override
+    public void recordMatch(Long userId, MatchResult result, Integer score) {
+        String key = DELTA_KEY_PREFIX + userId;
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForHash().increment(key, "totalMatches", 1);
+                switch (result) {
+                    case WIN -> operations.opsForHash().increment(key, "wins", 1);
+                    case LOSS -> operations.opsForHash().increment(key, "losses", 1);
+                    case DRAW -> {
+                    }
+                }
+                if (score != null && score != 0) {
+                    operations.opsForHash().increment(key, "totalScore", score);
+                }
+                operations.opsForSet().add(DIRTY_SET, String.valueOf(userId));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Evvelki proses flush arasinda dusubse dirty set-den cixarilmis amma DB-ye yazilmamis delta-lar qalir,
+     * onlari yeniden dirty set-e qoyur. Dusmus claim-ler lease bitende goturulur.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void redrainPending() {
+        List<String> userIds = new ArrayList<>();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(ScanOptions.scanOptions()
+                .match(DELTA_KEY_PREFIX + "*").count(batchSize).build())) {
+            cursor.forEachRemaining(key -> userIds.add(key.substring(DELTA_KEY_PREFIX.length())));
+        }
+        if (!userIds.isEmpty()) {
+            stringRedisTemplate.opsForSet().add(DIRTY_SET, userIds.toArray(new String[0]));
+            log.info("User stats: {} pending delta re-queued", userIds.size());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${user.stats.flush-interval-ms:5000}")
+    public int flush() {
+        int flushed = 0;
+        List<String> userIds;
+        do {
+            userIds = stringRedisTemplate.opsForSet().pop(DIRTY_SET, batchSize);
+            if (userIds == null || userIds.isEmpty()) {
+                break;
+            }
+            flushed += flushBatch(userIds);
+        } while (userIds.size() == batchSize);
+        if (flushed > 0) {
+            log.debug("User stats flushed: {} user", flushed);
+        }
+        return flushed;
+    }
+
+    private int flushBatch(List<String> userIds) {
+        String now = String.valueOf(System.currentTimeMillis());
+        String lease = String.valueOf(claimLeaseMs);
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (String userId : userIds) {
+                    operations.execute(CLAIM_SCRIPT, List.of(DELTA_KEY_PREFIX + userId), now, lease);
+                }
+                return null;
+            }
+        });
+
+        List<UserStatsDelta> deltas = new ArrayList<>(userIds.size());
+        List<String> busy = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            List<?> reply = (List<?>) results.get(i);
+            long status = reply != null && !reply.isEmpty() ? Long.parseLong(String.valueOf(reply.get(0))) : 0L;
+            if (status < 0) {
+                busy.add(userIds.get(i));
+            } else if (status > 0) {
+                deltas.add(toDelta(Long.parseLong(userIds.get(i)), reply.subList(1, reply.size())));
+            }
+        }
+        // basqa flush-in claim-i bitmeyib: user sonraki flush-a qalir
+        if (!busy.isEmpty()) {
+            stringRedisTemplate.opsForSet().add(DIRTY_SET, busy.toArray(new String[0]));
+        }
+
+        try {
+            userBatchRepository.applyStatDeltas(deltas);
+        } catch (RuntimeException e) {
+            // p:* deyerleri Redis-de qalir, p:at silinir ki novbeti flush lease gozlemeden yeniden gotursun
+            log.error("User stats flush failed, releasing {} claimed delta", deltas.size(), e);
+            release(deltas);
+            stringRedisTemplate.opsForSet().add(DIRTY_SET, userIds.toArray(new String[0]));
+            throw e;
+        }
+        settle(deltas);
+        // profil cache-i (user:{id}) kohne statistikani gostermesin
+        stringRedisTemplate.delete(userIds.stream().map(id -> PROFILE_CACHE_PREFIX + id).toList());
+        return deltas.size();
+    }
+
+    private void release(List<UserStatsDelta> deltas) {
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (UserStatsDelta delta : deltas) {
+                    operations.opsForHash().delete(DELTA_KEY_PREFIX + delta.getUserId(), "p:at");
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Commit olunmus claim-i silir, claim-den sonra gelen HINCRBY-lar sade field-lerde qalir.
+     */
+    private void settle(List<UserStatsDelta> deltas) {
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (UserStatsDelta delta : deltas) {
+                    operations.opsForHash().delete(DELTA_KEY_PREFIX + delta.getUserId(), (Object[]) CLAIMED_FIELDS);
+                }
+                return null;
+            }
+        });
+    }
+
+    private UserStatsDelta toDelta(Long userId, List<?> flat) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            values.put(String.valueOf(flat.get(i)), flat.get(i + 1));
+        }
+        return UserStatsDelta.builder()
+                .userId(userId)
+                .totalMatches(field(values, "totalMatches"))
+                .wins(field(values, "wins"))
+                .losses(field(values, "losses"))
+                .totalScore(field(values, "totalScore"))
+                .build();
+    }
+
+    private long field(Map<String, Object> values, String name) {
+        Object value = values.get(name);
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+}
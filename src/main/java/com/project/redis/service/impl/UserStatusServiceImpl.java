@@ -0,0 +1,99 @@
+package com.project.redis.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.project.redis.enums.UserStatus;
+import com.project.redis.repository.UserRepository;
+import com.project.redis.service.IUserStatusService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Ban/suspend yoxlamasi ucun user status cache-i: process-daxili Caffeine -> Redis user:status:{id} -> DB.
+ * updateStatus/evict Redis key-i silir ve user:status:evictions kanali ile butun node-larin local cache-ini temizleyir.
+ * Status DB-de birbasa deyisdirilerse yeni status en gec redis-ttl + local-ttl sonra gorunur.
+ * Olmayan user da cache-lenir (NONE), silinmis user-in token-i her request-de DB-ye getmir.
+ */
+@Service
+@Slf4j
+public class UserStatusServiceImpl implements IUserStatusService, MessageListener {
+    private static final String STATUS_KEY_PREFIX = "user:status:";
+    private static final String CHANNEL = "user:status:evictions";
+    private static final String NOT_FOUND = "NONE";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserRepository userRepository;
+    private final Duration redisTtl;
+    private final LoadingCache<Long, Optional<UserStatus>> localCache;
+
+    public UserStatusServiceImpl(StringRedisTemplate stringRedisTemplate, UserRepository userRepository,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 @Value("${user.status-cache.local-ttl-seconds:30}") long localTtlSeconds,
+                                 @Value("${user.status-cache.redis-ttl-seconds:30}") long redisTtlSeconds,
+                                 @Value("${user.status-cache.max-size:100000}") long maxSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.userRepository = userRepository;
+        this.redisTtl = Duration.ofSeconds(redisTtlSeconds);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build(this::load);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public UserStatus getStatus(Long userId) {
+        return localCache.get(userId).orElse(null);
+    }
+
+    @Override
+    public boolean isActive(Long userId) {
+        return getStatus(userId) == UserStatus.ACTIVE;
+    }
+
+    @Override
+    public boolean updateStatus(Long userId, UserStatus status) {
+        boolean updated = userRepository.updateStatus(userId, status) > 0;
+        evict(userId);
+        return updated;
+    }
+
+    @Override
+    public void evict(Long userId) {
+        stringRedisTemplate.delete(STATUS_KEY_PREFIX + userId);
+        localCache.invalidate(userId);
+        stringRedisTemplate.convertAndSend(CHANNEL, String.valueOf(userId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            localCache.invalidate(Long.parseLong(body));
+        } catch (NumberFormatException e) {
+            log.warn("Unknown user status eviction message: {}", body);
+        }
+    }
+
+    private Optional<UserStatus> load(Long userId) {
+        String key = STATUS_KEY_PREFIX + userId;
+        String cached = stringRedisTemplate.opsForValue().get(key);
+        if (cached != null) {
+            return NOT_FOUND.equals(cached) ? Optional.empty() : Optional.of(UserStatus.valueOf(cached));
+        }
+        log.debug("User status cache MISS: user:{}", userId);
+        Optional<UserStatus> status = userRepository.findStatusById(userId);
+        stringRedisTemplate.opsForValue().set(key, status.map(UserStatus::name).orElse(NOT_FOUND), redisTtl);
+        return status;
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.redis.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.redis.dto.response.UserSummary;
+import com.project.redis.repository.UserRepository;
+import com.project.redis.service.IUserSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Leaderboard ve profil ekranlari ucun kicik username/avatar/level cache-i.
+ * Cache-de olmayan butun id-ler bir dene findSummariesByIdIn sorgusu ile gelir.
+ */
+@Service
+@Slf4j
+public class UserSummaryServiceImpl implements IUserSummaryService {
+    private final UserRepository userRepository;
+    private final Cache<Long, UserSummary> cache;
+
+    public UserSummaryServiceImpl(UserRepository userRepository,
+                                  @Value("${user.summary-cache.max-size:100000}") long maxSize,
+                                  @Value("${user.summary-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @Override
+    public UserSummary getSummary(Long userId) {
+        return getSummaries(List.of(userId)).get(userId);
+    }
+
+    @Override
+    public Map<Long, UserSummary> getSummaries(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return cache.getAll(userIds, this::loadAll);
+    }
+
+    @Override
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    private Map<Long, UserSummary> loadAll(Set<? extends Long> missing) {
+        log.debug("User summary cache MISS: {} user", missing.size());
+        Map<Long, UserSummary> loaded = new HashMap<>();
+        for (UserSummary summary : userRepository.findSummariesByIdIn(List.copyOf(missing))) {
+            loaded.put(summary.getId(), summary);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,66 @@
+-- matches created_at uzre aylik range partition-lara bolunur (matches_pYYYYMM).
+-- Movcud cedvel varsa setirleri yeni partition-lara kocurulur, inline replay-ler
+-- match_inline_replays-e ayrilir (ReplayService fayl store-a kocurur).
+-- Partition-li cedvelde PK partition acarini (created_at) ehtiva etmelidir; adi kohne matches_pkey ile toqqusmasin deye ayridir.
+DO $$
+DECLARE
+    has_legacy boolean;
+    has_replay boolean;
+    first_month date;
+    last_month date := (date_trunc('month', now()) + interval '3 month')::date;
+    part_month date;
+BEGIN
+    SELECT EXISTS (SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                   WHERE n.nspname = current_schema() AND c.relname = 'matches' AND c.relkind = 'r')
+    INTO has_legacy;
+
+    IF has_legacy THEN
+        ALTER TABLE matches RENAME TO matches_legacy;
+        DROP INDEX IF EXISTS idx_user_id;
+        DROP INDEX IF EXISTS idx_game_id;
+        DROP INDEX IF EXISTS idx_created_at;
+        DROP INDEX IF EXISTS idx_matches_user_created;
+        EXECUTE 'SELECT date_trunc(''month'', MIN(created_at))::date FROM matches_legacy' INTO first_month;
+    END IF;
+    first_month := COALESCE(first_month, date_trunc('month', now())::date);
+
+    CREATE TABLE matches (
+        id          bigint      NOT NULL,
+        user_id     bigint      NOT NULL,
+        game_id     bigint      NOT NULL,
+        opponent_id bigint,
+        result      varchar(20) NOT NULL,
+        score       integer     NOT NULL,
+        duration    integer     NOT NULL,
+        created_at  timestamp(6) NOT NULL,
+        CONSTRAINT matches_partitioned_pkey PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    -- partition manager vaxtinda yaratmasa insert-ler itmesin
+    CREATE TABLE matches_default PARTITION OF matches DEFAULT;
+
+    part_month := first_month;
+    WHILE part_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF matches FOR VALUES FROM (%L) TO (%L)',
+                       'matches_p' || to_char(part_month, 'YYYYMM'), part_month, (part_month + interval '1 month')::date);
+        part_month := (part_month + interval '1 month')::date;
+    END LOOP;
+
+    CREATE INDEX idx_matches_user_created ON matches (user_id, created_at, id);
+    CREATE INDEX idx_matches_game_created ON matches (game_id, created_at);
+
+    IF has_legacy THEN
+        INSERT INTO matches (id, user_id, game_id, opponent_id, result, score, duration, created_at)
+        SELECT id, user_id, game_id, opponent_id, result, score, duration, created_at FROM matches_legacy;
+
+        SELECT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema() AND table_name = 'matches_legacy' AND column_name = 'replay')
+        INTO has_replay;
+        IF has_replay THEN
+            CREATE TABLE match_inline_replays AS
+                SELECT id AS match_id, user_id, replay FROM matches_legacy WHERE replay IS NOT NULL;
+        END IF;
+
+        DROP TABLE matches_legacy;
+    END IF;
+END $$;
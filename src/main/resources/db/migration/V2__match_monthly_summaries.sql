@@ -0,0 +1,16 @@
+-- Arxivlenen (drop olunan) aylik partition-larin user + oyun uzre toplu xulasesi.
+CREATE TABLE match_monthly_summaries (
+    month          date    NOT NULL,
+    user_id        bigint  NOT NULL,
+    game_id        bigint  NOT NULL,
+    matches        integer NOT NULL,
+    wins           integer NOT NULL,
+    losses         integer NOT NULL,
+    draws          integer NOT NULL,
+    total_score    bigint  NOT NULL,
+    max_score      integer NOT NULL,
+    total_duration bigint  NOT NULL,
+    PRIMARY KEY (month, user_id, game_id)
+);
+
+CREATE INDEX idx_match_monthly_summaries_user ON match_monthly_summaries (user_id, month);
@@ -0,0 +1,70 @@
+package com.project.redis.config;
+
+import com.project.redis.dto.response.PlayerRating;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRedisSerializerTest {
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer().register(1, PlayerRating.class);
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+
+    @Test
+    void roundTripsScalars() {
+        for (Object value : List.of("user:1", 42L, -7L, Long.MAX_VALUE, 13, -1, 1.5, true, false)) {
+            assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void emptyBytesReadAsNull() {
+        assertThat(serializer.serialize(null)).isEmpty();
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+    }
+
+    @Test
+    void plainStringsAreStoredAsUtf8() {
+        assertThat(serializer.serialize("user:1")).isEqualTo("user:1".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTripsStringsThatLookLikeTagsOrJdkMagic() {
+        for (String value : List.of("\u0001abc", "\u0010", "¬í", "\u001f")) {
+            assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void roundTripsRegisteredTypesAndLists() {
+        PlayerRating rating = PlayerRating.builder().rating(1510.5).deviation(80.0).volatility(0.06).matches(12).build();
+
+        assertThat(serializer.deserialize(serializer.serialize(rating))).isEqualTo(rating);
+        assertThat(serializer.deserialize(serializer.serialize(List.of(rating, rating)))).isEqualTo(List.of(rating, rating));
+        assertThat(serializer.deserialize(serializer.serialize(List.of()))).isEqualTo(List.of());
+    }
+
+    @Test
+    void readsLegacyJdkValues() {
+        assertThat(serializer.deserialize(jdk.serialize("user:1"))).isEqualTo("user:1");
+        assertThat(serializer.deserialize(jdk.serialize(99L))).isEqualTo(99L);
+    }
+
+    @Test
+    void writesJdkUntilCompactWritesAreEnabled() {
+        CompactRedisSerializer gated = new CompactRedisSerializer().compactWrites(false);
+
+        byte[] legacy = gated.serialize("user:1");
+        byte[] compact = gated.serializeCompact("user:1");
+
+        assertThat(legacy).isEqualTo(jdk.serialize("user:1"));
+        assertThat(compact).isEqualTo("user:1".getBytes(StandardCharsets.UTF_8));
+        assertThat(gated.deserialize(legacy)).isEqualTo(gated.deserialize(compact));
+
+        gated.compactWrites(true);
+        assertThat(gated.serialize("user:1")).isEqualTo(compact);
+    }
+}
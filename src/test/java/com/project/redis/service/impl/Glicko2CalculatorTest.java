@@ -0,0 +1,61 @@
+package com.project.redis.service.impl;
+
+import com.project.redis.dto.response.PlayerRating;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class Glicko2CalculatorTest {
+    private final Glicko2Calculator calculator = new Glicko2Calculator(0.5, 350.0, 0.0);
+
+    /**
+     * Glickman, "Example of the Glicko-2 system": 1500/200/0.06 oyuncu 1400/30-u udur, 1550/100 ve 1700/300-e uduzur.
+     */
+    @Test
+    void matchesGlickmanWorkedExample() {
+        PlayerRating player = rating(1500, 200, 0.06, 0);
+        List<PlayerRating> opponents = List.of(rating(1400, 30, 0.06, 0), rating(1550, 100, 0.06, 0), rating(1700, 300, 0.06, 0));
+
+        PlayerRating updated = calculator.update(player, opponents, new double[]{1.0, 0.0, 0.0});
+
+        assertThat(updated.getRating()).isCloseTo(1464.06, within(0.01));
+        assertThat(updated.getDeviation()).isCloseTo(151.52, within(0.01));
+        assertThat(updated.getVolatility()).isCloseTo(0.05999, within(0.00001));
+        assertThat(updated.getMatches()).isEqualTo(3);
+    }
+
+    @Test
+    void singleOpponentUpdateIsOneOpponentPeriod() {
+        PlayerRating player = rating(1500, 200, 0.06, 4);
+        PlayerRating opponent = rating(1400, 30, 0.06, 0);
+
+        PlayerRating single = calculator.update(player, opponent, 1.0);
+        PlayerRating period = calculator.update(player, List.of(opponent), new double[]{1.0});
+
+        assertThat(single).isEqualTo(period);
+        assertThat(single.getRating()).isGreaterThan(1500.0);
+        assertThat(single.getMatches()).isEqualTo(5);
+    }
+
+    @Test
+    void deviationStaysWithinBounds() {
+        Glicko2Calculator bounded = new Glicko2Calculator(0.5, 350.0, 60.0);
+        PlayerRating player = rating(1500, 50, 0.06, 100);
+
+        PlayerRating updated = bounded.update(player, rating(1500, 30, 0.06, 100), 0.5);
+
+        assertThat(updated.getDeviation()).isEqualTo(60.0);
+    }
+
+    private PlayerRating rating(double rating, double deviation, double volatility, int matches) {
+        return PlayerRating.builder()
+                .rating(rating)
+                .deviation(deviation)
+                .volatility(volatility)
+                .matches(matches)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.project.redis.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Shard-lar yaddasda saxlanilir, pipeline-a gelen ZSET emrleri onlar uzerinde cavablandirilir.
+ */
+class ShardedLeaderboardServiceImplTest {
+    private static final int SHARDS = 4;
+
+    private final Map<String, Map<Object, Double>> shards = new HashMap<>();
+    private ShardedLeaderboardServiceImpl leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new ShardedLeaderboardServiceImpl(fakeRedis(), true, SHARDS, false, 20);
+    }
+
+    @Test
+    void mergesShardsIntoGlobalOrder() {
+        for (long userId = 1; userId <= 50; userId++) {
+            put(userId, userId * 10.0);
+        }
+
+        assertThat(userIds(leaderboard.getRange(0, 5))).containsExactly(50L, 49L, 48L, 47L, 46L);
+        assertThat(userIds(leaderboard.getRange(5, 3))).containsExactly(45L, 44L, 43L);
+        assertThat(leaderboard.getTotalPlayers()).isEqualTo(50L);
+    }
+
+    @Test
+    void clampsPagesAtMaxPageDepth() {
+        for (long userId = 1; userId <= 50; userId++) {
+            put(userId, userId * 10.0);
+        }
+
+        assertThat(userIds(leaderboard.getRange(15, 10))).containsExactly(35L, 34L, 33L, 32L, 31L);
+        assertThat(leaderboard.getRange(20, 5)).isEmpty();
+    }
+
+    @Test
+    void rankCountsHigherScoresAcrossShards() {
+        put(1L, 100.0);
+        put(2L, 90.0);
+        put(3L, 90.0);
+        put(4L, 80.0);
+        put(5L, 70.0);
+
+        assertThat(leaderboard.getGlobalRank(100.0)).isEqualTo(1L);
+        // beraber xallar eyni rank-i paylasir
+        assertThat(leaderboard.getGlobalRank(90.0)).isEqualTo(2L);
+        assertThat(leaderboard.getGlobalRank(80.0)).isEqualTo(4L);
+        assertThat(leaderboard.getGlobalRank(85.0)).isEqualTo(4L);
+        assertThat(leaderboard.getGlobalRank(10.0)).isEqualTo(6L);
+    }
+
+    private void put(Long userId, double score) {
+        shards.computeIfAbsent(leaderboard.getShardKey(userId), key -> new HashMap<>()).put("user:" + userId, score);
+    }
+
+    private List<Long> userIds(List<ZSetOperations.TypedTuple<Object>> tuples) {
+        return tuples.stream().map(tuple -> Long.parseLong(tuple.getValue().toString().substring("user:".length()))).toList();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RedisTemplate<String, Object> fakeRedis() {
+        RedisTemplate<String, Object> template = mock(RedisTemplate.class);
+        when(template.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            List<Object> results = new ArrayList<>();
+            ZSetOperations<String, Object> ops = mock(ZSetOperations.class);
+            when(ops.count(anyString(), anyDouble(), anyDouble())).thenAnswer(call -> {
+                double min = call.getArgument(1);
+                double max = call.getArgument(2);
+                results.add(shard(call.getArgument(0)).values().stream().filter(score -> score >= min && score <= max).count());
+                return null;
+            });
+            when(ops.size(anyString())).thenAnswer(call -> {
+                results.add((long) shard(call.getArgument(0)).size());
+                return null;
+            });
+            when(ops.reverseRangeWithScores(anyString(), anyLong(), anyLong())).thenAnswer(call -> {
+                long start = call.getArgument(1);
+                long end = call.getArgument(2);
+                Set<ZSetOperations.TypedTuple<Object>> range = new LinkedHashSet<>();
+                shard(call.getArgument(0)).entrySet().stream()
+                        .sorted(Map.Entry.<Object, Double>comparingByValue(Comparator.reverseOrder()))
+                        .skip(start)
+                        .limit(end - start + 1)
+                        .forEach(entry -> range.add(new DefaultTypedTuple<>(entry.getKey(), entry.getValue())));
+                results.add(range);
+                return null;
+            });
+            RedisOperations operations = mock(RedisOperations.class);
+            when(operations.opsForZSet()).thenReturn(ops);
+            ((SessionCallback<Object>) invocation.getArgument(0)).execute(operations);
+            return results;
+        });
+        return template;
+    }
+
+    private Map<Object, Double> shard(String key) {
+        return shards.getOrDefault(key, Map.of());
+    }
+}